@@ -0,0 +1,99 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.resources;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+class CanonicalPathCacheTest {
+	private static final String WS = File.separator + "ws"; //$NON-NLS-1$
+
+	private static final class TestCache extends CanonicalPathCache {
+		long fNow;
+
+		TestCache(int capacity) {
+			super(capacity, 1000);
+		}
+
+		@Override
+		long now() {
+			return fNow;
+		}
+
+		@Override
+		boolean isInWorkspace(String path) {
+			return path.startsWith(WS + File.separator);
+		}
+	}
+
+	private final AtomicInteger fResolved = new AtomicInteger();
+	private final UnaryOperator<String> fResolver = path -> {
+		fResolved.incrementAndGet();
+		return path.toLowerCase();
+	};
+
+	private static String path(String... segments) {
+		return WS + File.separator + String.join(File.separator, segments);
+	}
+
+	@Test
+	void testHitsAndCapacity() {
+		TestCache cache = new TestCache(2);
+		assertEquals(path("a"), cache.get(path("A"), fResolver));
+		assertEquals(path("a"), cache.get(path("A"), fResolver));
+		assertEquals(1, fResolved.get());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+
+		cache.get(path("B"), fResolver);
+		cache.get(path("A"), fResolver);
+		cache.get(path("C"), fResolver); // drops B, the least recently used
+		assertEquals(2, cache.size());
+		cache.get(path("A"), fResolver);
+		assertEquals(3, fResolved.get());
+		cache.get(path("B"), fResolver);
+		assertEquals(4, fResolved.get());
+	}
+
+	@Test
+	void testTimeToLive() {
+		// paths within the workspace do not expire, they are invalidated by deltas
+		TestCache cache = new TestCache(10);
+		String outside = File.separator + "home" + File.separator + "Lib.rs"; //$NON-NLS-1$ //$NON-NLS-2$
+		cache.get(outside, fResolver);
+		cache.get(path("Main.rs"), fResolver);
+		cache.fNow = 999;
+		cache.get(outside, fResolver);
+		assertEquals(2, fResolved.get());
+		cache.fNow = 1000;
+		cache.get(outside, fResolver);
+		cache.get(path("Main.rs"), fResolver);
+		assertEquals(3, fResolved.get());
+	}
+
+	@Test
+	void testInvalidate() {
+		TestCache cache = new TestCache(10);
+		cache.get(path("src", "Main.rs"), fResolver);
+		cache.get(path("src", "mod", "Lib.rs"), fResolver);
+		cache.get(path("srcx", "Lib.rs"), fResolver);
+		cache.get(path("Cargo.toml"), fResolver);
+		cache.invalidate(List.of(path("src"), path("Cargo.toml")));
+		assertEquals(1, cache.size());
+		cache.get(path("srcx", "Lib.rs"), fResolver);
+		assertEquals(4, fResolved.get());
+	}
+}
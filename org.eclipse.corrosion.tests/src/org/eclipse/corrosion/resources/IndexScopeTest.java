@@ -0,0 +1,112 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.resources;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.Path;
+import org.junit.jupiter.api.Test;
+
+class IndexScopeTest {
+
+	private static final String WORKSPACE_TOML = """
+			[workspace]
+			members = [
+				"crates/*", # all crates
+				"tools/gen",
+			]
+			exclude = ["crates/old"]
+			""";
+
+	@Test
+	void testTargetDir() {
+		IndexScope scope = new IndexScope(new Path("/ws/prj"), null, null, null, null, false);
+		assertTrue(scope.isExcluded(new Path("target"), true));
+		assertTrue(scope.isExcluded(new Path(".git"), true));
+		assertFalse(scope.isExcluded(new Path("src"), true));
+		assertFalse(scope.isExcluded(new Path("src/target"), true));
+		assertFalse(scope.contains(new Path("target/debug/build/out/gen.rs"), false));
+
+		scope = new IndexScope(new Path("/ws/prj"), null, """
+				[build]
+				target-dir = "out" # not target
+				[source.vendored-sources]
+				directory = 'third_party/vendor'
+				""", null, null, false);
+		assertFalse(scope.isExcluded(new Path("target"), true));
+		assertTrue(scope.isExcluded(new Path("out"), true));
+		assertTrue(scope.isExcluded(new Path("third_party/vendor"), true));
+
+		// the environment takes precedence, target directories outside are ignored
+		scope = new IndexScope(new Path("/ws/prj"), null, "build.target-dir = \"out\"", null, "/ws/prj/build", false);
+		assertTrue(scope.isExcluded(new Path("build"), true));
+		assertFalse(scope.isExcluded(new Path("out"), true));
+		scope = new IndexScope(new Path("/ws/prj"), null, null, null, "/tmp/target", false);
+		assertFalse(scope.isExcluded(new Path("target"), true));
+	}
+
+	@Test
+	void testGitignore() {
+		IndexScope scope = new IndexScope(new Path("/ws/prj"), null, null, """
+				# comment
+				/generated/
+				*.rs.bk
+				build*/
+				!build-support
+				docs/**/api
+				""", null, false);
+		assertTrue(scope.isExcluded(new Path("generated"), true));
+		assertFalse(scope.isExcluded(new Path("src/generated"), true));
+		assertTrue(scope.isExcluded(new Path("src/main.rs.bk"), false));
+		assertFalse(scope.isExcluded(new Path("src/main.rs"), false));
+		assertTrue(scope.isExcluded(new Path("src/build-out"), true));
+		assertFalse(scope.isExcluded(new Path("src/build-out"), false));
+		assertFalse(scope.isExcluded(new Path("build-support"), true));
+		assertTrue(scope.isExcluded(new Path("docs/api"), true));
+		assertTrue(scope.isExcluded(new Path("docs/v1/rust/api"), true));
+		assertTrue(scope.hasFileRules());
+		assertFalse(scope.contains(new Path("generated/lib.rs"), false));
+		assertTrue(scope.contains(new Path("src/lib.rs"), false));
+	}
+
+	@Test
+	void testMembersOnly() {
+		IndexScope scope = new IndexScope(new Path("/ws/prj"), WORKSPACE_TOML, null, null, null, true);
+		assertFalse(scope.isExcluded(new Path("crates"), true));
+		assertFalse(scope.isExcluded(new Path("crates/core"), true));
+		assertFalse(scope.isExcluded(new Path("crates/core/src"), true));
+		assertFalse(scope.isExcluded(new Path("tools"), true));
+		assertTrue(scope.isExcluded(new Path("tools/scripts"), true));
+		assertTrue(scope.isExcluded(new Path("examples"), true));
+		assertFalse(scope.isExcluded(new Path("README.md"), false));
+		assertTrue(scope.isExcluded(new Path("crates/old"), true));
+
+		// the option is off or the root is a package
+		scope = new IndexScope(new Path("/ws/prj"), WORKSPACE_TOML, null, null, null, false);
+		assertFalse(scope.isExcluded(new Path("examples"), true));
+		scope = new IndexScope(new Path("/ws/prj"), "[package]\nname = \"prj\"\n" + WORKSPACE_TOML, null, null, null,
+				true);
+		assertFalse(scope.isExcluded(new Path("examples"), true));
+	}
+
+	@Test
+	void testReadToml() {
+		Map<String, String> toml = IndexScope.readToml(WORKSPACE_TOML);
+		assertEquals(List.of("crates/*", "tools/gen"), IndexScope.parseStringArray(toml.get("workspace.members")));
+		assertEquals(List.of("crates/old"), IndexScope.parseStringArray(toml.get("workspace.exclude")));
+		assertEquals("a#b", IndexScope.parseString(IndexScope.readToml("[\"build\"]\ntarget-dir = \"a#b\" # c")
+				.get("build.target-dir")));
+	}
+}
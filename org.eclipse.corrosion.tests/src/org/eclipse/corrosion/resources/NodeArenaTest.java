@@ -0,0 +1,197 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.resources;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class NodeArenaTest {
+
+	private static int add(NodeArena arena, int parent, String name, byte flags) {
+		char[] chars = name.toCharArray();
+		return arena.add(parent, chars, NodeArena.hashCode(chars), flags);
+	}
+
+	private static String path(NodeArena arena, int node) {
+		return node == NodeArena.ROOT ? "" : path(arena, arena.parent(node)) + "/" + arena.getNameString(node);
+	}
+
+	@Test
+	void testNodes() {
+		NodeArena arena = new NodeArena();
+		int project = add(arena, NodeArena.ROOT, "project", (byte) 0);
+		int src = add(arena, project, "src", (byte) 0);
+		int lib = add(arena, src, "lib.rs", NodeArena.FILE_LOCATION_NAME);
+		int link = add(arena, src, "target.rs", (byte) (NodeArena.FILE_LOCATION_NAME | NodeArena.FILE_LINK_TARGET));
+		assertEquals(4, arena.size());
+		assertEquals("/project/src/lib.rs", path(arena, lib));
+		assertTrue(arena.hasChildren(src));
+		assertFalse(arena.hasChildren(lib));
+		assertTrue(arena.hasFileLocationName(lib));
+		assertFalse(arena.isFileLinkTarget(lib));
+		assertTrue(arena.isFileLinkTarget(link));
+		assertTrue(arena.nameEquals(lib, "lib.rs".toCharArray()));
+		assertFalse(arena.nameEquals(lib, "lib.r".toCharArray()));
+		assertEquals(6, arena.getNameLength(lib));
+		assertEquals('.', arena.getNameChar(lib, 3));
+		assertArrayEquals(new int[] { lib }, arena.get(NodeArena.hashCode("lib.rs".toCharArray())));
+	}
+
+	@Test
+	void testRelevanceFlags() {
+		NodeArena arena = new NodeArena();
+		int project = add(arena, NodeArena.ROOT, "project", (byte) 0);
+		int lib = add(arena, project, "lib.rs", NodeArena.FILE_LOCATION_NAME);
+		int linked = add(arena, project, "linked.rs", (byte) (NodeArena.FILE_LOCATION_NAME | NodeArena.LINKED));
+		int target = add(arena, project, "target.rs",
+				(byte) (NodeArena.FILE_LOCATION_NAME | NodeArena.FILE_LINK_TARGET));
+		assertFalse(arena.isLinked(lib));
+		assertTrue(arena.isLinked(linked));
+		assertTrue(arena.isLinked(target));
+		assertEquals(NodeArena.FILE_LOCATION_NAME | NodeArena.LINKED, arena.getFlags(linked));
+
+		assertNull(arena.isSymbolicLink(lib));
+		arena.setSymbolicLink(lib, true);
+		arena.setSymbolicLink(linked, false);
+		assertEquals(Boolean.TRUE, arena.isSymbolicLink(lib));
+		assertEquals(Boolean.FALSE, arena.isSymbolicLink(linked));
+		// symbolic links are determined again after a restart
+		assertEquals(NodeArena.FILE_LOCATION_NAME, arena.getFlags(lib));
+	}
+
+	@Test
+	void testCopyIsIndependent() {
+		NodeArena arena = new NodeArena();
+		int project = add(arena, NodeArena.ROOT, "project", (byte) 0);
+		NodeArena copy = arena.copy();
+		add(copy, project, "Cargo.toml", NodeArena.FILE_LOCATION_NAME);
+		copy.setCanonicHash(project, 42);
+		assertEquals(1, arena.size());
+		assertEquals(2, copy.size());
+		assertEquals(0, arena.getCanonicHash(project));
+		assertFalse(arena.hasChildren(project));
+	}
+
+	@Test
+	void testCompact() {
+		NodeArena arena = new NodeArena();
+		int project = add(arena, NodeArena.ROOT, "project", (byte) 0);
+		int a = add(arena, project, "a", (byte) 0);
+		add(arena, a, "mod.rs", NodeArena.FILE_LOCATION_NAME);
+		int b = add(arena, project, "b", (byte) 0);
+		int mod = add(arena, b, "mod.rs", NodeArena.FILE_LOCATION_NAME);
+		arena.setCanonicHash(mod, 7);
+
+		int hash = NodeArena.hashCode("a".toCharArray());
+		arena.remove(hash, arena.first(hash));
+		assertEquals(4, arena.size());
+		arena.compact();
+		assertEquals(3, arena.size());
+		assertEquals(4, arena.getNodeCount());
+
+		int[] mods = arena.get(NodeArena.hashCode("mod.rs".toCharArray()));
+		assertEquals(1, mods.length);
+		assertEquals("/project/b/mod.rs", path(arena, mods[0]));
+		assertEquals(7, arena.getCanonicHash(mods[0]));
+	}
+
+	@Test
+	void testSubtreeSizes() {
+		NodeArena arena = new NodeArena();
+		int p1 = add(arena, NodeArena.ROOT, "p1", (byte) 0);
+		int src = add(arena, p1, "src", (byte) 0);
+		add(arena, src, "lib.rs", NodeArena.FILE_LOCATION_NAME);
+		add(arena, src, "main.rs", NodeArena.FILE_LOCATION_NAME);
+		int p2 = add(arena, NodeArena.ROOT, "p2", (byte) 0);
+		int[] sizes = arena.getSubtreeSizes();
+		assertEquals(4, sizes[p1]);
+		assertEquals(3, sizes[src]);
+		assertEquals(1, sizes[p2]);
+		assertEquals(5, sizes[NodeArena.ROOT]);
+	}
+
+	@Test
+	void testAddAll() {
+		NodeArena arena = new NodeArena();
+		int p1 = add(arena, NodeArena.ROOT, "p1", (byte) 0);
+		add(arena, p1, "lib.rs", NodeArena.FILE_LOCATION_NAME);
+		NodeArena other = new NodeArena();
+		int p2 = add(other, NodeArena.ROOT, "p2", (byte) 0);
+		int src = add(other, p2, "src", (byte) 0);
+		add(other, src, "lib.rs", NodeArena.FILE_LOCATION_NAME);
+		arena.addAll(other);
+
+		assertEquals(5, arena.size());
+		int[] libs = arena.get(NodeArena.hashCode("lib.rs".toCharArray()));
+		assertEquals(2, libs.length);
+		assertEquals("/p1/lib.rs", path(arena, libs[0]));
+		assertEquals("/p2/src/lib.rs", path(arena, libs[1]));
+		assertTrue(arena.hasFileLocationName(libs[1]));
+	}
+
+	@Test
+	void testNames() {
+		NodeArena arena = new NodeArena();
+		int project = add(arena, NodeArena.ROOT, "résumé", (byte) 0);
+		int wide = add(arena, project, "\u6587\u4ef6.rs", NodeArena.FILE_LOCATION_NAME);
+		int upper = add(arena, project, "LIB.RS", NodeArena.FILE_LOCATION_NAME);
+		int lower = add(arena, project, "lib.rs", NodeArena.FILE_LOCATION_NAME);
+		assertEquals("résumé", arena.getNameString(project));
+		assertEquals("\u6587\u4ef6.rs", arena.getNameString(wide));
+		assertEquals(5, arena.getNameLength(wide));
+		assertEquals('\u4ef6', arena.getNameChar(wide, 1));
+		assertEquals("LIB.RS", arena.getNameString(upper));
+		assertEquals("lib.rs", arena.getNameString(lower));
+		assertTrue(arena.nameEquals(lower, "lib.rs".toCharArray()));
+		assertFalse(arena.nameEquals(upper, "lib.rs".toCharArray()));
+	}
+
+	/**
+	 * Builds the nodes for a small workspace and checks the number of bytes needed
+	 * per file, see {@link ResourceLookupBenchmark} for a workspace of 500k files.
+	 */
+	@Test
+	void testFootprint() {
+		final int files = 5000;
+		NodeArena arena = createArena(files);
+		final double bytesPerFile = (double) arena.footprint() / files;
+		assertTrue(bytesPerFile < 48, "bytes per file: " + bytesPerFile); //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns the nodes of a workspace with the given number of files, in crates of
+	 * 20 modules with 10 files each. Most file names are shared by all modules.
+	 */
+	static NodeArena createArena(int files) {
+		final String[] commonNames = { "Cargo.toml", "lib.rs", "mod.rs", "main.rs", "build.rs", "README.md" };
+		NodeArena arena = new NodeArena();
+		int count = 0;
+		for (int p = 0; count < files; p++) {
+			int project = add(arena, NodeArena.ROOT, "project" + p, (byte) 0);
+			for (int c = 0; c < 50 && count < files; c++) {
+				int crate = add(arena, project, "crate" + c, (byte) 0);
+				int src = add(arena, crate, "src", (byte) 0);
+				for (int m = 0; m < 20 && count < files; m++) {
+					int module = add(arena, src, "module" + m, (byte) 0);
+					for (int f = 0; f < 10 && count < files; f++, count++) {
+						String name = f < commonNames.length ? commonNames[f] : "file" + p + '_' + c + '_' + m + '_' + f + ".rs";
+						add(arena, module, name, NodeArena.FILE_LOCATION_NAME);
+					}
+				}
+			}
+		}
+		return arena;
+	}
+}
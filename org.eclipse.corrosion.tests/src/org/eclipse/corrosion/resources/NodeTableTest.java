@@ -0,0 +1,138 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.resources;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class NodeTableTest {
+
+	@Test
+	void testChainsKeepInsertionOrder() {
+		NodeTable table = new NodeTable();
+		table.add(7, 1);
+		table.add(7, 2);
+		table.add(-3, 3);
+		table.add(7, 4);
+		assertArrayEquals(new int[] { 1, 2, 4 }, table.get(7));
+		assertArrayEquals(new int[] { 3 }, table.get(-3));
+		assertEquals(0, table.get(8).length);
+		assertEquals(4, table.size());
+	}
+
+	@Test
+	void testRemove() {
+		NodeTable table = new NodeTable();
+		table.add(1, 10);
+		table.add(1, 11);
+		table.add(1, 12);
+		int entry = table.next(table.first(1));
+		table.remove(1, entry);
+		assertArrayEquals(new int[] { 10, 12 }, table.get(1));
+		table.remove(1, table.first(1));
+		table.remove(1, table.first(1));
+		assertTrue(table.first(1) < 0);
+		assertEquals(0, table.size());
+	}
+
+	@Test
+	void testAddAfterRemovingTail() {
+		NodeTable table = new NodeTable();
+		table.add(1, 10);
+		table.add(1, 11);
+		table.add(1, 12);
+		int tail = table.next(table.next(table.first(1)));
+		table.remove(1, tail);
+		table.add(1, 13);
+		assertArrayEquals(new int[] { 10, 11, 13 }, table.get(1));
+		table.remove(1, table.first(1));
+		table.remove(1, table.first(1));
+		table.remove(1, table.first(1));
+		table.add(1, 14);
+		table.add(1, 15);
+		assertArrayEquals(new int[] { 14, 15 }, table.get(1));
+	}
+
+	@Test
+	void testRemoveIf() {
+		NodeTable table = new NodeTable();
+		for (int i = 0; i < 1000; i++) {
+			table.add(i % 17, i);
+		}
+		table.removeIf(i -> i % 2 == 0);
+		assertEquals(500, table.size());
+		for (int value : table.get(3)) {
+			assertEquals(1, value % 2);
+			assertEquals(3, value % 17);
+		}
+	}
+
+	@Test
+	void testAddAll() {
+		NodeTable table = new NodeTable();
+		table.add(1, -1);
+		NodeTable other = new NodeTable();
+		for (int i = 0; i < 100; i++) {
+			other.add(i, i);
+		}
+		other.add(1, 100);
+		table.addAll(other, i -> i + 1000);
+		assertArrayEquals(new int[] { -1, 1001, 1100 }, table.get(1));
+		assertArrayEquals(new int[] { 1099 }, table.get(99));
+		assertEquals(102, table.size());
+	}
+
+	@Test
+	void testReplaceAll() {
+		NodeTable table = new NodeTable();
+		table.add(5, 1);
+		table.add(5, 2);
+		table.replaceAll(i -> i * 10);
+		assertArrayEquals(new int[] { 10, 20 }, table.get(5));
+	}
+
+	@Test
+	void testAgainstHashMap() {
+		Random random = new Random(42);
+		NodeTable table = new NodeTable();
+		Map<Integer, List<Integer>> expected = new HashMap<>();
+		for (int value = 0; value < 50000; value++) {
+			int key = random.nextInt(2000) - 1000;
+			if (random.nextInt(3) == 0 && expected.containsKey(Integer.valueOf(key))) {
+				List<Integer> values = expected.get(Integer.valueOf(key));
+				table.remove(key, table.first(key));
+				values.remove(0);
+				if (values.isEmpty()) {
+					expected.remove(Integer.valueOf(key));
+				}
+			} else {
+				table.add(key, value);
+				expected.computeIfAbsent(Integer.valueOf(key), k -> new ArrayList<>()).add(Integer.valueOf(value));
+			}
+		}
+		int size = 0;
+		for (int key = -1000; key < 1000; key++) {
+			List<Integer> values = expected.getOrDefault(Integer.valueOf(key), List.of());
+			assertEquals(values, Arrays.stream(table.get(key)).boxed().toList());
+			size += values.size();
+		}
+		assertEquals(size, table.size());
+	}
+}
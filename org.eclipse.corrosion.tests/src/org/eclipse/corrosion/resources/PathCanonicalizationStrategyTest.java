@@ -0,0 +1,41 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.resources;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class PathCanonicalizationStrategyTest {
+
+	@AfterEach
+	void restoreDefault() {
+		PathCanonicalizationStrategy.setPathCanonicalization(true);
+	}
+
+	@Test
+	void testResolveIgnoresStrategy() throws IOException {
+		File file = File.createTempFile("canonical", ".rs");
+		try {
+			File dotted = new File(new File(file.getParentFile(), "sub"), ".." + File.separator + file.getName());
+			PathCanonicalizationStrategy.setPathCanonicalization(false);
+			assertEquals(dotted.getAbsolutePath(), PathCanonicalizationStrategy.getCanonicalPath(dotted));
+			assertEquals(file.getCanonicalPath(), PathCanonicalizationStrategy.resolveCanonicalPath(dotted));
+			PathCanonicalizationStrategy.setPathCanonicalization(true);
+			assertEquals(file.getCanonicalPath(), PathCanonicalizationStrategy.getCanonicalPath(dotted));
+		} finally {
+			file.delete();
+		}
+	}
+}
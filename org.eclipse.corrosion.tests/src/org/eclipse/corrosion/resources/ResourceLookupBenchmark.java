@@ -0,0 +1,295 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.resources;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * Measures the hot paths of {@link ResourceLookup} on synthetic workspaces. Not
+ * part of the regular test run, use <code>mvn verify -Pbenchmark</code>.
+ *
+ * The system property <code>corrosion.benchmark.sizes</code> sets the numbers
+ * of files, <code>corrosion.benchmark.arenaFiles</code> the number of files of
+ * the workspace whose {@link NodeArena} footprint is measured and
+ * <code>corrosion.benchmark.output</code> the JSON file the results are
+ * written to. Each operation is warmed up and then measured in several
+ * iterations, the result lists the mean and percentiles of the time per
+ * operation in nanoseconds.
+ */
+class ResourceLookupBenchmark {
+	private static final String SIZES = System.getProperty("corrosion.benchmark.sizes", "10000,100000,1000000");
+	private static final String OUTPUT = System.getProperty("corrosion.benchmark.output",
+			"target/benchmarks/resource-lookup.json");
+	private static final int WARMUP_ITERATIONS = 5;
+	private static final int ITERATIONS = 20;
+	private static final int OPERATIONS_PER_ITERATION = 1000;
+	private static final int SAMPLES = 4096;
+	private static final int DELTA_FILES = 1000;
+	private static final int ARENA_FILES = Integer.getInteger("corrosion.benchmark.arenaFiles", 500_000).intValue();
+
+	/**
+	 * File names with their weights, approximating the distribution in the crates
+	 * of crates.io. Other names are unique.
+	 */
+	private static final String[] COMMON_NAMES = { "mod.rs", "lib.rs", "main.rs", "tests.rs", "build.rs", "error.rs",
+			"utils.rs", "types.rs", "config.rs", "Cargo.toml" };
+	private static final int[] COMMON_WEIGHTS = { 120, 40, 15, 25, 8, 20, 15, 15, 10, 40 }; // per mille
+	private static final String[] WORDS = { "parser", "lexer", "token", "span", "ast", "hir", "mir", "ty", "expr",
+			"stmt", "item", "pat", "trait", "impl", "macro", "codegen", "query", "session", "io", "net", "sync" };
+
+	private final List<IProject> fProjects = new ArrayList<>();
+
+	@AfterEach
+	public void tearDown() throws CoreException {
+		for (IProject project : fProjects) {
+			project.delete(true, true, new NullProgressMonitor());
+		}
+	}
+
+	@Test
+	void benchmark() throws IOException, CoreException {
+		final JsonArray results = new JsonArray();
+		for (String size : SIZES.split(",")) {
+			benchmark(Integer.parseInt(size.strip()), results);
+		}
+		results.add(measureFootprint(ARENA_FILES));
+		final JsonObject report = new JsonObject();
+		report.addProperty("benchmark", ResourceLookup.class.getName());
+		report.addProperty("javaVersion", System.getProperty("java.version"));
+		report.addProperty("timestamp", System.currentTimeMillis());
+		report.add("results", results);
+		final java.nio.file.Path output = Paths.get(OUTPUT);
+		if (output.getParent() != null) {
+			Files.createDirectories(output.getParent());
+		}
+		try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+			new GsonBuilder().setPrettyPrinting().create().toJson(report, writer);
+		}
+	}
+
+	private void benchmark(int fileCount, JsonArray results) throws IOException, CoreException {
+		final IProject project = createProject(fileCount);
+		final IProject[] projects = { project };
+		final List<IFile> files = new ArrayList<>();
+		project.accept(proxy -> {
+			if (proxy.getType() == IResource.FILE && files.size() < fileCount) {
+				files.add((IFile) proxy.requestResource());
+			}
+			return true;
+		}, 0);
+		final Random random = new Random(fileCount);
+		final IFile[] samples = new IFile[SAMPLES];
+		for (int i = 0; i < SAMPLES; i++) {
+			samples[i] = files.get(random.nextInt(files.size()));
+		}
+		final IPath[] locations = Arrays.stream(samples).map(IFile::getLocation).toArray(IPath[]::new);
+		final URI[] uris = Arrays.stream(samples).map(IFile::getLocationURI).toArray(URI[]::new);
+		final IPath[] suffixes = Arrays.stream(samples).map(f -> f.getFullPath().removeFirstSegments(Math.max(1,
+				f.getFullPath().segmentCount() - 2))).toArray(IPath[]::new);
+		final IPath[] upperSuffixes = Arrays.stream(suffixes).map(p -> new Path(p.toString().toUpperCase()))
+				.toArray(IPath[]::new);
+
+		// the first lookup indexes the project
+		final long start = System.nanoTime();
+		assertTrue(ResourceLookup.findFilesByName(suffixes[0], projects, false).length > 0);
+		results.add(result("index", fileCount, new long[] { System.nanoTime() - start }, 1));
+
+		results.add(measure("findFilesForLocation", fileCount,
+				i -> ResourceLookup.findFilesForLocation(locations[i % SAMPLES])));
+		results.add(measure("findFilesForLocationURI", fileCount,
+				i -> ResourceLookup.findFilesForLocationURI(uris[i % SAMPLES])));
+		results.add(measure("findFilesByName", fileCount,
+				i -> ResourceLookup.findFilesByName(suffixes[i % SAMPLES], projects, false)));
+		results.add(measure("findFilesByName.ignoreCase", fileCount,
+				i -> ResourceLookup.findFilesByName(upperSuffixes[i % SAMPLES], projects, true)));
+
+		final IFile[] common = ResourceLookup.findFilesByName(new Path("mod.rs"), projects, false);
+		final IFile[] toSort = Arrays.copyOf(common, Math.min(common.length, 64));
+		results.add(measure("sortFilesByRelevance", fileCount, i -> {
+			Collections.shuffle(Arrays.asList(toSort), random);
+			ResourceLookup.sortFilesByRelevance(toSort, project);
+		}));
+		results.add(measureDeltas(project, fileCount));
+
+		// location lookups consider all projects, keep them out of the next size
+		project.delete(true, true, new NullProgressMonitor());
+		fProjects.remove(project);
+	}
+
+	/**
+	 * Measures how fast the changes of a workspace operation are applied, the
+	 * lookup following the operation applies them.
+	 */
+	private static JsonObject measureDeltas(IProject project, int fileCount) throws CoreException {
+		final IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		final IProject[] projects = { project };
+		final long[] times = new long[WARMUP_ITERATIONS + ITERATIONS];
+		for (int iteration = 0; iteration < times.length; iteration++) {
+			final IFolder folder = project.getFolder("delta" + iteration);
+			workspace.run(monitor -> {
+				folder.create(true, true, monitor);
+				for (int i = 0; i < DELTA_FILES; i++) {
+					folder.getFile("delta_" + i + ".rs").create(new ByteArrayInputStream(new byte[0]), true, monitor);
+				}
+			}, new NullProgressMonitor());
+			final long start = System.nanoTime();
+			final IFile[] found = ResourceLookup.findFilesByName(new Path(folder.getName() + "/delta_0.rs"),
+					projects, false);
+			times[iteration] = System.nanoTime() - start;
+			assertEquals(1, found.length);
+			folder.delete(true, new NullProgressMonitor());
+		}
+		return result("applyDeltas", fileCount, Arrays.copyOfRange(times, WARMUP_ITERATIONS, times.length),
+				DELTA_FILES);
+	}
+
+	/**
+	 * Measures the time to build the nodes of a workspace, whose file names are
+	 * mostly shared, and the bytes they need per file.
+	 */
+	private static JsonObject measureFootprint(int fileCount) {
+		final long start = System.nanoTime();
+		final NodeArena arena = NodeArenaTest.createArena(fileCount);
+		final long time = System.nanoTime() - start;
+		final JsonObject result = new JsonObject();
+		result.addProperty("operation", "nodeArena");
+		result.addProperty("files", fileCount);
+		result.addProperty("nodes", arena.size());
+		result.addProperty("buildNanos", time);
+		result.addProperty("footprintBytes", arena.footprint());
+		result.addProperty("bytesPerFile", (double) arena.footprint() / fileCount);
+		return result;
+	}
+
+	private static JsonObject measure(String operation, int fileCount, IntConsumer body) {
+		int op = 0;
+		for (int iteration = 0; iteration < WARMUP_ITERATIONS; iteration++) {
+			for (int i = 0; i < OPERATIONS_PER_ITERATION; i++) {
+				body.accept(op++);
+			}
+		}
+		final long[] times = new long[ITERATIONS];
+		for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+			final long start = System.nanoTime();
+			for (int i = 0; i < OPERATIONS_PER_ITERATION; i++) {
+				body.accept(op++);
+			}
+			times[iteration] = System.nanoTime() - start;
+		}
+		return result(operation, fileCount, times, OPERATIONS_PER_ITERATION);
+	}
+
+	/**
+	 * Creates the result of an operation from the durations of its iterations.
+	 */
+	private static JsonObject result(String operation, int fileCount, long[] times, int operationsPerIteration) {
+		final double[] perOperation = Arrays.stream(times).mapToDouble(t -> (double) t / operationsPerIteration)
+				.sorted().toArray();
+		final double mean = Arrays.stream(perOperation).average().orElse(0);
+		final JsonObject result = new JsonObject();
+		result.addProperty("operation", operation);
+		result.addProperty("files", fileCount);
+		result.addProperty("iterations", times.length);
+		result.addProperty("operationsPerIteration", operationsPerIteration);
+		result.addProperty("meanNanos", mean);
+		result.addProperty("p50Nanos", percentile(perOperation, 50));
+		result.addProperty("p99Nanos", percentile(perOperation, 99));
+		result.addProperty("minNanos", perOperation[0]);
+		result.addProperty("maxNanos", perOperation[perOperation.length - 1]);
+		result.addProperty("operationsPerSecond", mean == 0 ? 0 : 1e9 / mean);
+		return result;
+	}
+
+	private static double percentile(double[] sorted, int percentile) {
+		final int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+	}
+
+	/**
+	 * Creates a project with the given number of files, laid out as a workspace
+	 * of crates with modules nested up to four levels.
+	 */
+	private IProject createProject(int fileCount) throws IOException, CoreException {
+		final IProject project = ResourcesPlugin.getWorkspace().getRoot()
+				.getProject("benchmark_" + fileCount + "_" + System.currentTimeMillis());
+		project.create(new NullProgressMonitor());
+		fProjects.add(project);
+		final java.nio.file.Path root = project.getLocation().toFile().toPath();
+		final Random random = new Random(42);
+		int created = 0;
+		for (int crate = 0; created < fileCount; crate++) {
+			final java.nio.file.Path crateDir = root.resolve("crates").resolve(word(random) + '_' + crate);
+			final int crateFiles = Math.min(fileCount - created, 20 + random.nextInt(400));
+			for (int i = 0; i < crateFiles; i++) {
+				java.nio.file.Path dir = crateDir.resolve(i % 10 == 0 ? "tests" : "src");
+				final int depth = random.nextInt(4);
+				for (int d = 0; d < depth; d++) {
+					dir = dir.resolve(WORDS[random.nextInt(WORDS.length / (d + 1))]);
+				}
+				java.nio.file.Path file = dir.resolve(fileName(random, created));
+				if (Files.exists(file)) {
+					file = dir.resolve(word(random) + '_' + created + ".rs");
+				}
+				Files.createDirectories(dir);
+				Files.createFile(file);
+				created++;
+			}
+		}
+		project.open(new NullProgressMonitor());
+		project.refreshLocal(IResource.DEPTH_INFINITE, new NullProgressMonitor());
+		return project;
+	}
+
+	private static String fileName(Random random, int index) {
+		int pick = random.nextInt(1000);
+		for (int i = 0; i < COMMON_NAMES.length; i++) {
+			pick -= COMMON_WEIGHTS[i];
+			if (pick < 0)
+				return COMMON_NAMES[i];
+		}
+		return word(random) + '_' + index + ".rs";
+	}
+
+	private static String word(Random random) {
+		return WORDS[random.nextInt(WORDS.length)];
+	}
+}
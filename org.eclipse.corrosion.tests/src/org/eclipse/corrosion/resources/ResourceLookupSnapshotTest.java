@@ -0,0 +1,142 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.resources;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ResourceLookupSnapshotTest {
+
+	private File file;
+
+	@BeforeEach
+	void createFile() throws IOException {
+		file = File.createTempFile("resourceLookup", ".bin");
+	}
+
+	@AfterEach
+	void deleteFile() {
+		file.delete();
+	}
+
+	private static int add(NodeArena arena, int parent, String name, int flags) {
+		char[] chars = name.toCharArray();
+		return arena.add(parent, chars, NodeArena.hashCode(chars), (byte) flags);
+	}
+
+	private static NodeArena createArena() {
+		NodeArena arena = new NodeArena();
+		int project = add(arena, NodeArena.ROOT, "project", 0);
+		int src = add(arena, project, "src", 0);
+		add(arena, src, "main.rs", NodeArena.FILE_LOCATION_NAME);
+		add(arena, src, "lib.rs", NodeArena.FILE_LOCATION_NAME | NodeArena.FILE_LINK_TARGET);
+		int removed = add(arena, src, "removed", 0);
+		add(arena, removed, "gone.rs", NodeArena.FILE_LOCATION_NAME);
+		char[] name = "removed".toCharArray();
+		arena.remove(NodeArena.hashCode(name), arena.first(NodeArena.hashCode(name)));
+		int other = add(arena, NodeArena.ROOT, "résumé", 0);
+		add(arena, other, "lib.rs", NodeArena.FILE_LOCATION_NAME | NodeArena.LINKED);
+		add(arena, other, "日本.rs", NodeArena.FILE_LOCATION_NAME);
+		return arena;
+	}
+
+	private static ResourceLookupSnapshot createSnapshot() {
+		Map<String, Long> stamps = new LinkedHashMap<>();
+		stamps.put("project", Long.valueOf(42));
+		stamps.put("résumé", Long.valueOf(-1));
+		return createArena().createSnapshot(17, stamps);
+	}
+
+	private static List<String> paths(NodeArena arena) {
+		List<String> paths = new ArrayList<>();
+		arena.forEachInOrder(node -> paths.add(path(arena, node) + ':' + arena.getFlags(node)));
+		return paths;
+	}
+
+	private static String path(NodeArena arena, int node) {
+		return node == NodeArena.ROOT ? "" : path(arena, arena.parent(node)) + "/" + arena.getNameString(node);
+	}
+
+	@Test
+	void testRoundTrip() throws IOException {
+		ResourceLookupSnapshot expected = createSnapshot();
+		// the removed folder and its file are left out, lib.rs is stored once
+		assertEquals(7, expected.getNodeCount());
+		assertEquals(6, expected.getNameCount());
+		expected.write(file);
+		ResourceLookupSnapshot actual = ResourceLookupSnapshot.read(file);
+		assertEquals(expected.fSettingsHash, actual.fSettingsHash);
+		assertEquals(expected.fProjectStamps, actual.fProjectStamps);
+		assertArrayEquals(expected.fParents, actual.fParents);
+		assertArrayEquals(expected.fNameIds, actual.fNameIds);
+		assertArrayEquals(expected.fFlags, actual.fFlags);
+		assertArrayEquals(expected.fNameBytes, actual.fNameBytes);
+		assertArrayEquals(expected.fNameStarts, actual.fNameStarts);
+	}
+
+	@Test
+	void testRestore() throws IOException {
+		createSnapshot().write(file);
+		ResourceLookupSnapshot snapshot = ResourceLookupSnapshot.read(file);
+		NodeArena restored = NodeArena.restore(snapshot, name -> true);
+		NodeArena expected = createArena();
+		expected.compact();
+		assertEquals(paths(expected), paths(restored));
+		assertEquals(2, restored.get(NodeArena.hashCode("LIB.rs".toCharArray())).length);
+
+		restored = NodeArena.restore(snapshot, "résumé"::equals);
+		assertEquals(List.of("/résumé:0", "/résumé/lib.rs:17", "/résumé/日本.rs:1"), paths(restored));
+		// names are interned with the restored pool
+		int node = add(restored, NodeArena.ROOT, "lib.rs", 0);
+		assertEquals(2, restored.get(NodeArena.hashCode("lib.rs".toCharArray())).length);
+		assertEquals("lib.rs", restored.getNameString(node));
+	}
+
+	@Test
+	void testTruncatedFile() throws IOException {
+		createSnapshot().write(file);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(raf.length() - 3);
+		}
+		assertThrows(IOException.class, () -> ResourceLookupSnapshot.read(file));
+	}
+
+	@Test
+	void testHugeLength() throws IOException {
+		createSnapshot().write(file);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			// the length of the name of the first project
+			raf.seek(16);
+			raf.writeInt(Integer.MAX_VALUE - 8);
+		}
+		assertThrows(IOException.class, () -> ResourceLookupSnapshot.read(file));
+	}
+
+	@Test
+	void testForeignFile() throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.writeBytes("not a snapshot");
+		}
+		assertThrows(IOException.class, () -> ResourceLookupSnapshot.read(file));
+	}
+}
@@ -0,0 +1,66 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.resources;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.eclipse.corrosion.resources.ResourceLookupStatistics.Lookup;
+import org.junit.jupiter.api.Test;
+
+class ResourceLookupStatisticsTest {
+
+	@Test
+	void testBuckets() {
+		assertEquals(0, ResourceLookupStatistics.bucket(0));
+		assertEquals(1, ResourceLookupStatistics.bucket(1));
+		assertEquals(2, ResourceLookupStatistics.bucket(2));
+		assertEquals(2, ResourceLookupStatistics.bucket(3));
+		assertEquals(3, ResourceLookupStatistics.bucket(4));
+		assertEquals(10, ResourceLookupStatistics.bucket(1023));
+		assertEquals(11, ResourceLookupStatistics.bucket(1024));
+		assertEquals(11, ResourceLookupStatistics.bucket(Integer.MAX_VALUE));
+	}
+
+	@Test
+	void testCounters() {
+		ResourceLookupStatistics statistics = new ResourceLookupStatistics();
+		statistics.recordLookup(Lookup.NAME, 100, 3, 1, false);
+		statistics.recordLookup(Lookup.LOCATION, 300, 0, 0, true);
+		statistics.recordLookup(Lookup.LOCATION_URI, 200, 2000, 2, false);
+		statistics.recordLockHeld(50);
+		statistics.recordLockHeld(70);
+		statistics.recordIndexing(3, 1, 1000);
+		statistics.recordEvictions(2);
+
+		assertEquals(1, statistics.getLookupsByName());
+		assertEquals(1, statistics.getLookupsByLocation());
+		assertEquals(1, statistics.getLookupsByLocationURI());
+		assertEquals(2, statistics.getHits());
+		assertEquals(1, statistics.getMisses());
+		assertEquals(1, statistics.getPlatformFallbacks());
+		assertEquals(600, statistics.getLookupTime());
+		assertEquals(300, statistics.getMaxLookupTime());
+		long[] histogram = statistics.getCandidateHistogram();
+		assertEquals(1, histogram[0]);
+		assertEquals(1, histogram[2]);
+		assertEquals(1, histogram[histogram.length - 1]);
+		assertEquals(2, statistics.getLockAcquisitions());
+		assertEquals(120, statistics.getLockHeldTime());
+		assertEquals(70, statistics.getMaxLockHeldTime());
+		assertEquals(3, statistics.getIndexedProjects());
+		assertEquals(1, statistics.getRebuildCount());
+		assertEquals(2, statistics.getEvictionCount());
+
+		statistics.reset();
+		assertEquals(0, statistics.getHits() + statistics.getMisses());
+		assertEquals(0, statistics.getMaxLockHeldTime());
+		assertEquals(0, statistics.getCandidateHistogram()[2]);
+	}
+}
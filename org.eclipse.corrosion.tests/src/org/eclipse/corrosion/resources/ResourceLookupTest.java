@@ -0,0 +1,89 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.resources;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.corrosion.tests.AbstractCorrosionTest;
+import org.junit.jupiter.api.Test;
+
+class ResourceLookupTest extends AbstractCorrosionTest {
+
+	@Test
+	void testFindFilesByName() throws IOException, CoreException {
+		IProject project = getProject(BASIC_PROJECT_NAME);
+		IProject[] projects = { project };
+		assertArrayEquals(new IFile[] { project.getFile("src/main.rs") },
+				ResourceLookup.findFilesByName(new Path("src/main.rs"), projects, false));
+		assertArrayEquals(new IFile[] { project.getFile("src/main.rs") },
+				ResourceLookup.findFilesByName(new Path("SRC/MAIN.RS"), projects, true));
+		assertEquals(0, ResourceLookup.findFilesByName(new Path("SRC/MAIN.RS"), projects, false).length);
+	}
+
+	@Test
+	void testLookupSeesPendingChanges() throws IOException, CoreException {
+		IProject project = getProject(BASIC_PROJECT_NAME);
+		IProject[] projects = { project };
+		ResourceLookup.findFilesByName(new Path("main.rs"), projects, false);
+
+		// the deltas are applied by a job, lookups apply them right away
+		IFolder folder = project.getFolder("src/module");
+		folder.create(true, true, new NullProgressMonitor());
+		IFile file = folder.getFile("mod.rs");
+		file.create(new ByteArrayInputStream(new byte[0]), true, new NullProgressMonitor());
+		assertArrayEquals(new IFile[] { file }, ResourceLookup.findFilesByName(new Path("module/mod.rs"), projects, false));
+
+		folder.delete(true, new NullProgressMonitor());
+		assertEquals(0, ResourceLookup.findFilesByName(new Path("module/mod.rs"), projects, false).length);
+	}
+
+	@Test
+	void testBuildOutputIsNotIndexed() throws IOException, CoreException {
+		IProject project = getProject(BASIC_PROJECT_NAME);
+		IProject[] projects = { project };
+		IFolder folder = project.getFolder("target");
+		if (!folder.exists()) {
+			folder.create(true, true, new NullProgressMonitor());
+		}
+		IFile file = folder.getFile("generated.rs");
+		file.create(new ByteArrayInputStream(new byte[0]), true, new NullProgressMonitor());
+		assertEquals(0, ResourceLookup.findFilesByName(new Path("generated.rs"), projects, false).length);
+
+		IFile source = project.getFile("src/generated.rs");
+		source.create(new ByteArrayInputStream(new byte[0]), true, new NullProgressMonitor());
+		assertArrayEquals(new IFile[] { source },
+				ResourceLookup.findFilesByName(new Path("generated.rs"), projects, false));
+	}
+
+	@Test
+	void testFindFilesForLocations() throws IOException, CoreException {
+		IProject project = getProject(BASIC_PROJECT_NAME);
+		IFile main = project.getFile("src/main.rs");
+		IPath missing = project.getLocation().append("src/missing.rs");
+		List<IPath> locations = List.of(main.getLocation(), missing, main.getLocation());
+		Map<IPath, IFile[]> files = ResourceLookup.findFilesForLocations(locations);
+		assertEquals(List.of(main.getLocation(), missing), List.copyOf(files.keySet()));
+		assertArrayEquals(new IFile[] { main }, files.get(main.getLocation()));
+		assertArrayEquals(ResourceLookup.findFilesForLocation(missing), files.get(missing));
+	}
+}
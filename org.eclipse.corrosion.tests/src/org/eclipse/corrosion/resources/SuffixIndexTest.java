@@ -0,0 +1,46 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.resources;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class SuffixIndexTest {
+
+	private static final SuffixIndex INDEX = new SuffixIndex(new String[] { //
+			"/ws/a/src/mod.rs", //
+			null, //
+			"/ws/b/src/foo/mod.rs", //
+			"/ws/c/src/Foo/mod.rs", //
+			"/ws/a/src/bar/mod.rs" });
+
+	@Test
+	void testName() {
+		assertArrayEquals(new int[] { 0, 2, 3, 4 }, INDEX.lookup("mod.rs"));
+	}
+
+	@Test
+	void testSegments() {
+		assertArrayEquals(new int[] { 2, 3 }, INDEX.lookup("src/foo/mod.rs"));
+		assertArrayEquals(new int[] { 2, 3 }, INDEX.lookup("/SRC/FOO/mod.rs"));
+		assertArrayEquals(new int[] { 4 }, INDEX.lookup("a/src/bar/mod.rs"));
+		assertEquals(0, INDEX.lookup("x/baz/mod.rs").length);
+	}
+
+	@Test
+	void testPartialFirstSegment() {
+		// the first segment may match the end of a segment, callers verify
+		assertArrayEquals(new int[] { 0, 2, 3, 4 }, INDEX.lookup("oo/mod.rs"));
+		assertArrayEquals(new int[] { 2, 3 }, INDEX.lookup("c/foo/mod.rs"));
+		assertEquals("/ws/b/src/foo/mod.rs", INDEX.getLocation(2));
+	}
+}
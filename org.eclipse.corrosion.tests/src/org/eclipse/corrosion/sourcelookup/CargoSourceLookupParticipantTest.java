@@ -0,0 +1,91 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.sourcelookup;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.sourcelookup.ISourceContainer;
+import org.eclipse.debug.core.sourcelookup.ISourceLookupDirector;
+import org.junit.jupiter.api.Test;
+
+class CargoSourceLookupParticipantTest {
+	private static final String ABSOLUTE = new File("/project/src/lib.rs").getAbsolutePath();
+	private static final String RELATIVE = "src/main.rs";
+
+	private final List<String> fSingleLookups = new ArrayList<>();
+	private final List<List<String>> fBatchLookups = new ArrayList<>();
+
+	private final CargoAbsolutePathSourceContainer fContainer = new CargoAbsolutePathSourceContainer() {
+		@Override
+		public Object[] findSourceElements(String name) {
+			fSingleLookups.add(name);
+			return new File(name).isAbsolute() ? new Object[] { name } : new Object[0];
+		}
+
+		@Override
+		public Map<String, Object[]> findSourceElements(Collection<String> names) {
+			fBatchLookups.add(List.copyOf(names));
+			Map<String, Object[]> result = new LinkedHashMap<>();
+			for (String name : names) {
+				result.put(name, new File(name).isAbsolute() ? new Object[] { name } : new Object[0]);
+			}
+			return result;
+		}
+	};
+
+	private CargoSourceLookupParticipant createParticipant(boolean findDuplicates) {
+		ISourceLookupDirector director = (ISourceLookupDirector) Proxy.newProxyInstance(
+				getClass().getClassLoader(), new Class<?>[] { ISourceLookupDirector.class },
+				(proxy, method, args) -> switch (method.getName()) {
+				case "getSourceContainers" -> new ISourceContainer[] { fContainer };
+				case "isFindDuplicates" -> Boolean.valueOf(findDuplicates);
+				default -> null;
+				});
+		CargoSourceLookupParticipant participant = new CargoSourceLookupParticipant();
+		participant.init(director);
+		return participant;
+	}
+
+	@Test
+	void testPrefetchCachesAbsolutePaths() throws CoreException {
+		CargoSourceLookupParticipant participant = createParticipant(false);
+		participant.prefetchSourceElements(List.of(ABSOLUTE, RELATIVE));
+		assertEquals(List.of(List.of(ABSOLUTE, RELATIVE)), fBatchLookups);
+
+		assertArrayEquals(new Object[] { ABSOLUTE }, participant.findSourceElements(ABSOLUTE));
+		assertEquals(List.of(), fSingleLookups);
+		// not found by the batch, looked up as before
+		participant.findSourceElements(RELATIVE);
+		assertEquals(List.of(RELATIVE), fSingleLookups);
+
+		// cached names are not looked up again
+		participant.prefetchSourceElements(List.of(ABSOLUTE));
+		assertEquals(1, fBatchLookups.size());
+	}
+
+	@Test
+	void testNoPrefetchWhenFindingDuplicates() throws CoreException {
+		CargoSourceLookupParticipant participant = createParticipant(true);
+		participant.prefetchSourceElements(List.of(ABSOLUTE));
+		assertEquals(List.of(), fBatchLookups);
+		participant.findSourceElements(ABSOLUTE);
+		assertEquals(List.of(ABSOLUTE), fSingleLookups);
+	}
+}
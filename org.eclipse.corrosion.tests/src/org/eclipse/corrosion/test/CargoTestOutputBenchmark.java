@@ -0,0 +1,254 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.unittest.model.ITestCaseElement;
+import org.eclipse.unittest.model.ITestElement;
+import org.eclipse.unittest.model.ITestRunSession;
+import org.eclipse.unittest.model.ITestSuiteElement;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * Measures the throughput of the parser of the <code>cargo test</code> output
+ * in {@link CargoTestRunnerClient} by replaying logs into a stub session. Not
+ * part of the regular test run, use <code>mvn verify -Pbenchmark</code>.
+ *
+ * The logs are generated: passing tests in shallow and in deep modules, and
+ * failing tests with large outputs and <code>left:</code>/<code>right:</code>
+ * assertions. The system property <code>corrosion.benchmark.tests</code> sets
+ * the number of tests per log, <code>corrosion.benchmark.logs</code> adds
+ * recorded logs by path, separated by commas, and
+ * <code>corrosion.benchmark.output</code> sets the JSON file the results are
+ * written to. Each log is replayed in several iterations after a warm-up, the
+ * result lists the lines per second and the bytes allocated per line and per
+ * second.
+ */
+class CargoTestOutputBenchmark {
+	private static final int TESTS = Integer.getInteger("corrosion.benchmark.tests", 100_000).intValue();
+	private static final String LOGS = System.getProperty("corrosion.benchmark.logs", "");
+	private static final String OUTPUT = System.getProperty("corrosion.benchmark.output",
+			"target/benchmarks/cargo-test-output.json");
+	private static final int WARMUP_ITERATIONS = 3;
+	private static final int ITERATIONS = 10;
+	private static final int FAILING_TESTS = 1000;
+	// about 11K characters, kept in memory by the FailureOutputBuffer
+	private static final int FAILURE_OUTPUT_LINES = 100;
+	private static final String[] WORDS = { "parser", "lexer", "token", "span", "ast", "hir", "mir", "ty", "expr",
+			"stmt", "item", "pat", "trait", "impl", "macro", "codegen", "query", "session", "io", "net", "sync" };
+
+	@Test
+	void benchmark() throws IOException, JMException {
+		final JsonArray results = new JsonArray();
+		results.add(measure("passing", passingLog(TESTS, 3), TESTS));
+		results.add(measure("deepModules", passingLog(TESTS, 12), TESTS));
+		results.add(measure("panics", failingLog(FAILING_TESTS), FAILING_TESTS));
+		for (String log : LOGS.split(",")) {
+			if (!log.isBlank()) {
+				final Path path = Paths.get(log.strip());
+				results.add(measure(path.getFileName().toString(), Files.readString(path, StandardCharsets.UTF_8),
+						-1));
+			}
+		}
+		final JsonObject report = new JsonObject();
+		report.addProperty("benchmark", CargoTestRunnerClient.class.getName());
+		report.addProperty("javaVersion", System.getProperty("java.version"));
+		report.addProperty("timestamp", System.currentTimeMillis());
+		report.add("results", results);
+		final Path output = Paths.get(OUTPUT);
+		if (output.getParent() != null) {
+			Files.createDirectories(output.getParent());
+		}
+		try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+			new GsonBuilder().setPrettyPrinting().create().toJson(report, writer);
+		}
+	}
+
+	/**
+	 * Replays the log and returns the result.
+	 *
+	 * @param expectedTests the number of tests of the log, -1 if unknown
+	 */
+	private static JsonObject measure(String name, String log, int expectedTests) throws JMException {
+		final long lines = log.lines().count();
+		for (int iteration = 0; iteration < WARMUP_ITERATIONS; iteration++) {
+			replay(log);
+		}
+		final long[] times = new long[ITERATIONS];
+		final long[] allocated = new long[ITERATIONS];
+		int tests = 0;
+		for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+			final long allocatedBefore = allocatedBytes();
+			final long start = System.nanoTime();
+			tests = replay(log);
+			times[iteration] = System.nanoTime() - start;
+			allocated[iteration] = allocatedBytes() - allocatedBefore;
+		}
+		if (expectedTests >= 0) {
+			assertEquals(expectedTests, tests);
+		}
+
+		final double[] linesPerSecond = Arrays.stream(times).mapToDouble(t -> lines * 1e9 / t).sorted().toArray();
+		final double meanNanos = Arrays.stream(times).average().orElse(0);
+		final double meanAllocated = Arrays.stream(allocated).average().orElse(0);
+		final JsonObject result = new JsonObject();
+		result.addProperty("log", name);
+		result.addProperty("lines", lines);
+		result.addProperty("tests", tests);
+		result.addProperty("iterations", ITERATIONS);
+		result.addProperty("meanLinesPerSecond", Arrays.stream(linesPerSecond).average().orElse(0));
+		result.addProperty("p50LinesPerSecond", percentile(linesPerSecond, 50));
+		result.addProperty("minLinesPerSecond", linesPerSecond[0]);
+		result.addProperty("maxLinesPerSecond", linesPerSecond[linesPerSecond.length - 1]);
+		result.addProperty("allocatedBytesPerLine", meanAllocated / lines);
+		result.addProperty("allocatedBytesPerSecond", meanNanos == 0 ? 0 : meanAllocated * 1e9 / meanNanos);
+		return result;
+	}
+
+	private static double percentile(double[] sorted, int percentile) {
+		final int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+	}
+
+	/**
+	 * Returns the bytes allocated by the current thread so far.
+	 */
+	private static long allocatedBytes() throws JMException {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		return ((Long) server.getAttribute(new ObjectName(ManagementFactory.THREAD_MXBEAN_NAME),
+				"CurrentThreadAllocatedBytes")).longValue();
+	}
+
+	/**
+	 * Feeds the log through a new client and returns the number of tests that
+	 * ended.
+	 */
+	private static int replay(String log) {
+		final int[] ended = { 0 };
+		final Map<String, ITestElement> elements = new HashMap<>();
+		final ITestRunSession session = (ITestRunSession) Proxy.newProxyInstance(
+				CargoTestOutputBenchmark.class.getClassLoader(), new Class<?>[] { ITestRunSession.class },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "getTestElement":
+						return elements.get(args[0]);
+					case "newTestCase":
+						return register(elements, (String) args[0], ITestCaseElement.class);
+					case "newTestSuite":
+						return register(elements, (String) args[0], ITestSuiteElement.class);
+					case "notifyTestEnded":
+						ended[0]++;
+						return null;
+					default:
+						return null;
+					}
+				});
+		new CargoTestRunnerClient(session, false).run(new StringReader(log));
+		return ended[0];
+	}
+
+	private static ITestElement register(Map<String, ITestElement> elements, String id,
+			Class<? extends ITestElement> type) {
+		final ITestElement element = (ITestElement) Proxy.newProxyInstance(
+				CargoTestOutputBenchmark.class.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> method.getName().equals("getId") ? id : null);
+		elements.put(id, element);
+		return element;
+	}
+
+	/**
+	 * Returns the output of passing tests in modules nested up to the given depth,
+	 * split into binaries of up to 5000 tests.
+	 */
+	private static String passingLog(int tests, int maxDepth) {
+		final Random random = new Random(tests + maxDepth);
+		final StringBuilder log = new StringBuilder();
+		for (int first = 0; first < tests; first += 5000) {
+			final int count = Math.min(5000, tests - first);
+			log.append("     Running unittests src/lib.rs (target/debug/deps/bench_").append(first).append(")\n");
+			log.append('\n').append("running ").append(count).append(" tests\n");
+			for (int i = first; i < first + count; i++) {
+				log.append("test ").append(modulePath(random, maxDepth)).append("::it_works_").append(i)
+						.append(" ... ok\n");
+			}
+			log.append('\n').append("test result: ok. ").append(count)
+					.append(" passed; 0 failed; 0 ignored; 0 measured; 0 filtered out; finished in 1.23s\n\n");
+		}
+		return log.toString();
+	}
+
+	/**
+	 * Returns the output of failing tests, each with a large output and an
+	 * assertion of equality that failed.
+	 */
+	private static String failingLog(int tests) {
+		final Random random = new Random(tests);
+		final String[] names = new String[tests];
+		final StringBuilder log = new StringBuilder();
+		log.append('\n').append("running ").append(tests).append(" tests\n");
+		for (int i = 0; i < tests; i++) {
+			names[i] = modulePath(random, 4) + "::it_fails_" + i;
+			log.append("test ").append(names[i]).append(" ... FAILED\n");
+		}
+		log.append('\n').append("failures:\n\n");
+		for (int i = 0; i < tests; i++) {
+			log.append("---- ").append(names[i]).append(" stdout ----\n");
+			for (int line = 0; line < FAILURE_OUTPUT_LINES; line++) {
+				log.append("[DEBUG ").append(WORDS[line % WORDS.length]).append("] processed fixture record ")
+						.append(line).append(" of ").append(FAILURE_OUTPUT_LINES).append(": {\"id\": ").append(line)
+						.append(", \"payload\": \"").append("x".repeat(64)).append("\"}\n");
+			}
+			log.append("thread '").append(names[i]).append("' panicked at 'assertion failed: `(left == right)`\n");
+			log.append("  left: `").append(i).append("`,\n");
+			log.append(" right: `").append(i + 1).append("`', src/").append(WORDS[i % WORDS.length])
+					.append(".rs:").append(10 + i % 500).append(":9\n");
+			log.append("note: run with `RUST_BACKTRACE=1` environment variable to display a backtrace\n\n");
+		}
+		log.append('\n').append("failures:\n");
+		for (String name : names) {
+			log.append("    ").append(name).append('\n');
+		}
+		log.append('\n').append("test result: FAILED. 0 passed; ").append(tests)
+				.append(" failed; 0 ignored; 0 measured; 0 filtered out; finished in 4.56s\n\n");
+		return log.toString();
+	}
+
+	private static String modulePath(Random random, int maxDepth) {
+		final StringBuilder path = new StringBuilder("tests");
+		final int depth = 1 + random.nextInt(maxDepth);
+		for (int d = 0; d < depth; d++) {
+			path.append("::").append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return path.toString();
+	}
+}
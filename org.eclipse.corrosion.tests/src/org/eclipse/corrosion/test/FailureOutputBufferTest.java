@@ -0,0 +1,87 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class FailureOutputBufferTest {
+
+	@Test
+	void testOutputThatFits() {
+		FailureOutputBuffer buffer = new FailureOutputBuffer(8, 8);
+		assertTrue(buffer.isEmpty());
+		buffer.append("line 1\n");
+		buffer.append("line 2\n");
+		assertEquals("line 1\nline 2\n", buffer.getTrace());
+
+		buffer.reset();
+		assertTrue(buffer.isEmpty());
+		assertEquals("", buffer.getTrace());
+	}
+
+	@Test
+	void testNoFileWhileHeadAndTailHoldOutput() throws IOException {
+		FailureOutputBuffer buffer = new FailureOutputBuffer(8, 8);
+		Set<Path> before = listFullOutputs();
+		buffer.append("0123456789");
+		buffer.append("abcdef");
+		assertEquals("0123456789abcdef", buffer.getTrace());
+		assertEquals(before, listFullOutputs());
+	}
+
+	private static Set<Path> listFullOutputs() throws IOException {
+		try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+			return files.filter(file -> file.getFileName().toString().startsWith("corrosion-test-output"))
+					.collect(Collectors.toSet());
+		}
+	}
+
+	@Test
+	void testSpillsOverflowToFile() throws IOException {
+		FailureOutputBuffer buffer = new FailureOutputBuffer(8, 8);
+		StringBuilder output = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			String line = "line " + i + '\n';
+			output.append(line);
+			buffer.append(line);
+		}
+		String trace = buffer.getTrace();
+		String[] lines = trace.split("\n");
+		assertEquals("line 0", lines[0]);
+		assertEquals("l", lines[1].substring(0, 1));
+		assertEquals("line 99", lines[lines.length - 1]);
+		assertTrue(trace.length() < output.length() / 4, trace);
+
+		URI fullOutput = FailureOutputBuffer.findFullOutput(lines[2]);
+		assertNotNull(fullOutput, trace);
+		Path file = Path.of(fullOutput);
+		try {
+			assertEquals(output.toString(), Files.readString(file, StandardCharsets.UTF_8));
+		} finally {
+			Files.delete(file);
+		}
+		assertNull(FailureOutputBuffer.findFullOutput("line 1"));
+		assertNull(FailureOutputBuffer.findFullOutput("see file:///etc/passwd"));
+	}
+}
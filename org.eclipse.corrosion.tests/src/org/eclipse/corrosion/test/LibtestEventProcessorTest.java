@@ -0,0 +1,128 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.unittest.model.ITestCaseElement;
+import org.eclipse.unittest.model.ITestElement;
+import org.eclipse.unittest.model.ITestElement.FailureTrace;
+import org.eclipse.unittest.model.ITestRunSession;
+import org.eclipse.unittest.model.ITestSuiteElement;
+import org.junit.jupiter.api.Test;
+
+class LibtestEventProcessorTest {
+
+	/**
+	 * Records the notifications of a test run session as lines of text.
+	 */
+	private static class Recorder {
+		final List<String> events = new ArrayList<>();
+		final Map<String, ITestElement> elements = new HashMap<>();
+		final ITestRunSession session = (ITestRunSession) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { ITestRunSession.class }, (proxy, method, args) -> {
+					switch (method.getName()) {
+					case "getTestElement":
+						return elements.get(args[0]);
+					case "newTestSuite":
+						return element(ITestSuiteElement.class, (String) args[0], "suite " + args[0]);
+					case "newTestCase":
+						return element(ITestCaseElement.class, (String) args[0],
+								"case " + args[0] + " in " + ((ITestElement) args[2]).getTestName());
+					case "notifyTestStarted":
+						events.add("started " + ((ITestElement) args[0]).getTestName());
+						return null;
+					case "notifyTestFailed":
+						events.add("failed " + ((ITestElement) args[0]).getTestName() + ": "
+								+ ((FailureTrace) args[3]).getTrace());
+						return null;
+					case "notifyTestEnded":
+						events.add("ended " + ((ITestElement) args[0]).getTestName()
+								+ (((Boolean) args[1]).booleanValue() ? " ignored" : ""));
+						return null;
+					case "getTestName":
+						return "session";
+					default:
+						return null;
+					}
+				});
+
+		private Object element(Class<? extends ITestElement> type, String id, String event) {
+			events.add(event);
+			ITestElement element = (ITestElement) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] { type }, (proxy, method, args) -> method.getName().equals("getTestName") ? id : null);
+			elements.put(id, element);
+			return element;
+		}
+	}
+
+	@Test
+	void testEvents() {
+		Recorder recorder = new Recorder();
+		LibtestEventProcessor processor = new LibtestEventProcessor(recorder.session);
+		processor.process("   Compiling foo v0.1.0");
+		processor.process("{ \"type\": \"suite\", \"event\": \"started\", \"test_count\": 3 }");
+		processor.process("{ \"type\": \"test\", \"event\": \"started\", \"name\": \"tests::it_works\" }");
+		processor.process("{ \"type\": \"test\", \"event\": \"started\", \"name\": \"tests::nested::it_fails\" }");
+		processor.process("{ \"type\": \"test\", \"name\": \"tests::it_works\", \"event\": \"ok\", \"exec_time\": 0.25 }");
+		processor.process("{ \"type\": \"test\", \"name\": \"tests::nested::it_fails\", \"event\": \"failed\", "
+				+ "\"exec_time\": \"1.5s\", \"stdout\": \"thread 'tests::nested::it_fails' panicked at 'boom', src/lib.rs:7:9\\n\" }");
+		processor.process("{ \"type\": \"test\", \"event\": \"ignored\", \"name\": \"slow\" }");
+		processor.process("{ \"type\": \"suite\", \"event\": \"failed\", \"passed\": 1, \"failed\": 1, \"ignored\": 1 }");
+		processor.process("{ not json");
+
+		assertEquals(List.of("suite tests", //
+				"case tests::it_works in tests", //
+				"started tests::it_works", //
+				"suite tests::nested", //
+				"case tests::nested::it_fails in tests::nested", //
+				"started tests::nested::it_fails", //
+				"ended tests::it_works", //
+				"failed tests::nested::it_fails: thread 'tests::nested::it_fails' panicked at 'boom\n at src/lib.rs:7:9", //
+				"ended tests::nested::it_fails", //
+				"case slow in session", //
+				"started slow", //
+				"ended slow ignored"), recorder.events);
+		assertEquals(Map.of("tests::it_works", Duration.ofMillis(250), //
+				"tests::nested::it_fails", Duration.ofMillis(1500)), processor.getExecutionTimes());
+	}
+
+	@Test
+	void testNextestEvents() {
+		Recorder recorder = new Recorder();
+		LibtestEventProcessor processor = new LibtestEventProcessor(recorder.session);
+		processor.process("{\"type\":\"suite\",\"event\":\"started\",\"test_count\":1}");
+		processor.process("{\"type\":\"test\",\"event\":\"started\",\"name\":\"foo::bin/foo$tests::it_works\"}");
+		processor.process("{\"type\":\"suite\",\"event\":\"started\",\"test_count\":1}");
+		processor.process("{\"type\":\"test\",\"event\":\"started\",\"name\":\"foo$tests::it_works\"}");
+		processor.process("{\"type\":\"test\",\"event\":\"ok\",\"name\":\"foo::bin/foo$tests::it_works\",\"exec_time\":0.5}");
+		processor.process("{\"type\":\"test\",\"event\":\"ok\",\"name\":\"foo$tests::it_works\",\"exec_time\":0.25}");
+
+		assertEquals(List.of("suite foo::bin/foo", //
+				"suite foo::bin/foo$tests", //
+				"case foo::bin/foo$tests::it_works in foo::bin/foo$tests", //
+				"started foo::bin/foo$tests::it_works", //
+				"suite foo", //
+				"suite foo$tests", //
+				"case foo$tests::it_works in foo$tests", //
+				"started foo$tests::it_works", //
+				"ended foo::bin/foo$tests::it_works", //
+				"ended foo$tests::it_works"), recorder.events);
+		assertEquals(Map.of("foo::bin/foo$tests::it_works", Duration.ofMillis(500), //
+				"foo$tests::it_works", Duration.ofMillis(250)), processor.getExecutionTimes());
+	}
+}
@@ -0,0 +1,119 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.corrosion.test.ShardedTestProcess.TestBinary;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+class ShardedTestProcessTest {
+
+	private static JsonObject artifact(String kind, String name, String test, String executable) {
+		return JsonParser.parseString("{\"reason\":\"compiler-artifact\",\"manifest_path\":\"/work/foo/Cargo.toml\","
+				+ "\"package_id\":\"path+file:///work/foo#0.1.0\",\"target\":{\"kind\":[\"" + kind + "\"],\"name\":\"" + name + "\"},\"profile\":{\"test\":" + test
+				+ "},\"executable\":" + executable + "}").getAsJsonObject();
+	}
+
+	@Test
+	void testToTestBinary() {
+		assertEquals(new TestBinary("foo", "/work/target/debug/deps/foo-1", new File("/work/foo")),
+				ShardedTestProcess.toTestBinary(artifact("lib", "foo", "true", "\"/work/target/debug/deps/foo-1\"")));
+		assertEquals(new TestBinary("foo", "/t/foo_macros-2", new File("/work/foo")),
+				ShardedTestProcess.toTestBinary(artifact("proc-macro", "foo_macros", "true", "\"/t/foo_macros-2\"")));
+		// the package tells apart the targets of the same name of other packages
+		assertEquals(new TestBinary("foo::test/integration", "/t/integration-3", new File("/work/foo")),
+				ShardedTestProcess.toTestBinary(artifact("test", "integration", "true", "\"/t/integration-3\"")));
+		// the library the tests link against, and a build script
+		assertNull(ShardedTestProcess.toTestBinary(artifact("lib", "foo", "false", "null")));
+		assertNull(ShardedTestProcess.toTestBinary(artifact("custom-build", "build-script-build", "false", "null")));
+		assertNull(ShardedTestProcess
+				.toTestBinary(JsonParser.parseString("{\"reason\":\"build-finished\",\"success\":true}").getAsJsonObject()));
+	}
+
+	@Test
+	void testGetPackageName() {
+		assertEquals("my-crate", ShardedTestProcess.getPackageName("my-crate 0.1.0 (path+file:///work/my-crate)"));
+		assertEquals("my-crate", ShardedTestProcess.getPackageName("path+file:///work/my-crate#0.1.0"));
+		assertEquals("my-crate", ShardedTestProcess.getPackageName("path+file:///work/crates/core#my-crate@0.1.0"));
+		assertEquals("dep", ShardedTestProcess.getPackageName("git+https://host/dep?branch=main#dep@1.0.0"));
+		assertNull(ShardedTestProcess.getPackageName(null));
+	}
+
+	@Test
+	void testPrefixTestName() {
+		assertEquals("{\"type\":\"test\",\"event\":\"started\",\"name\":\"test/integration$tests::it_works\"}",
+				ShardedTestProcess.prefixTestName("{ \"type\": \"test\", \"event\": \"started\", \"name\": \"tests::it_works\" }",
+						"test/integration"));
+		assertEquals("{ \"type\": \"suite\", \"event\": \"started\", \"test_count\": 2 }", ShardedTestProcess
+				.prefixTestName("{ \"type\": \"suite\", \"event\": \"started\", \"test_count\": 2 }", "foo"));
+		assertEquals("running 2 tests", ShardedTestProcess.prefixTestName("running 2 tests", "foo"));
+	}
+
+	@Test
+	void testGetMetadataCommand() {
+		assertEquals(List.of("cargo", "metadata", "--no-deps", "--format-version", "1", "--manifest-path", "/w/Cargo.toml"),
+				ShardedTestProcess.getMetadataCommand(List.of("cargo", "test", "--no-run", "--manifest-path",
+						"/w/Cargo.toml", "--message-format", "json")));
+		assertEquals(List.of("cargo", "metadata", "--no-deps", "--format-version", "1"),
+				ShardedTestProcess.getMetadataCommand(List.of("cargo", "test", "--no-run")));
+	}
+
+	@Test
+	void testParsePackageVariables() {
+		Map<File, Map<String, String>> packages = ShardedTestProcess.parsePackageVariables("{\"packages\":[{"
+				+ "\"name\":\"foo\",\"version\":\"1.2.3-beta.1+build.5\",\"authors\":[\"A <a@x>\",\"B\"],"
+				+ "\"description\":\"Foo\",\"license\":\"EPL-2.0\",\"rust_version\":\"1.80\",\"readme\":null,"
+				+ "\"manifest_path\":\"/work/foo/Cargo.toml\"},{\"name\":\"bar\",\"version\":\"0.1.0\","
+				+ "\"manifest_path\":\"/work/bar/Cargo.toml\"}]}");
+		assertEquals(2, packages.size());
+		Map<String, String> foo = packages.get(new File("/work/foo"));
+		assertEquals(new File("/work/foo").getPath(), foo.get("CARGO_MANIFEST_DIR"));
+		assertEquals(new File("/work/foo/Cargo.toml").getPath(), foo.get("CARGO_MANIFEST_PATH"));
+		assertEquals("foo", foo.get("CARGO_PKG_NAME"));
+		assertEquals("1.2.3-beta.1+build.5", foo.get("CARGO_PKG_VERSION"));
+		assertEquals("1", foo.get("CARGO_PKG_VERSION_MAJOR"));
+		assertEquals("2", foo.get("CARGO_PKG_VERSION_MINOR"));
+		assertEquals("3", foo.get("CARGO_PKG_VERSION_PATCH"));
+		assertEquals("beta.1", foo.get("CARGO_PKG_VERSION_PRE"));
+		assertEquals("A <a@x>:B", foo.get("CARGO_PKG_AUTHORS"));
+		assertEquals("1.80", foo.get("CARGO_PKG_RUST_VERSION"));
+		// unset fields are empty, as Cargo sets them
+		assertEquals("", foo.get("CARGO_PKG_README"));
+		assertEquals("", foo.get("CARGO_PKG_HOMEPAGE"));
+		Map<String, String> bar = packages.get(new File("/work/bar"));
+		assertEquals("bar", bar.get("CARGO_PKG_NAME"));
+		assertEquals("", bar.get("CARGO_PKG_VERSION_PRE"));
+		assertTrue(ShardedTestProcess.parsePackageVariables("error: could not find Cargo.toml").isEmpty());
+	}
+
+	@Test
+	void testWithVariables() {
+		String[] env = ShardedTestProcess.withVariables(
+				new String[] { "HOME=/home/me", "CARGO_PKG_NAME=other", "LD_LIBRARY_PATH=/opt/lib" },
+				Map.of("CARGO_PKG_NAME", "foo"), "LD_LIBRARY_PATH", new File("/work/target/debug/deps"));
+		assertEquals(List.of("HOME=/home/me", "CARGO_PKG_NAME=foo",
+				"LD_LIBRARY_PATH=" + new File("/work/target/debug/deps").getPath() + File.pathSeparator + "/opt/lib"),
+				Arrays.asList(env));
+		env = ShardedTestProcess.withVariables(new String[] { "HOME=/home/me" }, Map.of(), "LD_LIBRARY_PATH",
+				new File("/deps"));
+		assertEquals(List.of("HOME=/home/me", "LD_LIBRARY_PATH=" + new File("/deps").getPath()), Arrays.asList(env));
+	}
+}
@@ -0,0 +1,123 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.lang.reflect.Proxy;
+
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.IStreamListener;
+import org.eclipse.debug.core.model.IProcess;
+import org.eclipse.debug.core.model.IStreamMonitor;
+import org.junit.jupiter.api.Test;
+
+class StreamMonitorPipeTest {
+
+	private static class Monitor implements IStreamMonitor {
+		final StringBuilder contents = new StringBuilder();
+		IStreamListener listener;
+
+		@Override
+		public void addListener(IStreamListener l) {
+			listener = l;
+		}
+
+		@Override
+		public void removeListener(IStreamListener l) {
+			if (listener == l) {
+				listener = null;
+			}
+		}
+
+		@Override
+		public String getContents() {
+			return contents.toString();
+		}
+
+		synchronized void append(String text) {
+			contents.append(text);
+			if (listener != null) {
+				listener.streamAppended(text, this);
+			}
+		}
+	}
+
+	private static String readAll(Reader reader) throws IOException {
+		StringWriter result = new StringWriter();
+		reader.transferTo(result);
+		return result.toString();
+	}
+
+	@Test
+	void testContentsAndAppendedText() throws IOException {
+		IProcess process = (IProcess) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { IProcess.class },
+				(proxy, method, args) -> method.getName().equals("isTerminated") ? Boolean.FALSE : null);
+		Monitor monitor = new Monitor();
+		monitor.append("running 2 tests\n");
+		try (StreamMonitorPipe pipe = StreamMonitorPipe.connect(process, monitor)) {
+			monitor.append("test a ... ok\n");
+			monitor.append("test b ... \u00fcberfailed\n");
+			pipe.handleDebugEvents(new DebugEvent[] { new DebugEvent(process, DebugEvent.TERMINATE) });
+			assertEquals("running 2 tests\ntest a ... ok\ntest b ... \u00fcberfailed\n", readAll(pipe));
+			assertNull(monitor.listener);
+		}
+	}
+
+	@Test
+	void testOutputLargerThanBuffer() throws Exception {
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 100000; i++) {
+			expected.append("test module::test_").append(i).append(" ... ok\n");
+		}
+		StreamMonitorPipe pipe = new StreamMonitorPipe(1024);
+		Thread writer = new Thread(() -> {
+			for (int i = 0; i < expected.length(); i += 1000) {
+				pipe.write(expected.substring(i, Math.min(expected.length(), i + 1000)));
+			}
+			pipe.closeWrite();
+		});
+		writer.start();
+		assertEquals(expected.toString(), readAll(pipe));
+		writer.join();
+	}
+
+	@Test
+	void testBuffersUntilRead() throws IOException {
+		StreamMonitorPipe pipe = new StreamMonitorPipe(4);
+		pipe.write("ab");
+		pipe.write("more than four characters");
+		pipe.closeWrite();
+		assertEquals("abmore than four characters", readAll(pipe));
+	}
+
+	@Test
+	void testCloseReleasesWriter() throws Exception {
+		StreamMonitorPipe pipe = new StreamMonitorPipe(4);
+		// the writer waits for a reader once reading started
+		pipe.write("a");
+		assertEquals('a', pipe.read());
+		Thread writer = new Thread(() -> pipe.write("more than four characters"));
+		writer.start();
+		while (!pipe.ready()) {
+			Thread.sleep(1);
+		}
+		pipe.close();
+		writer.join(10000);
+		assertFalse(writer.isAlive());
+		assertEquals(-1, pipe.read());
+	}
+}
@@ -0,0 +1,90 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.corrosion.test.TestHistory.Outcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TestHistoryTest {
+
+	private File file;
+
+	@BeforeEach
+	void createFile() throws IOException {
+		file = File.createTempFile("testHistory", ".json");
+		// the history of a project that never ran
+		file.delete();
+	}
+
+	@AfterEach
+	void deleteFile() {
+		file.delete();
+	}
+
+	@Test
+	void testSaveMergesOutcomes() {
+		TestHistory first = new TestHistory(file);
+		first.record("tests::it_works", false, Duration.ofMillis(2));
+		first.record("tests::it_fails", true, Duration.ofMillis(3));
+		first.save(true);
+
+		TestHistory second = new TestHistory(file);
+		second.record("tests::it_fails", false, null);
+		second.record("lib$tests::other", true, Duration.ofMillis(5));
+		second.record("bin/main$tests::other", true, null);
+		second.save(true);
+
+		TestHistory stored = TestHistory.load(file);
+		assertEquals(Map.of("tests::it_works", new Outcome(false, Duration.ofMillis(2)), //
+				"tests::it_fails", new Outcome(false, Duration.ofMillis(3)), //
+				"lib$tests::other", new Outcome(true, Duration.ofMillis(5)), //
+				"bin/main$tests::other", new Outcome(true, null)), stored.getOutcomes());
+		assertEquals(List.of("tests::other"), stored.getFailedTests());
+	}
+
+	@Test
+	void testRunOfAllTestsDropsUnreportedFailures() {
+		TestHistory first = new TestHistory(file);
+		first.record("tests::renamed", true, null);
+		first.record("tests::skipped", false, Duration.ofMillis(1));
+		first.save(true);
+
+		// a filtered run does not tell about the other tests
+		TestHistory filtered = new TestHistory(file);
+		filtered.record("tests::it_works", false, null);
+		filtered.save(true);
+		assertEquals(List.of("tests::renamed"), TestHistory.load(file).getFailedTests());
+
+		// neither does a run that did not end normally, or did not build
+		TestHistory aborted = new TestHistory(file, true);
+		aborted.record("tests::it_works", false, null);
+		aborted.save(false);
+		new TestHistory(file, true).save(true);
+		assertEquals(List.of("tests::renamed"), TestHistory.load(file).getFailedTests());
+
+		TestHistory all = new TestHistory(file, true);
+		all.record("tests::it_works", false, null);
+		all.save(true);
+		TestHistory stored = TestHistory.load(file);
+		assertEquals(List.of(), stored.getFailedTests());
+		assertEquals(Map.of("tests::it_works", new Outcome(false, null), //
+				"tests::skipped", new Outcome(false, Duration.ofMillis(1))), stored.getOutcomes());
+	}
+}
@@ -0,0 +1,89 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TestProcessAttacherTest {
+
+	private File folder;
+
+	@BeforeEach
+	void createFolder() throws IOException {
+		folder = Files.createTempDirectory("testRunner").toFile();
+	}
+
+	@AfterEach
+	void deleteFolder() {
+		for (File file : folder.listFiles()) {
+			file.delete();
+		}
+		folder.delete();
+	}
+
+	@Test
+	void testGetTarget() {
+		assertNull(TestProcessAttacher.getTarget(List.of("--release")));
+		assertEquals("aarch64-unknown-linux-gnu",
+				TestProcessAttacher.getTarget(List.of("--target", "aarch64-unknown-linux-gnu", "--release")));
+		assertEquals("wasm32-wasip1", TestProcessAttacher.getTarget(List.of("--target=wasm32-wasip1")));
+		assertNull(TestProcessAttacher.getTarget(List.of("--", "--target", "x86_64-pc-windows-msvc")));
+	}
+
+	@Test
+	void testGetRunnerVariable() {
+		assertEquals("CARGO_TARGET_X86_64_UNKNOWN_LINUX_GNU_RUNNER",
+				TestProcessAttacher.getRunnerVariable("x86_64-unknown-linux-gnu"));
+		assertEquals("CARGO_TARGET_THUMBV8M_MAIN_NONE_EABI_RUNNER",
+				TestProcessAttacher.getRunnerVariable("thumbv8m.main-none-eabi"));
+	}
+
+	@Test
+	void testBinaryRunsOnceAttached() throws IOException, InterruptedException {
+		assumeTrue(new File("/bin/bash").canExecute());
+		List<String> attached = Collections.synchronizedList(new ArrayList<>());
+		long[] attachedPid = { -1 };
+		TestProcessAttacher attacher = TestProcessAttacher.start(folder, "x86_64-unknown-linux-gnu",
+				(executable, pid) -> {
+					attached.add(executable);
+					attachedPid[0] = pid;
+				});
+		assertNotNull(attacher);
+		try {
+			String runner = attacher.getEnvironment().get(attacher.getRunnerVariable());
+			ProcessBuilder builder = new ProcessBuilder(runner, "/bin/echo", "it works");
+			builder.environment().putAll(attacher.getEnvironment());
+			Process process = builder.start();
+			String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+			assertEquals(0, process.waitFor());
+			assertEquals("it works\n", output);
+			assertEquals(List.of("/bin/echo"), attached);
+			// the binary replaces the runner, the debugger attaches to its process
+			assertEquals(process.pid(), attachedPid[0]);
+		} finally {
+			attacher.close();
+		}
+	}
+}
@@ -0,0 +1,102 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class TestRunOrderTest {
+	private static final List<String> COMMAND = List.of("cargo", "test", "--manifest-path", "Cargo.toml");
+
+	@Test
+	void testPlan() {
+		assertEquals(List.of(COMMAND), TestRunOrder.plan(COMMAND, "", List.of(), List.of(), List.of(), Set.of()));
+
+		assertEquals(List.of( //
+				List.of("cargo", "test", "--manifest-path", "Cargo.toml", "--no-fail-fast", "--", "--exact", "a::x",
+						"b::y"),
+				List.of("cargo", "test", "--manifest-path", "Cargo.toml", "-p", "b", "--", "--exact", "--skip", "a::x",
+						"--skip", "b::y"),
+				List.of("cargo", "test", "--manifest-path", "Cargo.toml", "-p", "a", "-p", "c", "--", "--exact",
+						"--skip", "a::x", "--skip", "b::y")),
+				TestRunOrder.plan(COMMAND, "", List.of(), List.of("a::x", "b::y"), List.of("a", "b", "c"),
+						Set.of("b")));
+	}
+
+	@Test
+	void testPlanWithTestName() {
+		// the failed tests that match run again, --exact would apply to the name
+		assertEquals(List.of( //
+				List.of("cargo", "test", "--manifest-path", "Cargo.toml", "--no-fail-fast", "--", "--nocapture",
+						"--exact", "b::y"),
+				List.of("cargo", "test", "--manifest-path", "Cargo.toml", "y", "--", "--nocapture")),
+				TestRunOrder.plan(COMMAND, "y", List.of("--nocapture"), List.of("a::x", "b::y"), List.of("a", "b"),
+						Set.of("a", "b")));
+	}
+
+	@Test
+	void testSelectsPackages() {
+		assertTrue(TestRunOrder.selectsPackages(List.of("--release", "-p", "foo")));
+		assertTrue(TestRunOrder.selectsPackages(List.of("-pfoo")));
+		assertTrue(TestRunOrder.selectsPackages(List.of("--package=foo")));
+		assertTrue(TestRunOrder.selectsPackages(List.of("--workspace", "--exclude=foo")));
+		assertFalse(TestRunOrder.selectsPackages(List.of("--profile", "ci", "--packages-x")));
+		assertFalse(TestRunOrder.selectsPackages(List.of("--", "-p", "foo")));
+		assertTrue(TestRunOrder.selectsWorkspace(List.of("--all")));
+		assertFalse(TestRunOrder.selectsWorkspace(List.of("--release")));
+	}
+
+	@Test
+	void testFiltersTests() {
+		assertFalse(TestRunOrder.filtersTests(List.of("--nocapture", "--test-threads=2")));
+		assertTrue(TestRunOrder.filtersTests(List.of("--nocapture", "it_works")));
+		assertTrue(TestRunOrder.filtersTests(List.of("--skip", "slow")));
+		assertTrue(TestRunOrder.filtersTests(List.of("--ignored")));
+	}
+
+	@Test
+	void testParsePackages() {
+		String metadata = """
+				{"packages":[{"name":"app","id":"app 0.1.0","manifest_path":"/ws/app/Cargo.toml","targets":[]},
+				{"name":"core","id":"core 0.1.0","manifest_path":"/ws/core/Cargo.toml"}],
+				"workspace_members":["app 0.1.0","core 0.1.0"],"workspace_default_members":["app 0.1.0"],
+				"workspace_root":"/ws"}
+				""";
+		File root = new File("/ws/Cargo.toml");
+		assertEquals(Map.of("app", new File("/ws/app")), TestRunOrder.parsePackages(metadata, root, false));
+		assertEquals(Map.of("app", new File("/ws/app"), "core", new File("/ws/core")),
+				TestRunOrder.parsePackages(metadata, root, true));
+	}
+
+	@Test
+	void testParsePackagesWithoutDefaultMembers() {
+		// as told by Cargo before 1.71
+		String metadata = """
+				{"packages":[{"name":"app","id":"app 0.1.0","manifest_path":"/ws/Cargo.toml"},
+				{"name":"core","id":"core 0.1.0","manifest_path":"/ws/core/Cargo.toml"}],
+				"workspace_members":["app 0.1.0","core 0.1.0"],"workspace_root":"/ws"}
+				""";
+		// the root package is tested alone
+		assertEquals(Map.of(), TestRunOrder.parsePackages(metadata, new File("/ws/Cargo.toml"), false));
+		assertEquals(Map.of("app", new File("/ws"), "core", new File("/ws/core")),
+				TestRunOrder.parsePackages(metadata, new File("/ws/Cargo.toml"), true));
+		// a virtual manifest tests all members
+		assertEquals(Map.of("app", new File("/ws"), "core", new File("/ws/core")),
+				TestRunOrder.parsePackages(metadata, new File("/other/Cargo.toml"), false));
+	}
+}
@@ -0,0 +1,65 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.unittest.model.ITestElement;
+import org.eclipse.unittest.model.ITestRunSession;
+import org.eclipse.unittest.model.ITestSuiteElement;
+import org.junit.jupiter.api.Test;
+
+class TestSuiteIndexTest {
+
+	@Test
+	void testGetOrCreate() {
+		List<String> calls = new ArrayList<>();
+		ITestRunSession session = (ITestRunSession) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { ITestRunSession.class }, (proxy, method, args) -> {
+					switch (method.getName()) {
+					case "getTestElement":
+						calls.add("get " + args[0]);
+						return null;
+					case "newTestSuite":
+						ITestElement parent = (ITestElement) args[3];
+						calls.add("new " + args[0] + " named " + args[1] + " in "
+								+ (parent instanceof ITestRunSession ? "session" : parent.getTestName()) + " as "
+								+ args[4]);
+						return Proxy.newProxyInstance(getClass().getClassLoader(),
+								new Class<?>[] { ITestSuiteElement.class },
+								(p, m, a) -> m.getName().equals("getTestName") ? args[1] : null);
+					default:
+						return null;
+					}
+				});
+		TestSuiteIndex index = new TestSuiteIndex(session);
+
+		assertSame(session, index.getOrCreate(null));
+		ITestSuiteElement nested = index.getOrCreate("tests::nested");
+		assertEquals("tests::nested", nested.getTestName());
+		assertEquals(List.of("get tests", "new tests named tests in session as tests", //
+				"get tests::nested", "new tests::nested named tests::nested in tests as nested"), calls);
+
+		calls.clear();
+		assertSame(nested, index.getOrCreate("tests::nested"));
+		ITestSuiteElement other = index.getOrCreate("tests::other");
+		assertEquals(List.of("get tests::other", "new tests::other named tests::other in tests as other"), calls);
+
+		calls.clear();
+		ITestSuiteElement binary = index.getOrCreate(other, "bin$", "tests");
+		assertEquals(List.of("get bin$tests", "new bin$tests named tests in tests::other as tests"), calls);
+		assertSame(binary, index.getOrCreate(other, "bin$", "tests"));
+	}
+}
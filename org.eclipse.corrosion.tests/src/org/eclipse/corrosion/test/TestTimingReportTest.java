@@ -0,0 +1,52 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class TestTimingReportTest {
+
+	@Test
+	void testPercentilesAndSlowest() {
+		Map<String, Duration> times = new LinkedHashMap<>();
+		for (int i = 1; i <= 20; i++) {
+			times.put("tests::t" + i, Duration.ofMillis(i));
+		}
+		TestTimingReport report = new TestTimingReport(times);
+
+		assertEquals(Duration.ofMillis(210), report.getTotal());
+		assertEquals(Duration.ofMillis(10), report.getPercentile(50));
+		assertEquals(Duration.ofMillis(18), report.getPercentile(90));
+		assertEquals(Duration.ofMillis(19), report.getPercentile(95));
+		assertEquals(Duration.ofMillis(20), report.getPercentile(99));
+		assertEquals(Duration.ofMillis(20), report.getPercentile(100));
+		assertEquals(List.of(Map.entry("tests::t20", Duration.ofMillis(20)),
+				Map.entry("tests::t19", Duration.ofMillis(19))), report.getSlowest(2));
+		assertTrue(report.format(1).endsWith("  p50 0.010s  p90 0.018s  p95 0.019s  p99 0.020s  max 0.020s\n"
+				+ "  0.020s  tests::t20\n"));
+	}
+
+	@Test
+	void testParseReportTime() {
+		assertEquals(Duration.ofMillis(2), CargoTestRunnerClient.parseReportTime("ok <0.002s>"));
+		assertEquals(Duration.ofMillis(1500), CargoTestRunnerClient.parseReportTime("FAILED <1.500s>"));
+		assertNull(CargoTestRunnerClient.parseReportTime("ok"));
+		assertNull(CargoTestRunnerClient.parseReportTime("ignored, needs <network>"));
+	}
+}
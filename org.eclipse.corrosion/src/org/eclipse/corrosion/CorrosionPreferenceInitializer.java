@@ -43,6 +43,18 @@ public class CorrosionPreferenceInitializer extends AbstractPreferenceInitialize
 	 */
 	public static final String DEFAULT_GDB_PREFERENCE = "corrosion.defaultGdb"; //$NON-NLS-1$
 
+	/**
+	 * Preferences key for the memory in MB the resource lookup index may use before
+	 * the least recently queried projects are evicted from it
+	 */
+	public static final String RESOURCE_LOOKUP_BUDGET_PREFERENCE = "corrosion.resourceLookup_memoryBudget"; //$NON-NLS-1$
+
+	/**
+	 * Preferences key for whether the resource lookup index is limited to the
+	 * members of a cargo workspace
+	 */
+	public static final String RESOURCE_LOOKUP_MEMBERS_ONLY_PREFERENCE = "corrosion.resourceLookup_workspaceMembersOnly"; //$NON-NLS-1$
+
 	@Override
 	public void initializeDefaultPreferences() {
 		STORE.setDefault(RUSTUP_PATHS_PREFERENCE, getRustupPathBestGuess());
@@ -54,6 +66,8 @@ public class CorrosionPreferenceInitializer extends AbstractPreferenceInitialize
 
 		STORE.setDefault(WORKING_DIRECTORY_PREFERENCE, getWorkingDirectoryBestGuess());
 		STORE.setDefault(DEFAULT_GDB_PREFERENCE, DEFAULT_DEBUGGER);
+		STORE.setDefault(RESOURCE_LOOKUP_BUDGET_PREFERENCE, 128);
+		STORE.setDefault(RESOURCE_LOOKUP_MEMBERS_ONLY_PREFERENCE, false);
 	}
 
 	private static String getRustupPathBestGuess() {
@@ -86,6 +86,22 @@ public class Messages extends NLS {
 	public static String ToggleBreakpointsTargetFactory_breakpointTarget;
 	public static String CargoTestTab_testName;
 	public static String CargoTestTab_testNameDescription;
+	public static String CargoTestTab_jsonEvents;
+	public static String CargoTestTab_jsonEventsDescription;
+	public static String CargoTestTab_nextest;
+	public static String CargoTestTab_nextestDescription;
+	public static String CargoTestTab_testThreads;
+	public static String CargoTestTab_testThreadsDescription;
+	public static String CargoTestTab_retries;
+	public static String CargoTestTab_retriesDescription;
+	public static String CargoTestTab_parallelBinaries;
+	public static String CargoTestTab_parallelBinariesDescription;
+	public static String CargoTestTab_failedFirst;
+	public static String CargoTestTab_failedFirstDescription;
+	public static String CargoTestDelegate_nextestNotInstalled;
+	public static String TestTimingReport_slowestTests;
+	public static String FailureOutputBuffer_omitted;
+	public static String FailureOutputBuffer_omittedFullOutput;
 	public static String CargoExportWizard_commandFailed;
 	public static String CargoExportWizardPage_allowDirtyDirectories;
 	public static String CargoExportWizardPage_browse;
@@ -19,6 +19,7 @@ import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IProjectDescription;
@@ -33,6 +34,7 @@ import org.eclipse.corrosion.CorrosionPreferenceInitializer;
 import org.eclipse.jface.preference.IPreferenceStore;
 
 public class CargoTools {
+	private static final Pattern NEXTEST_VERSION_PATTERN = Pattern.compile("^cargo-nextest .*"); //$NON-NLS-1$
 
 	private CargoTools() {
 		throw new IllegalStateException("Utility class"); //$NON-NLS-1$
@@ -79,6 +81,14 @@ public class CargoTools {
 		}
 	}
 
+	/**
+	 * Returns whether the cargo-nextest subcommand is installed.
+	 */
+	public static boolean isNextestInstalled() {
+		return CorrosionPlugin.validateCommandVersion(new String[] { getCargoCommand(), "nextest" }, //$NON-NLS-1$
+				NEXTEST_VERSION_PATTERN);
+	}
+
 	public static String getCargoCommand() {
 		IPreferenceStore store = CorrosionPlugin.getDefault().getPreferenceStore();
 		return store.getString(CorrosionPreferenceInitializer.CARGO_PATH_PREFERENCE);
@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.resources;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.corrosion.CorrosionPlugin;
+
+/**
+ * Bounded cache from absolute to canonical paths. Resolving a canonical path
+ * costs a system call per segment, which is slow on network file systems.
+ *
+ * Paths within the locations of the projects are kept until a resource delta
+ * adds, removes or replaces them or one of their parents. Paths outside of the
+ * workspace are not covered by deltas, they expire after a short time. The
+ * least recently used paths are dropped first.
+ */
+class CanonicalPathCache implements IResourceChangeListener {
+	private static final int TRIGGER_INVALIDATE = IResourceDelta.TYPE | IResourceDelta.REPLACED
+			| IResourceDelta.MOVED_FROM | IResourceDelta.MOVED_TO | IResourceDelta.OPEN;
+	private static final String[] NO_LOCATIONS = {};
+
+	private static final class Entry {
+		final String fCanonicalPath;
+		final long fExpires;
+
+		Entry(String canonicalPath, long expires) {
+			fCanonicalPath = canonicalPath;
+			fExpires = expires;
+		}
+	}
+
+	private final int fCapacity;
+	private final long fTimeToLive;
+	private final Map<String, Entry> fEntries;
+	private final LongAdder fHits = new LongAdder();
+	private final LongAdder fMisses = new LongAdder();
+	private volatile String[] fProjectLocations;
+	private volatile boolean fListening;
+	private int fGeneration; // incremented whenever paths are invalidated
+
+	/**
+	 * @param capacity   the maximum number of paths to keep.
+	 * @param timeToLive the milliseconds after which paths outside of the
+	 *                   workspace are resolved again.
+	 */
+	CanonicalPathCache(int capacity, long timeToLive) {
+		fCapacity = capacity;
+		fTimeToLive = timeToLive;
+		fEntries = new LinkedHashMap<>(64, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > fCapacity;
+			}
+		};
+	}
+
+	void startup() {
+		ResourcesPlugin.getWorkspace().addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE);
+		fListening = true;
+	}
+
+	void shutdown() {
+		fListening = false;
+		ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+		clear();
+	}
+
+	/**
+	 * Returns the canonical path for the given absolute path, the resolver is
+	 * called when the path is not cached.
+	 */
+	String get(String absolutePath, UnaryOperator<String> resolver) {
+		final long now = now();
+		final int generation;
+		synchronized (fEntries) {
+			final Entry entry = fEntries.get(absolutePath);
+			if (entry != null && entry.fExpires > now) {
+				fHits.increment();
+				return entry.fCanonicalPath;
+			}
+			generation = fGeneration;
+		}
+		fMisses.increment();
+		// resolve without holding the lock, the file system may be slow
+		final String canonicalPath = resolver.apply(absolutePath);
+		final long expires = isInWorkspace(absolutePath) ? Long.MAX_VALUE : now + fTimeToLive;
+		synchronized (fEntries) {
+			// do not cache a result that may predate an invalidation
+			if (generation == fGeneration) {
+				fEntries.put(absolutePath, new Entry(canonicalPath, expires));
+			}
+		}
+		return canonicalPath;
+	}
+
+	void clear() {
+		synchronized (fEntries) {
+			fEntries.clear();
+			fGeneration++;
+		}
+		fProjectLocations = null;
+	}
+
+	/**
+	 * Removes the given paths and the paths below them.
+	 */
+	void invalidate(Collection<String> paths) {
+		if (paths.isEmpty())
+			return;
+		final Set<String> pathSet = paths instanceof Set<String> set ? set : new HashSet<>(paths);
+		synchronized (fEntries) {
+			fGeneration++;
+			// look up the parents of the cached paths, there may be many changed paths
+			fEntries.keySet().removeIf(key -> {
+				for (int end = key.length(); end > 0; end = key.lastIndexOf(File.separatorChar, end - 1)) {
+					if (pathSet.contains(key.substring(0, end)))
+						return true;
+				}
+				return false;
+			});
+		}
+	}
+
+	int size() {
+		synchronized (fEntries) {
+			return fEntries.size();
+		}
+	}
+
+	long getHitCount() {
+		return fHits.sum();
+	}
+
+	long getMissCount() {
+		return fMisses.sum();
+	}
+
+	long now() {
+		return System.currentTimeMillis();
+	}
+
+	/**
+	 * Returns whether the path lies within the location of a project, such that
+	 * changes to it are reported by resource deltas.
+	 */
+	boolean isInWorkspace(String path) {
+		if (!fListening)
+			return false;
+
+		String[] locations = fProjectLocations;
+		if (locations == null) {
+			locations = computeProjectLocations();
+			fProjectLocations = locations;
+		}
+		for (String location : locations) {
+			if (path.startsWith(location)
+					&& (path.length() == location.length() || path.charAt(location.length()) == File.separatorChar))
+				return true;
+		}
+		return false;
+	}
+
+	private static String[] computeProjectLocations() {
+		final IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		if (workspace == null)
+			return NO_LOCATIONS;
+		final List<String> result = new ArrayList<>();
+		for (IProject project : workspace.getRoot().getProjects()) {
+			final IPath location = project.getLocation();
+			if (location != null) {
+				result.add(location.toOSString());
+			}
+		}
+		return result.toArray(new String[result.size()]);
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		if (size() == 0) {
+			fProjectLocations = null;
+			return;
+		}
+		final Set<String> paths = new HashSet<>();
+		try {
+			event.getDelta().accept(delta -> {
+				final IResource res = delta.getResource();
+				if (res instanceof IWorkspaceRoot)
+					return true;
+
+				final boolean invalidate = delta.getKind() != IResourceDelta.CHANGED
+						|| (delta.getFlags() & TRIGGER_INVALIDATE) != 0;
+				if (res instanceof IProject && (invalidate || (delta.getFlags() & IResourceDelta.DESCRIPTION) != 0)) {
+					// the location of a project may have changed
+					fProjectLocations = null;
+				}
+				if (!invalidate)
+					return res.getType() != IResource.FILE;
+
+				final IPath location = res.getLocation();
+				paths.add(location == null ? "" : location.toOSString()); //$NON-NLS-1$
+				return false;
+			});
+		} catch (CoreException e) {
+			CorrosionPlugin.logError(e);
+			clear();
+			return;
+		}
+		if (paths.contains("")) { //$NON-NLS-1$
+			// a location is unknown, e.g. for a deleted project
+			clear();
+		} else {
+			invalidate(paths);
+		}
+	}
+}
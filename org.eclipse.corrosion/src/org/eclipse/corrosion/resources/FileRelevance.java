@@ -27,6 +27,11 @@ public class FileRelevance {
 	private static final int LINK_PENALTY = 1;
 	private static final int INACCESSIBLE_SHIFT = 4;
 
+	// Attributes of a file that determine its relevance, see getFlags(IFile)
+	static final int ACCESSIBLE = 0x1;
+	static final int LINKED = 0x2;
+	static final int SYMBOLIC_LINK = 0x4;
+
 	/**
 	 * Compute a relevance for the given file. The higher the score the more
 	 * relevant the file. It is determined by the following criteria: <br>
@@ -40,6 +45,40 @@ public class FileRelevance {
 		return getRelevance(f, preferredProject, true, null);
 	}
 
+	/**
+	 * Returns the attributes of the file that determine its relevance, a
+	 * combination of {@link #ACCESSIBLE}, {@link #LINKED} and
+	 * {@link #SYMBOLIC_LINK}. Checking for a symbolic link accesses the file
+	 * system.
+	 */
+	static int getFlags(IFile f) {
+		if (!f.isAccessible())
+			return 0;
+		if (f.isLinked())
+			return ACCESSIBLE | LINKED;
+		ResourceAttributes ra = f.getResourceAttributes();
+		if (ra != null && ra.isSymbolicLink())
+			return ACCESSIBLE | SYMBOLIC_LINK;
+		return ACCESSIBLE;
+	}
+
+	/**
+	 * Same as {@link #getRelevance(IFile, IProject)} for a file with the given
+	 * attributes, see {@link #getFlags(IFile)}.
+	 */
+	static int getRelevance(IFile f, IProject preferredProject, int flags) {
+		int result = 0;
+		if (f.getProject().equals(preferredProject))
+			result += PREFERRED_PROJECT;
+
+		if ((flags & ACCESSIBLE) == 0) {
+			result >>= INACCESSIBLE_SHIFT;
+		} else if ((flags & (LINKED | SYMBOLIC_LINK)) != 0) {
+			result -= LINK_PENALTY;
+		}
+		return result;
+	}
+
 	/**
 	 * Compute a relevance for the given file. The higher the score the more
 	 * relevant the file. It is determined by the following criteria: <br>
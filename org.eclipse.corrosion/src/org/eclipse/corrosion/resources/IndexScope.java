@@ -0,0 +1,514 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.resources;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.corrosion.CorrosionPlugin;
+
+/**
+ * Decides which resources of a project are indexed. Excluded are:
+ * <ul>
+ * <li>the target directory of cargo, as configured by the environment variable
+ * <code>CARGO_TARGET_DIR</code>, by <code>build.target-dir</code> in
+ * <code>.cargo/config.toml</code> or else <code>target</code>,</li>
+ * <li>the directories of vendored sources configured in
+ * <code>.cargo/config.toml</code> and the <code>.git</code> directory,</li>
+ * <li>the resources ignored by the <code>.gitignore</code> file of the
+ * project,</li>
+ * <li>optionally, the folders outside of the members of the workspace declared
+ * in <code>Cargo.toml</code> and the folders it excludes, unless the project is
+ * a package itself.</li>
+ * </ul>
+ *
+ * Paths are relative to the project. The indexer asks for each folder before
+ * it visits its children, such that excluded subtrees are pruned as a whole. A
+ * scope reflects the files it was created from, see {@link #isScopeFile}.
+ */
+final class IndexScope {
+	private static final String CARGO_TOML = "Cargo.toml"; //$NON-NLS-1$
+	private static final String GITIGNORE = ".gitignore"; //$NON-NLS-1$
+	private static final String CARGO_DIR = ".cargo"; //$NON-NLS-1$
+	private static final String[] CARGO_CONFIGS = { "config.toml", "config" }; //$NON-NLS-1$ //$NON-NLS-2$
+	private static final String DEFAULT_TARGET_DIR = "target"; //$NON-NLS-1$
+	private static final IPath GIT_DIR = new Path(".git"); //$NON-NLS-1$
+
+	/**
+	 * A pattern of a <code>.gitignore</code> file.
+	 */
+	private static final class IgnoreRule {
+		final boolean fNegated;
+		final boolean fFoldersOnly;
+		final boolean fAnchored;
+		final Object[] fSegments; // String for literal segments, Pattern for globs
+
+		IgnoreRule(boolean negated, boolean foldersOnly, boolean anchored, Object[] segments) {
+			fNegated = negated;
+			fFoldersOnly = foldersOnly;
+			fAnchored = anchored;
+			fSegments = segments;
+		}
+
+		boolean matches(IPath path, boolean isFolder) {
+			if (fFoldersOnly && !isFolder)
+				return false;
+			if (!fAnchored)
+				return matchesSegment(fSegments[0], path.lastSegment());
+			return matchesSegments(path, 0, 0);
+		}
+
+		private boolean matchesSegments(IPath path, int pathIndex, int ruleIndex) {
+			if (ruleIndex == fSegments.length)
+				return pathIndex == path.segmentCount();
+			if (fSegments[ruleIndex] == GLOBSTAR) {
+				for (int i = pathIndex; i <= path.segmentCount(); i++) {
+					if (matchesSegments(path, i, ruleIndex + 1))
+						return true;
+				}
+				return false;
+			}
+			return pathIndex < path.segmentCount() && matchesSegment(fSegments[ruleIndex], path.segment(pathIndex))
+					&& matchesSegments(path, pathIndex + 1, ruleIndex + 1);
+		}
+	}
+
+	private static final Object GLOBSTAR = "**"; //$NON-NLS-1$
+
+	private final Set<IPath> fExcludedFolders;
+	private final List<IgnoreRule> fIgnoreRules;
+	private final boolean fHasFileRules;
+	private final List<Object[]> fMembers; // null to index all folders
+
+	/**
+	 * Creates a scope from the contents of the files that configure it.
+	 *
+	 * @param location    the location of the project, used to find out whether an
+	 *                    absolute target directory lies within it, or
+	 *                    <code>null</code>.
+	 * @param cargoToml   the contents of <code>Cargo.toml</code>, or
+	 *                    <code>null</code>.
+	 * @param cargoConfig the contents of <code>.cargo/config.toml</code>, or
+	 *                    <code>null</code>.
+	 * @param gitignore   the contents of <code>.gitignore</code>, or
+	 *                    <code>null</code>.
+	 * @param targetDir   the target directory set in the environment, or
+	 *                    <code>null</code>.
+	 * @param membersOnly whether to index the members of the workspace, only.
+	 */
+	IndexScope(IPath location, String cargoToml, String cargoConfig, String gitignore, String targetDir,
+			boolean membersOnly) {
+		final Map<String, String> config = cargoConfig == null ? Map.of() : readToml(cargoConfig);
+		final Set<IPath> excluded = new HashSet<>();
+		excluded.add(GIT_DIR);
+		String target = targetDir;
+		if (target == null) {
+			target = parseString(config.get("build.target-dir")); //$NON-NLS-1$
+		}
+		addFolder(excluded, location, target != null ? target : DEFAULT_TARGET_DIR);
+		for (Map.Entry<String, String> entry : config.entrySet()) {
+			if (entry.getKey().startsWith("source.") && entry.getKey().endsWith(".directory")) { //$NON-NLS-1$ //$NON-NLS-2$
+				addFolder(excluded, location, parseString(entry.getValue()));
+			}
+		}
+		fExcludedFolders = excluded;
+		fIgnoreRules = gitignore == null ? List.of() : parseIgnoreRules(gitignore);
+		fHasFileRules = fIgnoreRules.stream().anyMatch(r -> !r.fFoldersOnly);
+
+		List<Object[]> members = null;
+		if (membersOnly && cargoToml != null) {
+			final Map<String, String> manifest = readToml(cargoToml);
+			final List<String> patterns = parseStringArray(manifest.get("workspace.members")); //$NON-NLS-1$
+			// the root package spans the project, members merely add to it
+			if (patterns != null && manifest.keySet().stream().noneMatch(k -> k.startsWith("package."))) { //$NON-NLS-1$
+				members = new ArrayList<>();
+				for (String pattern : patterns) {
+					members.add(compileSegments(new Path(pattern).makeRelative()));
+				}
+				final List<String> exclude = parseStringArray(manifest.get("workspace.exclude")); //$NON-NLS-1$
+				if (exclude != null) {
+					for (String folder : exclude) {
+						addFolder(excluded, location, folder);
+					}
+				}
+			}
+		}
+		fMembers = members;
+	}
+
+	/**
+	 * Creates the scope of a project from its files and the environment.
+	 */
+	static IndexScope create(IProject project, boolean membersOnly) {
+		final IPath location = project.getLocation();
+		String targetDir = System.getenv("CARGO_TARGET_DIR"); //$NON-NLS-1$
+		if (targetDir == null) {
+			targetDir = System.getenv("CARGO_BUILD_TARGET_DIR"); //$NON-NLS-1$
+		}
+		if (location == null)
+			return new IndexScope(null, null, null, null, targetDir, false);
+
+		String cargoConfig = null;
+		for (String name : CARGO_CONFIGS) {
+			cargoConfig = readFile(location.append(CARGO_DIR).append(name));
+			if (cargoConfig != null)
+				break;
+		}
+		return new IndexScope(location, readFile(location.append(CARGO_TOML)), cargoConfig,
+				readFile(location.append(GITIGNORE)), targetDir, membersOnly);
+	}
+
+	private static String readFile(IPath path) {
+		final java.nio.file.Path file = path.toFile().toPath();
+		if (!Files.isRegularFile(file))
+			return null;
+		try {
+			return Files.readString(file, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			CorrosionPlugin.logError(e);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns whether a change of the given resource affects the scope of its
+	 * project.
+	 */
+	static boolean isScopeFile(IResource resource) {
+		final IPath path = resource.getProjectRelativePath();
+		switch (path.segmentCount()) {
+		case 1:
+			final String name = path.lastSegment();
+			return name.equals(CARGO_TOML) || name.equals(GITIGNORE) || name.equals(CARGO_DIR);
+		case 2:
+			return path.segment(0).equals(CARGO_DIR)
+					&& (path.lastSegment().equals(CARGO_CONFIGS[0]) || path.lastSegment().equals(CARGO_CONFIGS[1]));
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Returns whether there are rules that exclude files, otherwise only folders
+	 * are excluded.
+	 */
+	boolean hasFileRules() {
+		return fHasFileRules;
+	}
+
+	/**
+	 * Returns whether the given resource is excluded, assuming its parent is not.
+	 *
+	 * @param path     the path of the resource relative to the project.
+	 * @param isFolder whether the resource is a folder.
+	 */
+	boolean isExcluded(IPath path, boolean isFolder) {
+		if (path.isEmpty())
+			return false;
+		if (!isFolder && !fHasFileRules)
+			return false;
+		if (isFolder && (fExcludedFolders.contains(path) || !isWithinMembers(path)))
+			return true;
+
+		// the last matching rule decides
+		for (int i = fIgnoreRules.size() - 1; i >= 0; i--) {
+			final IgnoreRule rule = fIgnoreRules.get(i);
+			if (rule.matches(path, isFolder))
+				return !rule.fNegated;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns whether the given resource is neither excluded itself nor lies in an
+	 * excluded folder.
+	 *
+	 * @param path     the path of the resource relative to the project.
+	 * @param isFolder whether the resource is a folder.
+	 */
+	boolean contains(IPath path, boolean isFolder) {
+		final int count = path.segmentCount();
+		for (int i = 1; i < count; i++) {
+			if (isExcluded(path.uptoSegment(i), true))
+				return false;
+		}
+		return !isExcluded(path, isFolder);
+	}
+
+	/**
+	 * Returns whether the folder is a member of the workspace, lies within one or
+	 * contains one.
+	 */
+	private boolean isWithinMembers(IPath folder) {
+		if (fMembers == null)
+			return true;
+
+		outer: for (Object[] member : fMembers) {
+			final int count = Math.min(member.length, folder.segmentCount());
+			for (int i = 0; i < count; i++) {
+				if (member[i] == GLOBSTAR)
+					return true;
+				if (!matchesSegment(member[i], folder.segment(i)))
+					continue outer;
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private static void addFolder(Set<IPath> folders, IPath location, String folder) {
+		if (folder == null || folder.isEmpty())
+			return;
+
+		IPath path = new Path(folder);
+		if (path.isAbsolute() || path.getDevice() != null) {
+			if (location == null || !location.isPrefixOf(path))
+				return;
+			path = path.removeFirstSegments(location.segmentCount()).setDevice(null);
+		}
+		path = path.makeRelative().removeTrailingSeparator();
+		if (!path.isEmpty() && !"..".equals(path.segment(0))) { //$NON-NLS-1$
+			folders.add(path);
+		}
+	}
+
+	/**
+	 * Parses the patterns of a <code>.gitignore</code> file. Patterns that
+	 * re-include a file in an excluded folder have no effect, which is consistent
+	 * with git.
+	 */
+	private static List<IgnoreRule> parseIgnoreRules(String content) {
+		final List<IgnoreRule> rules = new ArrayList<>();
+		for (String line : content.split("\r?\n")) { //$NON-NLS-1$
+			String pattern = line.stripTrailing();
+			if (pattern.isEmpty() || pattern.startsWith("#")) //$NON-NLS-1$
+				continue;
+
+			boolean negated = false;
+			if (pattern.startsWith("!")) { //$NON-NLS-1$
+				negated = true;
+				pattern = pattern.substring(1);
+			} else if (pattern.startsWith("\\")) { //$NON-NLS-1$
+				pattern = pattern.substring(1);
+			}
+			boolean foldersOnly = false;
+			if (pattern.endsWith("/**")) { //$NON-NLS-1$
+				// everything within a folder, pruning the folder has the same effect
+				pattern = pattern.substring(0, pattern.length() - 3);
+				foldersOnly = true;
+			}
+			if (pattern.endsWith("/")) { //$NON-NLS-1$
+				pattern = pattern.substring(0, pattern.length() - 1);
+				foldersOnly = true;
+			}
+			if (pattern.startsWith("**/")) { //$NON-NLS-1$
+				pattern = pattern.substring(3);
+				if (pattern.indexOf('/') >= 0) {
+					pattern = "**/" + pattern; //$NON-NLS-1$
+				}
+			}
+			if (pattern.isEmpty())
+				continue;
+
+			final boolean anchored = pattern.indexOf('/') >= 0;
+			rules.add(new IgnoreRule(negated, foldersOnly, anchored, compileSegments(new Path(pattern).makeRelative())));
+		}
+		return rules;
+	}
+
+	private static Object[] compileSegments(IPath pattern) {
+		final Object[] segments = new Object[pattern.segmentCount()];
+		for (int i = 0; i < segments.length; i++) {
+			segments[i] = compileSegment(pattern.segment(i));
+		}
+		return segments;
+	}
+
+	private static Object compileSegment(String segment) {
+		if (segment.equals(GLOBSTAR))
+			return GLOBSTAR;
+		if (segment.indexOf('*') < 0 && segment.indexOf('?') < 0 && segment.indexOf('[') < 0)
+			return segment;
+
+		final StringBuilder regex = new StringBuilder();
+		int literal = 0;
+		for (int i = 0; i < segment.length(); i++) {
+			final char c = segment.charAt(i);
+			if (c == '*' || c == '?' || c == '[') {
+				if (literal < i) {
+					regex.append(Pattern.quote(segment.substring(literal, i)));
+				}
+				if (c == '*') {
+					regex.append(".*"); //$NON-NLS-1$
+				} else if (c == '?') {
+					regex.append('.');
+				} else {
+					final int end = segment.indexOf(']', i + 2);
+					if (end < 0) {
+						regex.append("\\["); //$NON-NLS-1$
+					} else {
+						String set = segment.substring(i + 1, end).replace("\\", "\\\\"); //$NON-NLS-1$ //$NON-NLS-2$
+						if (set.startsWith("!")) { //$NON-NLS-1$
+							set = '^' + set.substring(1);
+						}
+						regex.append('[').append(set).append(']');
+						i = end;
+					}
+				}
+				literal = i + 1;
+			}
+		}
+		if (literal < segment.length()) {
+			regex.append(Pattern.quote(segment.substring(literal)));
+		}
+		return Pattern.compile(regex.toString());
+	}
+
+	private static boolean matchesSegment(Object pattern, String segment) {
+		if (pattern instanceof Pattern regex)
+			return regex.matcher(segment).matches();
+		return pattern.equals(segment);
+	}
+
+	/**
+	 * Reads the keys of a TOML document as far as needed for the scope. Returns a
+	 * map from the dotted keys, including their table, to the unparsed values.
+	 * Multi-line arrays are joined into a single value.
+	 */
+	static Map<String, String> readToml(String content) {
+		final Map<String, String> result = new HashMap<>();
+		String table = ""; //$NON-NLS-1$
+		String key = null;
+		StringBuilder value = null;
+		for (String line : content.split("\r?\n")) { //$NON-NLS-1$
+			line = stripComment(line).strip();
+			if (value != null) {
+				// continuation of an array
+				value.append(' ').append(line);
+				if (isComplete(value)) {
+					result.put(key, value.toString());
+					value = null;
+				}
+				continue;
+			}
+			if (line.isEmpty())
+				continue;
+			if (line.startsWith("[")) { //$NON-NLS-1$
+				table = unquoteKey(line.replaceAll("^\\[+|\\]+$", "")) + '.'; //$NON-NLS-1$ //$NON-NLS-2$
+				continue;
+			}
+			final int eq = line.indexOf('=');
+			if (eq < 0)
+				continue;
+			key = table + unquoteKey(line.substring(0, eq));
+			value = new StringBuilder(line.substring(eq + 1).strip());
+			if (isComplete(value)) {
+				result.put(key, value.toString());
+				value = null;
+			}
+		}
+		return result;
+	}
+
+	private static String unquoteKey(String key) {
+		final StringBuilder result = new StringBuilder();
+		for (String part : key.split("\\.")) { //$NON-NLS-1$
+			if (!result.isEmpty()) {
+				result.append('.');
+			}
+			result.append(part.strip().replaceAll("^[\"']|[\"']$", "")); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return result.toString();
+	}
+
+	private static String stripComment(String line) {
+		char quote = 0;
+		for (int i = 0; i < line.length(); i++) {
+			final char c = line.charAt(i);
+			if (quote != 0) {
+				if (c == '\\' && quote == '"') {
+					i++;
+				} else if (c == quote) {
+					quote = 0;
+				}
+			} else if (c == '"' || c == '\'') {
+				quote = c;
+			} else if (c == '#') {
+				return line.substring(0, i);
+			}
+		}
+		return line;
+	}
+
+	private static boolean isComplete(CharSequence value) {
+		if (value.length() == 0 || value.charAt(0) != '[')
+			return true;
+		int depth = 0;
+		char quote = 0;
+		for (int i = 0; i < value.length(); i++) {
+			final char c = value.charAt(i);
+			if (quote != 0) {
+				if (c == quote) {
+					quote = 0;
+				}
+			} else if (c == '"' || c == '\'') {
+				quote = c;
+			} else if (c == '[') {
+				depth++;
+			} else if (c == ']' && --depth == 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the string of a TOML value, or <code>null</code> if it is not a
+	 * string.
+	 */
+	static String parseString(String value) {
+		if (value == null || value.length() < 2)
+			return null;
+		final char quote = value.charAt(0);
+		if ((quote != '"' && quote != '\'') || value.charAt(value.length() - 1) != quote)
+			return null;
+		return value.substring(1, value.length() - 1);
+	}
+
+	/**
+	 * Returns the strings of a TOML array, or <code>null</code> if the value is not
+	 * an array.
+	 */
+	static List<String> parseStringArray(String value) {
+		if (value == null || !value.startsWith("[") || !value.endsWith("]")) //$NON-NLS-1$ //$NON-NLS-2$
+			return null;
+		final List<String> result = new ArrayList<>();
+		for (String element : value.substring(1, value.length() - 1).split(",")) { //$NON-NLS-1$
+			final String string = parseString(element.strip());
+			if (string != null) {
+				result.add(string);
+			}
+		}
+		return result;
+	}
+}
@@ -35,6 +35,11 @@ abstract class LocationAdapter<T> {
 
 	public abstract T getLocation(IFile file);
 
+	/**
+	 * Returns the location as a file system path, or <code>null</code>.
+	 */
+	public abstract IPath toPath(T location);
+
 	public static final LocationAdapter<IPath> PATH = new LocationAdapter<>() {
 		@Override
 		public String extractName(IPath location) {
@@ -59,6 +64,11 @@ abstract class LocationAdapter<T> {
 		public IPath getLocation(IFile file) {
 			return file.getLocation();
 		}
+
+		@Override
+		public IPath toPath(IPath location) {
+			return location;
+		}
 	};
 
 	public static final LocationAdapter<URI> URI = new LocationAdapter<>() {
@@ -87,5 +97,10 @@ abstract class LocationAdapter<T> {
 		public URI getLocation(IFile file) {
 			return file.getLocationURI();
 		}
+
+		@Override
+		public IPath toPath(URI location) {
+			return URIUtil.toPath(location);
+		}
 	};
 }
@@ -0,0 +1,607 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.resources;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Storage for the nodes of the resource lookup tree. Instead of an object per
+ * node the nodes are stored as parallel arrays and are addressed by their index:
+ * the index of the parent node, the id of the name, flags and the cached hash of
+ * the canonical location. Node {@link #ROOT} is the workspace root.
+ *
+ * Names are interned in a pool that stores all names in a single byte array,
+ * file names such as <code>mod.rs</code>, <code>lib.rs</code> or
+ * <code>Cargo.toml</code> are therefore stored once, only. As for
+ * {@link String} names consisting of latin-1 characters need a single byte per
+ * character. There is no separate table for interning, nodes with the same name
+ * are found via the hash-code of their name.
+ *
+ * A {@link NodeTable} maps the hash-code of a name to the nodes with that name.
+ * Removed nodes stay in the arrays until {@link #compact()} is called. Nodes
+ * are only ever appended, hence parents always precede their children.
+ *
+ * The class is not thread-safe, however an arena that is no longer modified can
+ * be read concurrently. Use {@link #copy()} to modify an arena that is shared
+ * with readers.
+ */
+final class NodeArena {
+	static final int ROOT = 0;
+
+	// flags that are persisted as they are
+	static final byte FILE_LOCATION_NAME = ResourceLookupSnapshot.FLAG_FILE_LOCATION_NAME;
+	static final byte FILE_LINK_TARGET = ResourceLookupSnapshot.FLAG_FILE_LINK_TARGET;
+	static final byte LINKED = ResourceLookupSnapshot.FLAG_LINKED;
+	private static final byte HAS_CHILDREN = 0x4;
+	private static final byte DELETED = 0x8;
+	// whether the file is a symbolic link is determined on demand
+	private static final byte SYMBOLIC_LINK_KNOWN = 0x20;
+	private static final byte SYMBOLIC_LINK = 0x40;
+
+	private static final int MIN_NODES = 16;
+	private static final int MIN_NAME_BYTES = 256;
+
+	// nodes
+	private int[] fParents;
+	private int[] fNameIds;
+	private byte[] fFlags;
+	private int[] fCanonicHashes;
+	private int fNodeCount;
+	private int fGarbage;
+	private NodeTable fTable;
+
+	// name pool, fNameStarts[i] is the offset of name i shifted left by one, the
+	// lowest bit is set for names stored with two bytes per character. Name i ends
+	// where name i+1 starts.
+	private byte[] fNameBytes;
+	private int fNameByteCount;
+	private int[] fNameStarts;
+	private int fNameCount;
+
+	NodeArena() {
+		fParents = new int[MIN_NODES];
+		fNameIds = new int[MIN_NODES];
+		fFlags = new byte[MIN_NODES];
+		fCanonicHashes = new int[MIN_NODES];
+		fTable = new NodeTable();
+		fNameBytes = new byte[MIN_NAME_BYTES];
+		fNameStarts = new int[MIN_NODES + 1];
+
+		// the root node
+		fParents[ROOT] = -1;
+		fNameIds[ROOT] = appendName(ResourceLookupTree.EMPTY);
+		fNodeCount = 1;
+	}
+
+	/**
+	 * Returns a copy of this arena.
+	 */
+	NodeArena copy() {
+		return new NodeArena(this);
+	}
+
+	private NodeArena(NodeArena other) {
+		fParents = other.fParents.clone();
+		fNameIds = other.fNameIds.clone();
+		fFlags = other.fFlags.clone();
+		fCanonicHashes = other.fCanonicHashes.clone();
+		fNodeCount = other.fNodeCount;
+		fGarbage = other.fGarbage;
+		fTable = other.fTable.copy();
+		fNameBytes = other.fNameBytes.clone();
+		fNameByteCount = other.fNameByteCount;
+		fNameStarts = other.fNameStarts.clone();
+		fNameCount = other.fNameCount;
+	}
+
+	/**
+	 * Computes a case insensitive hash-code for file names.
+	 */
+	static int hashCode(char[] name) {
+		int h = 0;
+		final int len = name.length;
+		for (int i = 0; i < len; i++) {
+			h = 31 * h + Character.toUpperCase(name[i]);
+		}
+		return h;
+	}
+
+	/**
+	 * Returns the number of nodes that can be found via their name, the root is
+	 * not counted.
+	 */
+	int size() {
+		return fTable.size();
+	}
+
+	/**
+	 * Returns the number of nodes in the arrays, including the root and removed
+	 * nodes.
+	 */
+	int getNodeCount() {
+		return fNodeCount;
+	}
+
+	/**
+	 * Returns whether removed nodes take up a considerable part of the arena.
+	 */
+	boolean hasExcessGarbage() {
+		return fGarbage > MIN_NODES && 4 * fGarbage > fNodeCount;
+	}
+
+	/**
+	 * Returns the index of the first entry for the given name hash, or -1. The
+	 * entries of a name hash are traversed via {@link #next(int)} and resolved
+	 * with {@link #node(int)}.
+	 */
+	int first(int hash) {
+		return fTable.first(hash);
+	}
+
+	int next(int entry) {
+		return fTable.next(entry);
+	}
+
+	int node(int entry) {
+		return fTable.value(entry);
+	}
+
+	/**
+	 * Returns the nodes for the given name hash, in the order they were added.
+	 */
+	int[] get(int hash) {
+		return fTable.get(hash);
+	}
+
+	int parent(int node) {
+		return fParents[node];
+	}
+
+	boolean hasFileLocationName(int node) {
+		return (fFlags[node] & FILE_LOCATION_NAME) != 0;
+	}
+
+	boolean isFileLinkTarget(int node) {
+		return (fFlags[node] & FILE_LINK_TARGET) != 0;
+	}
+
+	/**
+	 * Returns whether the file of the node is a linked resource. Nodes of link
+	 * targets are always linked.
+	 */
+	boolean isLinked(int node) {
+		return (fFlags[node] & (LINKED | FILE_LINK_TARGET)) != 0;
+	}
+
+	/**
+	 * Returns whether the file of the node is a symbolic link, or
+	 * <code>null</code> if that has not been determined yet.
+	 */
+	Boolean isSymbolicLink(int node) {
+		final byte flags = fFlags[node];
+		if ((flags & SYMBOLIC_LINK_KNOWN) == 0)
+			return null;
+		return Boolean.valueOf((flags & SYMBOLIC_LINK) != 0);
+	}
+
+	/**
+	 * Records whether the file of the node is a symbolic link. Unlike other
+	 * modifications this may be done on an arena that is shared with readers:
+	 * concurrent calls record the same information, and a copy that misses it
+	 * determines it again.
+	 */
+	void setSymbolicLink(int node, boolean symbolicLink) {
+		fFlags[node] |= SYMBOLIC_LINK_KNOWN | (symbolicLink ? SYMBOLIC_LINK : 0);
+	}
+
+	boolean hasChildren(int node) {
+		return (fFlags[node] & HAS_CHILDREN) != 0;
+	}
+
+	boolean isDeleted(int node) {
+		return (fFlags[node] & DELETED) != 0;
+	}
+
+	/**
+	 * Returns the flags of the node that are persisted, see
+	 * {@link #FILE_LOCATION_NAME}, {@link #FILE_LINK_TARGET} and {@link #LINKED}.
+	 */
+	byte getFlags(int node) {
+		return (byte) (fFlags[node] & (FILE_LOCATION_NAME | FILE_LINK_TARGET | LINKED));
+	}
+
+	int getCanonicHash(int node) {
+		return fCanonicHashes[node];
+	}
+
+	void setCanonicHash(int node, int hash) {
+		fCanonicHashes[node] = hash;
+	}
+
+	int getNameLength(int node) {
+		final int id = fNameIds[node];
+		final int start = fNameStarts[id];
+		return ((fNameStarts[id + 1] >>> 1) - (start >>> 1)) >> (start & 1);
+	}
+
+	char getNameChar(int node, int i) {
+		final int start = fNameStarts[fNameIds[node]];
+		return charAt(start >>> 1, (start & 1) != 0, i);
+	}
+
+	char[] getName(int node) {
+		return getNameOfId(fNameIds[node]);
+	}
+
+	private char[] getNameOfId(int id) {
+		final int start = fNameStarts[id];
+		final boolean wide = (start & 1) != 0;
+		final char[] name = new char[((fNameStarts[id + 1] >>> 1) - (start >>> 1)) >> (start & 1)];
+		for (int i = 0; i < name.length; i++) {
+			name[i] = charAt(start >>> 1, wide, i);
+		}
+		return name;
+	}
+
+	String getNameString(int node) {
+		return new String(getName(node));
+	}
+
+	boolean nameEquals(int node, char[] name) {
+		final int id = fNameIds[node];
+		final int start = fNameStarts[id];
+		final int offset = start >>> 1;
+		final boolean wide = (start & 1) != 0;
+		if (((fNameStarts[id + 1] >>> 1) - offset) >> (start & 1) != name.length)
+			return false;
+		for (int i = 0; i < name.length; i++) {
+			if (charAt(offset, wide, i) != name[i])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Appends a node to the arena.
+	 *
+	 * @param hash  the case insensitive hash-code of the name, see
+	 *              {@link #hashCode(char[])}
+	 * @param flags a combination of {@link #FILE_LOCATION_NAME},
+	 *              {@link #FILE_LINK_TARGET} and {@link #LINKED}
+	 * @return the index of the new node
+	 */
+	int add(int parent, char[] name, int hash, byte flags) {
+		final int node = allocateNode(parent, intern(name, hash), flags);
+		fTable.add(hash, node);
+		return node;
+	}
+
+	/**
+	 * Removes the node of the given entry, such that it can no longer be found
+	 * via its name. Descendants of the node are removed by {@link #compact()}.
+	 */
+	void remove(int hash, int entry) {
+		final int node = fTable.value(entry);
+		fTable.remove(hash, entry);
+		fFlags[node] |= DELETED;
+		fGarbage++;
+	}
+
+	/**
+	 * Appends all nodes of the given arena, the children of its root are added as
+	 * children of the root of this arena. Nodes with the same name keep their
+	 * order.
+	 */
+	void addAll(NodeArena other) {
+		final int[] nodeMap = new int[other.fNodeCount];
+		final int[] nameMap = new int[other.fNameCount];
+		Arrays.fill(nameMap, -1);
+		for (int node = ROOT + 1; node < other.fNodeCount; node++) {
+			final int otherId = other.fNameIds[node];
+			int id = nameMap[otherId];
+			if (id < 0) {
+				final char[] name = other.getName(node);
+				id = intern(name, hashCode(name));
+				nameMap[otherId] = id;
+			}
+			nodeMap[node] = allocateNode(nodeMap[other.fParents[node]], id, other.fFlags[node]);
+		}
+		fGarbage += other.fGarbage;
+		fTable.addAll(other.fTable, node -> nodeMap[node]);
+	}
+
+	/**
+	 * Drops removed nodes together with their descendants and names that are no
+	 * longer used. Changes the indices of the remaining nodes.
+	 */
+	void compact() {
+		final int[] parents = fParents;
+		final int[] nameIds = fNameIds;
+		final byte[] flags = fFlags;
+		final int[] canonicHashes = fCanonicHashes;
+		final byte[] nameBytes = fNameBytes;
+		final int[] nameStarts = fNameStarts;
+		final int nodeCount = fNodeCount;
+
+		fParents = new int[Math.max(MIN_NODES, nodeCount - fGarbage)];
+		fNameIds = new int[fParents.length];
+		fFlags = new byte[fParents.length];
+		fCanonicHashes = new int[fParents.length];
+		fNodeCount = 0;
+		fGarbage = 0;
+		fNameBytes = new byte[Math.max(MIN_NAME_BYTES, fNameByteCount)];
+		fNameByteCount = 0;
+		fNameStarts = new int[fNameCount + 2];
+		final int[] nameMap = new int[fNameCount];
+		Arrays.fill(nameMap, -1);
+		fNameCount = 0;
+
+		// parents precede their children, a single pass finds all descendants of
+		// removed nodes
+		final int[] nodeMap = new int[nodeCount];
+		for (int node = ROOT; node < nodeCount; node++) {
+			final int parent = parents[node];
+			if ((flags[node] & DELETED) != 0 || (parent >= 0 && nodeMap[parent] < 0)) {
+				nodeMap[node] = -1;
+				continue;
+			}
+			final int oldId = nameIds[node];
+			int id = nameMap[oldId];
+			if (id < 0) {
+				final int start = nameStarts[oldId];
+				id = appendName(nameBytes, start >>> 1, nameStarts[oldId + 1] >>> 1, (start & 1) != 0);
+				nameMap[oldId] = id;
+			}
+			nodeMap[node] = allocateNode(parent < 0 ? -1 : nodeMap[parent], id, flags[node]);
+			fCanonicHashes[nodeMap[node]] = canonicHashes[node];
+		}
+		fTable.removeIf(node -> nodeMap[node] < 0);
+		fTable.replaceAll(node -> nodeMap[node]);
+	}
+
+	/**
+	 * Returns a snapshot of the nodes that can be found via their name, parents
+	 * precede their children. The snapshot keeps the names of these nodes only.
+	 */
+	ResourceLookupSnapshot createSnapshot(int settingsHash, Map<String, Long> projectStamps) {
+		final int[] parents = new int[fTable.size()];
+		final int[] nameIds = new int[parents.length];
+		final byte[] flags = new byte[parents.length];
+		final byte[] nameBytes = new byte[fNameByteCount];
+		final int[] nameStarts = new int[fNameCount + 1];
+		final int[] nameMap = new int[fNameCount];
+		Arrays.fill(nameMap, -1);
+		// the index of each node in the snapshot, -1 if it is left out
+		final int[] indices = new int[fNodeCount];
+		Arrays.fill(indices, -1);
+		fTable.forEach(node -> indices[node] = 0);
+		int count = 0;
+		int nameCount = 0;
+		int byteCount = 0;
+		for (int node = ROOT + 1; node < fNodeCount; node++) {
+			final int parent = fParents[node];
+			// descendants of removed nodes are left out as well
+			if (indices[node] < 0 || (parent != ROOT && indices[parent] < 0)) {
+				indices[node] = -1;
+				continue;
+			}
+			final int oldId = fNameIds[node];
+			if (nameMap[oldId] < 0) {
+				final int start = fNameStarts[oldId];
+				final int length = (fNameStarts[oldId + 1] >>> 1) - (start >>> 1);
+				System.arraycopy(fNameBytes, start >>> 1, nameBytes, byteCount, length);
+				nameStarts[nameCount] = (byteCount << 1) | (start & 1);
+				byteCount += length;
+				nameMap[oldId] = nameCount++;
+			}
+			parents[count] = parent == ROOT ? -1 : indices[parent];
+			nameIds[count] = nameMap[oldId];
+			flags[count] = getFlags(node);
+			indices[node] = count++;
+		}
+		nameStarts[nameCount] = byteCount << 1;
+		return new ResourceLookupSnapshot(settingsHash, projectStamps, Arrays.copyOf(parents, count),
+				Arrays.copyOf(nameIds, count), Arrays.copyOf(flags, count), Arrays.copyOf(nameBytes, byteCount),
+				Arrays.copyOf(nameStarts, nameCount + 1));
+	}
+
+	/**
+	 * Creates an arena of the nodes of the given snapshot, which takes over its
+	 * name pool as it is. The projects, i.e. the children of the root, that the
+	 * given predicate rejects are left out together with their descendants.
+	 */
+	static NodeArena restore(ResourceLookupSnapshot snapshot, Predicate<String> projects) {
+		final NodeArena arena = new NodeArena();
+		final int nodeCount = snapshot.getNodeCount();
+		final int nameCount = snapshot.getNameCount();
+		final int byteBase = arena.fNameByteCount;
+		final int idBase = arena.fNameCount;
+		arena.fNameBytes = Arrays.copyOf(arena.fNameBytes,
+				Math.max(MIN_NAME_BYTES, byteBase + snapshot.fNameBytes.length));
+		System.arraycopy(snapshot.fNameBytes, 0, arena.fNameBytes, byteBase, snapshot.fNameBytes.length);
+		arena.fNameByteCount = byteBase + snapshot.fNameBytes.length;
+		arena.fNameStarts = Arrays.copyOf(arena.fNameStarts, Math.max(MIN_NODES, idBase + nameCount) + 1);
+		for (int id = 0; id <= nameCount; id++) {
+			final int start = snapshot.fNameStarts[id];
+			arena.fNameStarts[idBase + id] = (((start >>> 1) + byteBase) << 1) | (start & 1);
+		}
+		arena.fNameCount = idBase + nameCount;
+		final int[] hashes = new int[nameCount];
+		for (int id = 0; id < nameCount; id++) {
+			hashes[id] = arena.hashCodeOfName(idBase + id);
+		}
+
+		final int capacity = Math.max(MIN_NODES, nodeCount + 1);
+		arena.fParents = Arrays.copyOf(arena.fParents, capacity);
+		arena.fNameIds = Arrays.copyOf(arena.fNameIds, capacity);
+		arena.fFlags = Arrays.copyOf(arena.fFlags, capacity);
+		arena.fCanonicHashes = Arrays.copyOf(arena.fCanonicHashes, capacity);
+		final int[] nodes = new int[nodeCount];
+		for (int i = 0; i < nodeCount; i++) {
+			final int parentIndex = snapshot.fParents[i];
+			final int nameId = snapshot.fNameIds[i];
+			final int parent;
+			if (parentIndex < 0) {
+				parent = projects.test(new String(arena.getNameOfId(idBase + nameId))) ? ROOT : -1;
+			} else {
+				parent = nodes[parentIndex];
+			}
+			if (parent < 0) {
+				nodes[i] = -1;
+				continue;
+			}
+			nodes[i] = arena.allocateNode(parent, idBase + nameId, snapshot.fFlags[i]);
+			arena.fTable.add(hashes[nameId], nodes[i]);
+		}
+		return arena;
+	}
+
+	/**
+	 * Returns the number of nodes in the subtree of each node, including the node
+	 * itself. Removed nodes are not counted.
+	 */
+	int[] getSubtreeSizes() {
+		final int[] sizes = new int[fNodeCount];
+		fTable.forEach(node -> sizes[node] = 1);
+		for (int node = fNodeCount - 1; node > ROOT; node--) {
+			sizes[fParents[node]] += sizes[node];
+		}
+		return sizes;
+	}
+
+	/**
+	 * Performs the given action for each node that can be found via its name.
+	 */
+	void forEach(IntConsumer action) {
+		fTable.forEach(action);
+	}
+
+	/**
+	 * Performs the given action for each node that can be found via its name, such
+	 * that parents are processed before their children.
+	 */
+	void forEachInOrder(IntConsumer action) {
+		final boolean[] live = new boolean[fNodeCount];
+		fTable.forEach(node -> live[node] = true);
+		for (int node = ROOT + 1; node < fNodeCount; node++) {
+			if (live[node]) {
+				action.accept(node);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of bytes used by the arrays of the arena.
+	 */
+	long footprint() {
+		final int capacity = fParents.length;
+		return NodeTable.arrayBytes(capacity, 4) * 3 + NodeTable.arrayBytes(capacity, 1)
+				+ NodeTable.arrayBytes(fNameBytes.length, 1) + NodeTable.arrayBytes(fNameStarts.length, 4)
+				+ fTable.footprint();
+	}
+
+	private int allocateNode(int parent, int nameId, byte flags) {
+		if (fNodeCount == fParents.length) {
+			final int newLength = fNodeCount + (fNodeCount >> 1);
+			fParents = Arrays.copyOf(fParents, newLength);
+			fNameIds = Arrays.copyOf(fNameIds, newLength);
+			fFlags = Arrays.copyOf(fFlags, newLength);
+			fCanonicHashes = Arrays.copyOf(fCanonicHashes, newLength);
+		}
+		final int node = fNodeCount++;
+		fParents[node] = parent;
+		fNameIds[node] = nameId;
+		fFlags[node] = (byte) (flags & ~HAS_CHILDREN);
+		if (parent >= 0) {
+			fFlags[parent] |= HAS_CHILDREN;
+		}
+		return node;
+	}
+
+	/**
+	 * Returns the id of the given name, adds the name to the pool if no node with
+	 * that name exists.
+	 */
+	private int intern(char[] name, int hash) {
+		for (int e = fTable.first(hash); e >= 0; e = fTable.next(e)) {
+			final int node = fTable.value(e);
+			if (nameEquals(node, name))
+				return fNameIds[node];
+		}
+		return appendName(name);
+	}
+
+	private int appendName(char[] name) {
+		boolean wide = false;
+		for (char c : name) {
+			if (c > 0xff) {
+				wide = true;
+				break;
+			}
+		}
+		final int offset = reserveName(wide ? 2 * name.length : name.length, wide);
+		for (int i = 0; i < name.length; i++) {
+			final char c = name[i];
+			if (wide) {
+				fNameBytes[offset + 2 * i] = (byte) (c >> 8);
+				fNameBytes[offset + 2 * i + 1] = (byte) c;
+			} else {
+				fNameBytes[offset + i] = (byte) c;
+			}
+		}
+		return fNameCount - 1;
+	}
+
+	private int appendName(byte[] bytes, int from, int to, boolean wide) {
+		final int offset = reserveName(to - from, wide);
+		System.arraycopy(bytes, from, fNameBytes, offset, to - from);
+		return fNameCount - 1;
+	}
+
+	/**
+	 * Adds a name of the given number of bytes to the pool and returns the offset
+	 * to store its bytes at.
+	 */
+	private int reserveName(int length, boolean wide) {
+		if (fNameByteCount + length > fNameBytes.length) {
+			fNameBytes = Arrays.copyOf(fNameBytes,
+					Math.max(fNameByteCount + length, fNameBytes.length + (fNameBytes.length >> 1)));
+		}
+		if (fNameCount + 2 > fNameStarts.length) {
+			fNameStarts = Arrays.copyOf(fNameStarts, fNameStarts.length + (fNameStarts.length >> 1));
+		}
+		final int offset = fNameByteCount;
+		fNameStarts[fNameCount++] = (offset << 1) | (wide ? 1 : 0);
+		fNameByteCount += length;
+		fNameStarts[fNameCount] = fNameByteCount << 1;
+		return offset;
+	}
+
+	private int hashCodeOfName(int id) {
+		final int start = fNameStarts[id];
+		final boolean wide = (start & 1) != 0;
+		final int length = ((fNameStarts[id + 1] >>> 1) - (start >>> 1)) >> (start & 1);
+		int h = 0;
+		for (int i = 0; i < length; i++) {
+			h = 31 * h + Character.toUpperCase(charAt(start >>> 1, wide, i));
+		}
+		return h;
+	}
+
+	private char charAt(int offset, boolean wide, int i) {
+		if (wide)
+			return (char) (((fNameBytes[offset + 2 * i] & 0xff) << 8) | (fNameBytes[offset + 2 * i + 1] & 0xff));
+		return (char) (fNameBytes[offset + i] & 0xff);
+	}
+}
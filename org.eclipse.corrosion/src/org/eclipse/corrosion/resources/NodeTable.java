@@ -0,0 +1,349 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.resources;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Open addressing hash table from an int key (the hash-code of a file-name) to
+ * the int values (node indices) stored for that key. Keys are kept as raw ints
+ * and are probed linearly, values with the same key are chained through an int
+ * array. Hence neither keys, values nor collision lists need boxing or extra
+ * objects.
+ *
+ * Each slot also keeps the last entry of its chain, so that appending to a chain
+ * takes constant time however many files share a name.
+ *
+ * Entries are addressed by their index, the chain of a key is traversed via
+ * {@link #first(int)} and {@link #next(int)}. The class is not thread-safe,
+ * however a table that is no longer modified can be read concurrently. Use
+ * {@link #copy()} to modify a table that is shared with readers.
+ */
+final class NodeTable {
+	private static final int NONE = -1;
+	private static final int MIN_SLOTS = 64;
+	private static final int MIN_ENTRIES = 16;
+
+	// slots, fHeads[i] contains the index of the first entry + 1, 0 for a free slot,
+	// fTails[i] the index of the last entry + 1
+	private int[] fKeys;
+	private int[] fHeads;
+	private int[] fTails;
+	private int fUsedSlots;
+	private int fShift;
+
+	// entries, fNext[e] contains the index of the next entry + 1, 0 for the end of
+	// the chain. Unused entries are linked via fNext starting at fFreeEntry.
+	private int[] fValues;
+	private int[] fNext;
+	private int fEntryCount;
+	private int fFreeEntry = NONE;
+	private int fSize;
+
+	NodeTable() {
+		clear();
+	}
+
+	void clear() {
+		fKeys = new int[MIN_SLOTS];
+		fHeads = new int[MIN_SLOTS];
+		fTails = new int[MIN_SLOTS];
+		fShift = 32 - Integer.numberOfTrailingZeros(MIN_SLOTS);
+		fUsedSlots = 0;
+		fValues = new int[MIN_ENTRIES];
+		fNext = new int[MIN_ENTRIES];
+		fEntryCount = 0;
+		fFreeEntry = NONE;
+		fSize = 0;
+	}
+
+	/**
+	 * Returns a copy of this table.
+	 */
+	NodeTable copy() {
+		return new NodeTable(this);
+	}
+
+	private NodeTable(NodeTable other) {
+		fKeys = other.fKeys.clone();
+		fHeads = other.fHeads.clone();
+		fTails = other.fTails.clone();
+		fUsedSlots = other.fUsedSlots;
+		fShift = other.fShift;
+		fValues = other.fValues.clone();
+		fNext = other.fNext.clone();
+		fEntryCount = other.fEntryCount;
+		fFreeEntry = other.fFreeEntry;
+		fSize = other.fSize;
+	}
+
+	/**
+	 * Returns the number of values stored in the table.
+	 */
+	int size() {
+		return fSize;
+	}
+
+	/**
+	 * Returns the index of the first entry for the given key, or -1.
+	 */
+	int first(int key) {
+		final int slot = findSlot(key);
+		return slot < 0 ? NONE : fHeads[slot] - 1;
+	}
+
+	/**
+	 * Returns the index of the entry following the given one in its chain, or -1.
+	 */
+	int next(int entry) {
+		return fNext[entry] - 1;
+	}
+
+	/**
+	 * Returns the value stored in the given entry.
+	 */
+	int value(int entry) {
+		return fValues[entry];
+	}
+
+	/**
+	 * Returns all values stored for the given key, in insertion order.
+	 */
+	int[] get(int key) {
+		int count = 0;
+		final int head = first(key);
+		for (int e = head; e >= 0; e = next(e)) {
+			count++;
+		}
+		final int[] result = new int[count];
+		count = 0;
+		for (int e = head; e >= 0; e = next(e)) {
+			result[count++] = fValues[e];
+		}
+		return result;
+	}
+
+	/**
+	 * Appends a value to the chain of the given key.
+	 */
+	void add(int key, int value) {
+		final int slot = findSlot(key);
+		final int entry = allocateEntry(value);
+		if (slot >= 0) {
+			fNext[fTails[slot] - 1] = entry + 1;
+			fTails[slot] = entry + 1;
+			return;
+		}
+		if (3 * (fUsedSlots + 1) > 2 * fKeys.length) {
+			rehash(fKeys.length * 2);
+		}
+		int free = home(key);
+		while (fHeads[free] != 0) {
+			free = (free + 1) & (fKeys.length - 1);
+		}
+		fKeys[free] = key;
+		fHeads[free] = entry + 1;
+		fTails[free] = entry + 1;
+		fUsedSlots++;
+	}
+
+	/**
+	 * Appends all values of the given table after applying the mapping to them,
+	 * chains keep their order.
+	 */
+	void addAll(NodeTable other, IntUnaryOperator mapping) {
+		for (int slot = 0; slot < other.fKeys.length; slot++) {
+			int e = other.fHeads[slot] - 1;
+			if (e < 0)
+				continue;
+
+			final int key = other.fKeys[slot];
+			for (; e >= 0; e = other.fNext[e] - 1) {
+				add(key, mapping.applyAsInt(other.fValues[e]));
+			}
+		}
+	}
+
+	/**
+	 * Removes the given entry from the chain of the given key.
+	 */
+	void remove(int key, int entry) {
+		final int slot = findSlot(key);
+		if (slot < 0)
+			return;
+
+		int e = fHeads[slot] - 1;
+		if (e == entry) {
+			if (fNext[e] == 0) {
+				deleteSlot(slot);
+			} else {
+				fHeads[slot] = fNext[e];
+			}
+			freeEntry(e);
+			return;
+		}
+		for (int n = fNext[e] - 1; n >= 0; e = n, n = fNext[n] - 1) {
+			if (n == entry) {
+				fNext[e] = fNext[n];
+				if (fTails[slot] == n + 1) {
+					fTails[slot] = e + 1;
+				}
+				freeEntry(n);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Removes all values that satisfy the given predicate. The table is rebuilt
+	 * from the surviving values, chains keep their order.
+	 */
+	void removeIf(IntPredicate filter) {
+		final int[] keys = fKeys;
+		final int[] heads = fHeads;
+		final int[] values = fValues;
+		final int[] next = fNext;
+		final int size = fSize;
+		clear();
+		if (size > MIN_ENTRIES) {
+			fValues = new int[size];
+			fNext = new int[size];
+		}
+		for (int slot = 0; slot < keys.length; slot++) {
+			for (int e = heads[slot] - 1; e >= 0; e = next[e] - 1) {
+				final int value = values[e];
+				if (!filter.test(value)) {
+					add(keys[slot], value);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Performs the given action for each value in the table.
+	 */
+	void forEach(IntConsumer action) {
+		for (int slot = 0; slot < fKeys.length; slot++) {
+			for (int e = fHeads[slot] - 1; e >= 0; e = fNext[e] - 1) {
+				action.accept(fValues[e]);
+			}
+		}
+	}
+
+	/**
+	 * Replaces each value by the result of applying the mapping to it.
+	 */
+	void replaceAll(IntUnaryOperator mapping) {
+		for (int slot = 0; slot < fKeys.length; slot++) {
+			for (int e = fHeads[slot] - 1; e >= 0; e = fNext[e] - 1) {
+				fValues[e] = mapping.applyAsInt(fValues[e]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of bytes used by the arrays of the table.
+	 */
+	long footprint() {
+		return arrayBytes(fKeys.length, 4) * 3 + arrayBytes(fValues.length, 4) + arrayBytes(fNext.length, 4);
+	}
+
+	static long arrayBytes(int length, int elementSize) {
+		return (16 + (long) length * elementSize + 7) & ~7L;
+	}
+
+	private int home(int key) {
+		return (key * 0x9E3779B9) >>> fShift;
+	}
+
+	private int findSlot(int key) {
+		final int mask = fKeys.length - 1;
+		for (int slot = home(key);; slot = (slot + 1) & mask) {
+			if (fHeads[slot] == 0)
+				return NONE;
+			if (fKeys[slot] == key)
+				return slot;
+		}
+	}
+
+	/**
+	 * Deletes a slot by shifting back the following slots of the same cluster, such
+	 * that lookups never need tombstones.
+	 */
+	private void deleteSlot(int slot) {
+		final int mask = fKeys.length - 1;
+		int free = slot;
+		for (int i = (free + 1) & mask; fHeads[i] != 0; i = (i + 1) & mask) {
+			final int home = home(fKeys[i]);
+			// move the slot unless its home lies cyclically within (free, i]
+			if (free <= i ? (home <= free || home > i) : (home <= free && home > i)) {
+				fKeys[free] = fKeys[i];
+				fHeads[free] = fHeads[i];
+				fTails[free] = fTails[i];
+				free = i;
+			}
+		}
+		fKeys[free] = 0;
+		fHeads[free] = 0;
+		fTails[free] = 0;
+		fUsedSlots--;
+	}
+
+	private void rehash(int newLength) {
+		final int[] keys = fKeys;
+		final int[] heads = fHeads;
+		final int[] tails = fTails;
+		fKeys = new int[newLength];
+		fHeads = new int[newLength];
+		fTails = new int[newLength];
+		fShift = 32 - Integer.numberOfTrailingZeros(newLength);
+		final int mask = newLength - 1;
+		for (int i = 0; i < keys.length; i++) {
+			if (heads[i] != 0) {
+				int slot = home(keys[i]);
+				while (fHeads[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				fKeys[slot] = keys[i];
+				fHeads[slot] = heads[i];
+				fTails[slot] = tails[i];
+			}
+		}
+	}
+
+	private int allocateEntry(int value) {
+		int entry = fFreeEntry;
+		if (entry != NONE) {
+			fFreeEntry = fNext[entry] - 1;
+		} else {
+			if (fEntryCount == fValues.length) {
+				final int newLength = fEntryCount + (fEntryCount >> 1);
+				fValues = Arrays.copyOf(fValues, newLength);
+				fNext = Arrays.copyOf(fNext, newLength);
+			}
+			entry = fEntryCount++;
+		}
+		fValues[entry] = value;
+		fNext[entry] = 0;
+		fSize++;
+		return entry;
+	}
+
+	private void freeEntry(int entry) {
+		fValues[entry] = 0;
+		fNext[entry] = fFreeEntry + 1;
+		fFreeEntry = entry;
+		fSize--;
+	}
+}
@@ -23,8 +23,15 @@ import java.io.IOException;
  * guarantees path uniqueness. File.getAbsolutePath can be used when resolution
  * of symbolic links is undesirable. The default is to use
  * File.getCanonicalPath.
+ *
+ * Canonical paths are cached, see {@link CanonicalPathCache}. Paths within the
+ * workspace are invalidated by resource deltas, others after a few seconds.
  */
 public abstract class PathCanonicalizationStrategy {
+	private static final int CACHE_CAPACITY = 4096;
+	private static final long CACHE_TIME_TO_LIVE = 5000; // 5 s for paths outside of the workspace
+	private static final CanonicalPathCache cache = new CanonicalPathCache(CACHE_CAPACITY, CACHE_TIME_TO_LIVE);
+
 	private static volatile PathCanonicalizationStrategy instance;
 
 	static {
@@ -35,10 +42,62 @@ public abstract class PathCanonicalizationStrategy {
 		return instance.getCanonicalPathInternal(file);
 	}
 
+	/**
+	 * Returns the path that File.getCanonicalPath returns for the file, whatever
+	 * the strategy. E.g. for finding a file by the real case of its name on case
+	 * insensitive file systems. Shares the cache with
+	 * {@link #getCanonicalPath(File)}.
+	 */
+	public static String resolveCanonicalPath(File file) {
+		return cache.get(file.getAbsolutePath(), PathCanonicalizationStrategy::canonicalize);
+	}
+
+	private static String canonicalize(String path) {
+		try {
+			return new File(path).getCanonicalPath();
+		} catch (IOException e) {
+			return path;
+		}
+	}
+
 	public static boolean resolvesSymbolicLinks() {
 		return instance.resolvesSymbolicLinksInternal();
 	}
 
+	/**
+	 * Starts invalidating cached paths upon resource changes.
+	 */
+	public static void startup() {
+		cache.startup();
+	}
+
+	public static void shutdown() {
+		cache.shutdown();
+	}
+
+	/**
+	 * Returns the number of canonical paths that were served from the cache.
+	 */
+	public static long getCacheHitCount() {
+		return cache.getHitCount();
+	}
+
+	/**
+	 * Returns the number of canonical paths that had to be resolved.
+	 */
+	public static long getCacheMissCount() {
+		return cache.getMissCount();
+	}
+
+	/**
+	 * Returns the share of canonical paths served from the cache, between 0 and 1.
+	 */
+	public static double getCacheHitRate() {
+		final long hits = cache.getHitCount();
+		final long total = hits + cache.getMissCount();
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
 	/**
 	 * Sets path canonicalization strategy. If <code>canonicalize</code> is
 	 * <code>true</code>, file paths will be canonicalized by calling
@@ -48,15 +107,12 @@ public abstract class PathCanonicalizationStrategy {
 	 *                     <code>false</code> to use File.getAbsolutePath.
 	 */
 	public static void setPathCanonicalization(boolean canonicalize) {
+		cache.clear();
 		if (canonicalize) {
 			instance = new PathCanonicalizationStrategy() {
 				@Override
 				protected String getCanonicalPathInternal(File file) {
-					try {
-						return file.getCanonicalPath();
-					} catch (IOException e) {
-						return file.getAbsolutePath();
-					}
+					return resolveCanonicalPath(file);
 				}
 
 				@Override
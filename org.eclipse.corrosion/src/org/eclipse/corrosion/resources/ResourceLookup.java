@@ -16,7 +16,8 @@ package org.eclipse.corrosion.resources;
 
 import java.net.URI;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.Map;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -29,11 +30,13 @@ public class ResourceLookup {
 	private static ResourceLookupTree lookupTree = new ResourceLookupTree();
 
 	public static void startup() {
+		PathCanonicalizationStrategy.startup();
 		lookupTree.startup();
 	}
 
 	public static void shutdown() {
 		lookupTree.shutdown();
+		PathCanonicalizationStrategy.shutdown();
 	}
 
 	/**
@@ -70,6 +73,18 @@ public class ResourceLookup {
 		return lookupTree.findFilesForLocation(location);
 	}
 
+	/**
+	 * Same as {@link #findFilesForLocation(IPath)} for several locations at once,
+	 * e.g. the frames of a stack. The index is prepared for all locations
+	 * together, which is cheaper than looking them up one by one.
+	 *
+	 * @return a map from each location to its files, in the order of the
+	 *         locations.
+	 */
+	public static Map<IPath, IFile[]> findFilesForLocations(Collection<IPath> locations) {
+		return lookupTree.findFilesForLocations(locations);
+	}
+
 	/**
 	 * Uses {@link #findFilesForLocationURI(URI)} and selects the most relevant file
 	 * from the result. Files form the first project are preferred, see
@@ -162,17 +177,59 @@ public class ResourceLookup {
 	 * Files of preferred project <br>
 	 */
 	public static void sortFilesByRelevance(IFile[] filesToSort, final IProject preferredProject) {
-		Collections.sort(Arrays.asList(filesToSort), (f1, f2) -> {
-			int r1 = FileRelevance.getRelevance(f1, preferredProject);
-			int r2 = FileRelevance.getRelevance(f2, preferredProject);
+		if (filesToSort.length < 2)
+			return;
+
+		// compute the relevance once per file rather than once per comparison
+		final int[] flags = lookupTree.getRelevanceFlags(filesToSort);
+		final int[] relevance = new int[filesToSort.length];
+		final String[] paths = new String[filesToSort.length];
+		final Integer[] order = new Integer[filesToSort.length];
+		for (int i = 0; i < filesToSort.length; i++) {
+			relevance[i] = FileRelevance.getRelevance(filesToSort[i], preferredProject, flags[i]);
+			paths[i] = filesToSort[i].getFullPath().toString();
+			order[i] = Integer.valueOf(i);
+		}
+		Arrays.sort(order, (i1, i2) -> {
+			int r1 = relevance[i1.intValue()];
+			int r2 = relevance[i2.intValue()];
 
 			if (r1 > r2)
 				return -1;
 			if (r1 < r2)
 				return 1;
 
-			return f1.getFullPath().toString().compareTo(f2.getFullPath().toString());
+			return paths[i1.intValue()].compareTo(paths[i2.intValue()]);
 		});
+		final IFile[] sorted = new IFile[filesToSort.length];
+		for (int i = 0; i < order.length; i++) {
+			sorted[i] = filesToSort[order[i].intValue()];
+		}
+		System.arraycopy(sorted, 0, filesToSort, 0, sorted.length);
+	}
+
+	/**
+	 * Returns the counters of the lookup tree, which are also available via JMX.
+	 */
+	public static ResourceLookupStatistics getStatistics() {
+		return lookupTree.getStatistics();
+	}
+
+	/**
+	 * Returns the number of projects that have been evicted from the lookup tree
+	 * to stay within its memory budget or because they were not queried for a
+	 * while.
+	 */
+	public static int getEvictionCount() {
+		return lookupTree.getEvictionCount();
+	}
+
+	/**
+	 * Returns the number of projects that had to be indexed again after they were
+	 * evicted from the lookup tree.
+	 */
+	public static int getRebuildCount() {
+		return lookupTree.getRebuildCount();
 	}
 
 	/**
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.resources;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Binary image of the resource lookup tree, written when the workspace is saved
+ * and read when the workspace is opened again.
+ *
+ * The names are stored as a pool in the encoding of {@link NodeArena}, a byte
+ * per character for names of latin-1 characters, such that the pool is taken
+ * over by the restored arena as it is. The nodes are stored in an order where
+ * each parent precedes its children. A node is described by the distance to
+ * its parent (0 for the children of the root), the id of its name and its
+ * flags, the numbers are written as variable-length integers. Next to the nodes
+ * the modification stamps of the indexed projects and a hash of the
+ * file-extensions and the scope settings that were used to build the tree are
+ * stored, such that outdated information can be detected.
+ */
+final class ResourceLookupSnapshot {
+	static final byte FLAG_FILE_LOCATION_NAME = 0x1;
+	static final byte FLAG_FILE_LINK_TARGET = 0x2;
+	static final byte FLAG_LINKED = 0x10;
+
+	private static final int MAGIC = 0x43524C54; // CRLT
+	private static final int VERSION = 3;
+
+	final int fSettingsHash;
+	final Map<String, Long> fProjectStamps;
+	// the index of the parent of each node, -1 for the children of the root
+	final int[] fParents;
+	final int[] fNameIds;
+	final byte[] fFlags;
+	// name i starts at fNameStarts[i] >>> 1, the lowest bit is set for names
+	// stored with two bytes per character. Name i ends where name i+1 starts.
+	final byte[] fNameBytes;
+	final int[] fNameStarts;
+
+	ResourceLookupSnapshot(int settingsHash, Map<String, Long> projectStamps, int[] parents, int[] nameIds,
+			byte[] flags, byte[] nameBytes, int[] nameStarts) {
+		fSettingsHash = settingsHash;
+		fProjectStamps = projectStamps;
+		fParents = parents;
+		fNameIds = nameIds;
+		fFlags = flags;
+		fNameBytes = nameBytes;
+		fNameStarts = nameStarts;
+	}
+
+	int getNodeCount() {
+		return fParents.length;
+	}
+
+	int getNameCount() {
+		return fNameStarts.length - 1;
+	}
+
+	void write(File file) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(fSettingsHash);
+			out.writeInt(fProjectStamps.size());
+			for (Map.Entry<String, Long> entry : fProjectStamps.entrySet()) {
+				final byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+				out.writeInt(name.length);
+				out.write(name);
+				out.writeLong(entry.getValue().longValue());
+			}
+			final int nameCount = getNameCount();
+			out.writeInt(nameCount);
+			out.writeInt(fNameBytes.length);
+			for (int i = 0; i < nameCount; i++) {
+				// the length in bytes and whether the name is wide
+				writeVarInt(out, ((fNameStarts[i + 1] & ~1) - (fNameStarts[i] & ~1)) | (fNameStarts[i] & 1));
+			}
+			out.write(fNameBytes);
+			out.writeInt(fParents.length);
+			for (int i = 0; i < fParents.length; i++) {
+				writeVarInt(out, fParents[i] < 0 ? 0 : i - fParents[i]);
+				writeVarInt(out, fNameIds[i]);
+				out.writeByte(fFlags[i]);
+			}
+		}
+	}
+
+	private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7f) != 0) {
+			out.writeByte((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	private static int readVarInt(ByteBuffer buf) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			final byte b = buf.get();
+			value |= (b & 0x7f) << shift;
+			if (b >= 0)
+				return value;
+		}
+		throw new IOException("Corrupt number"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Reads a snapshot from the given file. The file is read at once rather than
+	 * mapped, a mapping would keep it from being deleted on Windows until the
+	 * buffer is garbage collected.
+	 *
+	 * @throws IOException in case the file cannot be read or is corrupt.
+	 */
+	static ResourceLookupSnapshot read(File file) throws IOException {
+		final ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+		try {
+			if (buf.getInt() != MAGIC || buf.getInt() != VERSION)
+				throw new IOException("Unsupported format of " + file); //$NON-NLS-1$
+
+			final int settingsHash = buf.getInt();
+			// a project takes the length of its name and its stamp at least
+			final int projectCount = readCount(buf, 12, file);
+			final Map<String, Long> projectStamps = new LinkedHashMap<>();
+			for (int i = 0; i < projectCount; i++) {
+				final byte[] name = new byte[readCount(buf, 1, file)];
+				buf.get(name);
+				projectStamps.put(new String(name, StandardCharsets.UTF_8), Long.valueOf(buf.getLong()));
+			}
+
+			final int nameCount = readCount(buf, 1, file);
+			final int nameByteCount = readCount(buf, 1, file);
+			final int[] nameStarts = new int[nameCount + 1];
+			int offset = 0;
+			for (int i = 0; i < nameCount; i++) {
+				final int lengthAndWide = readVarInt(buf);
+				nameStarts[i] = offset << 1 | (lengthAndWide & 1);
+				offset += lengthAndWide >>> 1;
+				if (offset > nameByteCount)
+					throw new IOException("Corrupt names in " + file); //$NON-NLS-1$
+			}
+			if (offset != nameByteCount || nameByteCount > buf.remaining())
+				throw new IOException("Corrupt names in " + file); //$NON-NLS-1$
+			final byte[] nameBytes = new byte[nameByteCount];
+			nameStarts[nameCount] = offset << 1;
+			buf.get(nameBytes);
+
+			// a node takes two numbers and its flags at least
+			final int nodeCount = readCount(buf, 3, file);
+			final int[] parents = new int[nodeCount];
+			final int[] nameIds = new int[nodeCount];
+			final byte[] flags = new byte[nodeCount];
+			for (int i = 0; i < nodeCount; i++) {
+				final int distance = readVarInt(buf);
+				final int nameId = readVarInt(buf);
+				if (distance < 0 || distance > i || nameId < 0 || nameId >= nameCount)
+					throw new IOException("Corrupt node in " + file); //$NON-NLS-1$
+				parents[i] = distance == 0 ? -1 : i - distance;
+				nameIds[i] = nameId;
+				flags[i] = buf.get();
+			}
+			return new ResourceLookupSnapshot(settingsHash, projectStamps, parents, nameIds, flags, nameBytes,
+					nameStarts);
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Truncated file " + file, e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Reads the number of the items that follow, which take the given number of
+	 * bytes at least. The number is checked against the remaining bytes, such
+	 * that a corrupt file does not make the reader allocate arbitrary amounts of
+	 * memory.
+	 */
+	private static int readCount(ByteBuffer buf, int minItemBytes, File file) throws IOException {
+		final int count = buf.getInt();
+		if (count < 0 || count > buf.remaining() / minItemBytes)
+			throw new IOException("Corrupt file " + file); //$NON-NLS-1$
+		return count;
+	}
+}
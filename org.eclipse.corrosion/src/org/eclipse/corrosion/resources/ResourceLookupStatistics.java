@@ -0,0 +1,346 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.resources;
+
+import java.lang.management.ManagementFactory;
+import java.util.Hashtable;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.corrosion.CorrosionPlugin;
+import org.eclipse.osgi.service.debug.DebugOptions;
+import org.eclipse.osgi.service.debug.DebugOptionsListener;
+import org.eclipse.osgi.service.debug.DebugTrace;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+
+/**
+ * Counters of the resource lookup tree, see {@link ResourceLookup}. The
+ * counters are cheap enough to be always on, they are readable via
+ * {@link ResourceLookup#getStatistics()} and JMX.
+ *
+ * Tracing is controlled by the debug options
+ * <code>org.eclipse.corrosion/debug/resourceLookup</code>, which traces
+ * indexing, resource changes and evictions, and
+ * <code>org.eclipse.corrosion/debug/resourceLookup/lookups</code>, which traces
+ * every lookup with its duration and number of candidates.
+ */
+public final class ResourceLookupStatistics implements ResourceLookupStatisticsMBean, DebugOptionsListener {
+	public static final String OPTION_TRACE = CorrosionPlugin.PLUGIN_ID + "/debug/resourceLookup"; //$NON-NLS-1$
+	public static final String OPTION_TRACE_LOOKUPS = OPTION_TRACE + "/lookups"; //$NON-NLS-1$
+	public static final String OBJECT_NAME = "org.eclipse.corrosion:type=ResourceLookup"; //$NON-NLS-1$
+
+	/**
+	 * Lookups with at least this many candidates are counted in the last bucket
+	 * of the histogram.
+	 */
+	public static final int MAX_BUCKET_CANDIDATES = 1024;
+	private static final int BUCKETS = Integer.numberOfTrailingZeros(MAX_BUCKET_CANDIDATES) + 2;
+
+	/**
+	 * The kinds of lookups.
+	 */
+	enum Lookup {
+		NAME, LOCATION, LOCATION_URI
+	}
+
+	private final LongAdder[] fLookups = newAdders(Lookup.values().length);
+	private final LongAdder fHits = new LongAdder();
+	private final LongAdder fMisses = new LongAdder();
+	private final LongAdder fPlatformFallbacks = new LongAdder();
+	private final LongAdder fLookupTime = new LongAdder();
+	private final LongAccumulator fMaxLookupTime = new LongAccumulator(Math::max, 0);
+	private final LongAdder[] fCandidates = newAdders(BUCKETS);
+	private final LongAdder fLockAcquisitions = new LongAdder();
+	private final LongAdder fLockHeldTime = new LongAdder();
+	private final LongAccumulator fMaxLockHeldTime = new LongAccumulator(Math::max, 0);
+	private final LongAdder fIndexedProjects = new LongAdder();
+	private final LongAdder fRebuilds = new LongAdder();
+	private final LongAdder fIndexingTime = new LongAdder();
+	private final LongAdder fEvictions = new LongAdder();
+	private volatile long fNodeCount;
+	private volatile long fFootprint;
+
+	private volatile boolean fTracing;
+	private volatile boolean fTracingLookups;
+	private volatile DebugTrace fTrace;
+	private ServiceRegistration<DebugOptionsListener> fOptionsRegistration;
+	private ObjectName fObjectName;
+
+	private static LongAdder[] newAdders(int count) {
+		final LongAdder[] adders = new LongAdder[count];
+		for (int i = 0; i < count; i++) {
+			adders[i] = new LongAdder();
+		}
+		return adders;
+	}
+
+	/**
+	 * Registers the statistics for the debug options and with the platform's
+	 * MBean server.
+	 */
+	void startup() {
+		final BundleContext context = CorrosionPlugin.getContext();
+		if (context != null) {
+			final Hashtable<String, String> properties = new Hashtable<>();
+			properties.put(DebugOptions.LISTENER_SYMBOLICNAME, CorrosionPlugin.PLUGIN_ID);
+			fOptionsRegistration = context.registerService(DebugOptionsListener.class, this, properties);
+		}
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(this, name);
+				fObjectName = name;
+			}
+		} catch (JMException e) {
+			CorrosionPlugin.logError(e);
+		}
+	}
+
+	void shutdown() {
+		if (fOptionsRegistration != null) {
+			fOptionsRegistration.unregister();
+			fOptionsRegistration = null;
+		}
+		if (fObjectName != null) {
+			try {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(fObjectName);
+			} catch (JMException e) {
+				CorrosionPlugin.logError(e);
+			}
+			fObjectName = null;
+		}
+	}
+
+	@Override
+	public void optionsChanged(DebugOptions options) {
+		fTrace = options.newDebugTrace(CorrosionPlugin.PLUGIN_ID, ResourceLookupTree.class);
+		fTracing = options.getBooleanOption(OPTION_TRACE, false);
+		fTracingLookups = options.getBooleanOption(OPTION_TRACE_LOOKUPS, false);
+	}
+
+	boolean isTracing() {
+		return fTracing;
+	}
+
+	void trace(String message) {
+		final DebugTrace trace = fTrace;
+		if (trace != null) {
+			trace.trace(OPTION_TRACE, message);
+		}
+	}
+
+	/**
+	 * Records a lookup.
+	 *
+	 * @param lookup     the kind of lookup
+	 * @param time       the duration of the lookup in nanoseconds
+	 * @param candidates the number of candidates that were examined
+	 * @param matches    the number of files found in the index
+	 * @param fallback   whether the lookup fell back to the platform
+	 */
+	void recordLookup(Lookup lookup, long time, int candidates, int matches, boolean fallback) {
+		fLookups[lookup.ordinal()].increment();
+		(matches > 0 ? fHits : fMisses).increment();
+		if (fallback) {
+			fPlatformFallbacks.increment();
+		}
+		fLookupTime.add(time);
+		fMaxLookupTime.accumulate(time);
+		fCandidates[bucket(candidates)].increment();
+		if (fTracingLookups) {
+			final DebugTrace trace = fTrace;
+			if (trace != null) {
+				trace.trace(OPTION_TRACE_LOOKUPS, "Lookup by " + lookup + " took " + time / 1000 + "us, " + candidates //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+						+ " candidates, " + matches + " matches" + (fallback ? ", fell back to platform." : ".")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			}
+		}
+	}
+
+	static int bucket(int candidates) {
+		if (candidates >= MAX_BUCKET_CANDIDATES)
+			return BUCKETS - 1;
+		return 32 - Integer.numberOfLeadingZeros(candidates);
+	}
+
+	/**
+	 * Records that the lock of the tree was held for the given nanoseconds.
+	 */
+	void recordLockHeld(long time) {
+		fLockAcquisitions.increment();
+		fLockHeldTime.add(time);
+		fMaxLockHeldTime.accumulate(time);
+	}
+
+	/**
+	 * Records the indexing of projects.
+	 *
+	 * @param projects the number of projects indexed
+	 * @param rebuilds the number of those that had been indexed before
+	 * @param time     the duration in nanoseconds
+	 */
+	void recordIndexing(int projects, int rebuilds, long time) {
+		fIndexedProjects.add(projects);
+		fRebuilds.add(rebuilds);
+		fIndexingTime.add(time);
+	}
+
+	void recordEvictions(int projects) {
+		fEvictions.add(projects);
+	}
+
+	void setNodeMap(NodeArena nodeMap) {
+		fNodeCount = nodeMap == null ? 0 : nodeMap.size();
+		fFootprint = nodeMap == null ? 0 : nodeMap.footprint();
+	}
+
+	@Override
+	public long getLookupsByName() {
+		return fLookups[Lookup.NAME.ordinal()].sum();
+	}
+
+	@Override
+	public long getLookupsByLocation() {
+		return fLookups[Lookup.LOCATION.ordinal()].sum();
+	}
+
+	@Override
+	public long getLookupsByLocationURI() {
+		return fLookups[Lookup.LOCATION_URI.ordinal()].sum();
+	}
+
+	@Override
+	public long getHits() {
+		return fHits.sum();
+	}
+
+	@Override
+	public long getMisses() {
+		return fMisses.sum();
+	}
+
+	@Override
+	public long getPlatformFallbacks() {
+		return fPlatformFallbacks.sum();
+	}
+
+	@Override
+	public long getLookupTime() {
+		return fLookupTime.sum();
+	}
+
+	@Override
+	public long getMaxLookupTime() {
+		return fMaxLookupTime.get();
+	}
+
+	@Override
+	public long[] getCandidateHistogram() {
+		final long[] result = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			result[i] = fCandidates[i].sum();
+		}
+		return result;
+	}
+
+	@Override
+	public long getLockAcquisitions() {
+		return fLockAcquisitions.sum();
+	}
+
+	@Override
+	public long getLockHeldTime() {
+		return fLockHeldTime.sum();
+	}
+
+	@Override
+	public long getMaxLockHeldTime() {
+		return fMaxLockHeldTime.get();
+	}
+
+	@Override
+	public long getIndexedProjects() {
+		return fIndexedProjects.sum();
+	}
+
+	@Override
+	public long getRebuildCount() {
+		return fRebuilds.sum();
+	}
+
+	@Override
+	public long getIndexingTime() {
+		return fIndexingTime.sum();
+	}
+
+	@Override
+	public long getEvictionCount() {
+		return fEvictions.sum();
+	}
+
+	@Override
+	public long getNodeCount() {
+		return fNodeCount;
+	}
+
+	@Override
+	public long getFootprint() {
+		return fFootprint;
+	}
+
+	@Override
+	public long getCanonicalPathCacheHits() {
+		return PathCanonicalizationStrategy.getCacheHitCount();
+	}
+
+	@Override
+	public long getCanonicalPathCacheMisses() {
+		return PathCanonicalizationStrategy.getCacheMissCount();
+	}
+
+	@Override
+	public void reset() {
+		for (LongAdder adder : fLookups) {
+			adder.reset();
+		}
+		for (LongAdder adder : fCandidates) {
+			adder.reset();
+		}
+		fHits.reset();
+		fMisses.reset();
+		fPlatformFallbacks.reset();
+		fLookupTime.reset();
+		fMaxLookupTime.reset();
+		fLockAcquisitions.reset();
+		fLockHeldTime.reset();
+		fMaxLockHeldTime.reset();
+		fIndexedProjects.reset();
+		fRebuilds.reset();
+		fIndexingTime.reset();
+		fEvictions.reset();
+	}
+
+	@Override
+	public String toString() {
+		final long lookups = getHits() + getMisses();
+		return "lookups: " + lookups + " (by name " + getLookupsByName() + ", by location " + getLookupsByLocation() //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ ", by URI " + getLookupsByLocationURI() + "), hits: " + getHits() + ", platform fallbacks: " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ getPlatformFallbacks() + ", avg lookup: " + (lookups == 0 ? 0 : getLookupTime() / lookups / 1000) //$NON-NLS-1$
+				+ "us, lock held: " + getLockHeldTime() / 1000000 + "ms, projects indexed: " + getIndexedProjects() //$NON-NLS-1$ //$NON-NLS-2$
+				+ " (rebuilt " + getRebuildCount() + ", " + getIndexingTime() / 1000000 + "ms), evicted: " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ getEvictionCount() + ", nodes: " + getNodeCount(); //$NON-NLS-1$
+	}
+}
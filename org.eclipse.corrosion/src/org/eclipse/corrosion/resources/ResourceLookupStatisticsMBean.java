@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.resources;
+
+/**
+ * Management interface of {@link ResourceLookupStatistics}, registered as
+ * <code>org.eclipse.corrosion:type=ResourceLookup</code>. Times are in
+ * nanoseconds unless stated otherwise.
+ */
+public interface ResourceLookupStatisticsMBean {
+
+	long getLookupsByName();
+
+	long getLookupsByLocation();
+
+	long getLookupsByLocationURI();
+
+	/**
+	 * Returns the number of lookups that found at least one file in the index.
+	 */
+	long getHits();
+
+	/**
+	 * Returns the number of lookups that found no file in the index.
+	 */
+	long getMisses();
+
+	/**
+	 * Returns the number of location lookups that fell back to the platform.
+	 */
+	long getPlatformFallbacks();
+
+	long getLookupTime();
+
+	long getMaxLookupTime();
+
+	/**
+	 * Returns the number of lookups by the number of candidates they examined.
+	 * Element <code>i</code> counts <code>2^(i-1) ... 2^i - 1</code> candidates,
+	 * the first element lookups without candidates and the last one lookups with
+	 * {@link ResourceLookupStatistics#MAX_BUCKET_CANDIDATES} candidates or more.
+	 */
+	long[] getCandidateHistogram();
+
+	long getLockAcquisitions();
+
+	/**
+	 * Returns the total time the lock of the lookup tree was held.
+	 */
+	long getLockHeldTime();
+
+	long getMaxLockHeldTime();
+
+	long getIndexedProjects();
+
+	/**
+	 * Returns the number of projects that had to be indexed again after they were
+	 * evicted or the index was collected.
+	 */
+	long getRebuildCount();
+
+	long getIndexingTime();
+
+	long getEvictionCount();
+
+	long getNodeCount();
+
+	/**
+	 * Returns the heap used by the index in bytes.
+	 */
+	long getFootprint();
+
+	long getCanonicalPathCacheHits();
+
+	long getCanonicalPathCacheMisses();
+
+	/**
+	 * Resets the counters of the lookup tree. The node count, the footprint and the
+	 * counters of the canonical path cache are kept.
+	 */
+	void reset();
+}
@@ -13,17 +13,24 @@
  *******************************************************************************/
 package org.eclipse.corrosion.resources;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.ref.SoftReference;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
@@ -34,8 +41,12 @@ import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.resources.IResourceProxy;
 import org.eclipse.core.resources.IResourceProxyVisitor;
+import org.eclipse.core.resources.ISaveContext;
+import org.eclipse.core.resources.ISaveParticipant;
+import org.eclipse.core.resources.ISavedState;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourceAttributes;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
@@ -48,24 +59,64 @@ import org.eclipse.core.runtime.content.IContentType;
 import org.eclipse.core.runtime.content.IContentTypeManager;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.corrosion.CorrosionPlugin;
+import org.eclipse.corrosion.CorrosionPreferenceInitializer;
+import org.eclipse.jface.util.IPropertyChangeListener;
 
 /**
  * Allows for looking up resources by location or name. When using this class
- * 100 bytes per resource are needed.
+ * less than 50 bytes per resource are needed, see {@link NodeArena}.
  *
  * The information for a project is initialized when first requested and then it
  * is kept up to date using a resource change listener. No memory is used, as
- * long as the class is not used. When information is not used for more than 10
- * minutes, the data-structures will be held via a weak reference, only and are
- * subject to garbage collection.
+ * long as the class is not used. Projects that have not been queried for more
+ * than 10 minutes are evicted, as are the least recently queried projects when
+ * the tree exceeds its memory budget, see
+ * {@link CorrosionPreferenceInitializer#RESOURCE_LOOKUP_BUDGET_PREFERENCE}. An
+ * evicted project is indexed again when it is queried. Location lookups index
+ * an evicted project again only when the location lies within it, otherwise the
+ * platform's lookup serves as a fallback.
  *
- * The node map stores a map from hash-code of file-names to nodes. A node
- * contains the name of a file plus a link to the parent resource. From that we
- * can compute the resource path and obtain further information via the
- * resource.
+ * The build output of cargo, vendored sources and ignored resources are not
+ * indexed, see {@link IndexScope}. Changing the files that define the scope of
+ * a project causes it to be indexed again.
+ *
+ * Projects that are requested together are indexed in parallel, each into a
+ * separate node map. The maps are merged in the order of the projects, such that
+ * the result does not differ from indexing the projects one after the other.
+ *
+ * When the workspace is saved the tree is written to the state location of the
+ * plug-in, see {@link ResourceLookupSnapshot}. On the next start a background
+ * job reads it back, projects that changed in the meantime are dropped and the
+ * resource deltas that happened since the save are applied. Lookups before the
+ * tree is restored index the projects as usual, the snapshot is dropped then.
+ *
+ * Resource deltas are not applied while the workspace notifies its listeners.
+ * They are queued, changes to the same resource or to resources below a
+ * pending addition are coalesced, and a background job applies them. Lookups
+ * apply pending changes before they read the tree.
+ *
+ * Lookups do not block on updates. Modifications are applied to a private copy
+ * of the node map, which is published to readers once a delta or a batch of
+ * projects has been processed. Readers thus always see a consistent snapshot and
+ * take the lock only if a project still needs to be indexed.
+ *
+ * The node map stores a map from hash-code of file-names to nodes, see
+ * {@link NodeArena}. A node contains the name of a file plus a link to the
+ * parent resource. From that we can compute the resource path and obtain
+ * further information via the resource.
+ *
+ * For names shared by many files, such as <code>mod.rs</code>, lookups by name
+ * use a {@link SuffixIndex} of the locations of the files, which is built on
+ * demand and cached until the node map changes.
+ *
+ * Lookups, indexing and the time the lock is held are counted, see
+ * {@link ResourceLookupStatistics}.
  */
-class ResourceLookupTree implements IResourceChangeListener, IResourceDeltaVisitor, IResourceProxyVisitor {
+class ResourceLookupTree implements IResourceChangeListener, IResourceDeltaVisitor {
 	private static final int UNREF_DELAY = 10 * 60000; // 10 min
+	private static final int EVICTION_INTERVAL = 60000; // 1 min
+	private static final int MIN_EVICTION_IDLE = 60000; // keep projects that are in use
+	private static final int APPLY_DELAY = 100; // collect the deltas of a burst
 
 	private static final boolean VISIT_CHILDREN = true;
 	private static final boolean SKIP_CHILDREN = false;
@@ -75,6 +126,46 @@ class ResourceLookupTree implements IResourceChangeListener, IResourceDeltaVisit
 
 	public static final char[] EMPTY = {};
 
+	private static final String SNAPSHOT_KEY = "resourceLookup"; //$NON-NLS-1$
+	private static final String SNAPSHOT_SUFFIX = ".bin"; //$NON-NLS-1$
+
+	// kinds of pending changes
+	private static final int CHANGE_ADD = 0x1;
+	private static final int CHANGE_REMOVE = 0x2;
+	private static final int CHANGE_REPLACE = CHANGE_ADD | CHANGE_REMOVE;
+
+	private static final int SUFFIX_INDEX_THRESHOLD = 16;
+	private static final int MAX_SUFFIX_INDEXES = 64;
+
+	/**
+	 * The suffix indexes for the names of a node map, least recently used are
+	 * dropped first.
+	 */
+	private static class SuffixIndexCache extends LinkedHashMap<Integer, SuffixIndex> {
+		private static final long serialVersionUID = 1L;
+		final transient NodeArena fNodeMap;
+
+		SuffixIndexCache(NodeArena nodeMap) {
+			super(16, 0.75f, true);
+			fNodeMap = nodeMap;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, SuffixIndex> eldest) {
+			return size() > MAX_SUFFIX_INDEXES;
+		}
+	}
+
+	private static class PendingChange {
+		final IResource fResource;
+		final int fKind;
+
+		PendingChange(IResource resource, int kind) {
+			fResource = resource;
+			fKind = kind;
+		}
+	}
+
 	private static class Extensions {
 		private final boolean fInvert;
 		private final Set<String> fExtensions;
@@ -84,6 +175,17 @@ class ResourceLookupTree implements IResourceChangeListener, IResourceDeltaVisit
 			fExtensions = extensions;
 		}
 
+		@Override
+		public int hashCode() {
+			return fExtensions.hashCode() * 31 + (fInvert ? 1 : 0);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Extensions other && fInvert == other.fInvert
+					&& fExtensions.equals(other.fExtensions);
+		}
+
 		boolean isRelevant(String filename) {
 			// accept all files without extension
 			final int idx = filename.lastIndexOf('.');
@@ -94,99 +196,528 @@ class ResourceLookupTree implements IResourceChangeListener, IResourceDeltaVisit
 		}
 	}
 
-	private static class Node {
-		final Node fParent;
-		final char[] fResourceName;
-		final boolean fHasFileLocationName;
-		final boolean fIsFileLinkTarget;
-
-		boolean fDeleted;
-		boolean fHasChildren;
-		int fCanonicHash;
-
-		Node(Node parent, char[] name, boolean hasFileLocationName, boolean isFileLinkTarget) {
-			fParent = parent;
-			fResourceName = name;
-			fHasFileLocationName = hasFileLocationName;
-			fIsFileLinkTarget = isFileLinkTarget;
-			if (parent != null)
-				parent.fHasChildren = true;
-		}
-	}
-
 	private final Object fLock = new Object();
 	private final Job fUnrefJob;
-	private SoftReference<Map<Integer, Object>> fNodeMapRef;
-	private Map<Integer, Object> fNodeMap;
+	private final Job fApplyJob;
+	private Job fRestoreJob;
+	// whether the snapshot of the last session is being restored, resource deltas
+	// are queued in the meantime
+	private volatile boolean fRestoring;
+	private volatile SoftReference<NodeArena> fNodeMapRef;
+	private NodeArena fNodeMap;
+	private boolean fNodeMapIsPrivate;
+	private volatile NodeArena fPublishedNodeMap;
+	private final Map<String, Long> fProjectAccess = new ConcurrentHashMap<>();
+	private final Set<String> fEvictedProjects = ConcurrentHashMap.newKeySet();
+	private final ResourceLookupStatistics fStatistics = new ResourceLookupStatistics();
 	private final Map<String, Extensions> fFileExtensions;
+	private final Map<String, IndexScope> fScopes = new ConcurrentHashMap<>();
 	private Extensions fCorrosionProjectExtensions;
 	private Extensions fDefaultExtensions;
-	private Extensions fCurrentExtensions;
-	private Node fRootNode;
+	private final Map<IPath, PendingChange> fPendingChanges = new LinkedHashMap<>();
+	private volatile boolean fHasPendingChanges;
+	private volatile SuffixIndexCache fSuffixIndexCache;
 	private boolean fNeedCleanup;
-	private Node fLastFolderNode;
-
-	private boolean fTrace;
 
 	public ResourceLookupTree() {
-		fRootNode = new Node(null, EMPTY, false, false) {
-			// Empty
-		};
-		fFileExtensions = new HashMap<>();
+		fFileExtensions = new ConcurrentHashMap<>();
 		fUnrefJob = new Job("Timer") { //$NON-NLS-1$
 			@Override
 			protected IStatus run(IProgressMonitor monitor) {
-				unrefNodeMap();
+				synchronized (fLock) {
+					final long start = System.nanoTime();
+					try {
+						evictProjects();
+					} finally {
+						fStatistics.recordLockHeld(System.nanoTime() - start);
+					}
+				}
+				if (fNodeMapRef != null) {
+					schedule(EVICTION_INTERVAL);
+				}
 				return Status.OK_STATUS;
 			}
 		};
 		fUnrefJob.setSystem(true);
-		fTrace = Boolean.parseBoolean(Platform.getDebugOption(CorrosionPlugin.PLUGIN_ID + "/debug/resourceLookup")); //$NON-NLS-1$
+		fApplyJob = new Job("Update resource lookup") { //$NON-NLS-1$
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				synchronized (fLock) {
+					final long start = System.nanoTime();
+					try {
+						applyPendingChanges();
+					} finally {
+						fStatistics.recordLockHeld(System.nanoTime() - start);
+					}
+				}
+				return Status.OK_STATUS;
+			}
+		};
+		fApplyJob.setSystem(true);
 	}
 
 	public void startup() {
+		fStatistics.startup();
 		final IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		ISavedState savedState = null;
+		try {
+			savedState = workspace.addSaveParticipant(CorrosionPlugin.PLUGIN_ID, fSaveParticipant);
+		} catch (CoreException e) {
+			CorrosionPlugin.logError(e);
+		}
+		if (savedState != null && savedState.lookup(new Path(SNAPSHOT_KEY)) != null) {
+			fRestoring = true;
+			final ISavedState state = savedState;
+			// reading the snapshot takes a while for a large workspace, it is not
+			// done while the plug-in is activated
+			fRestoreJob = new Job("Restore resource lookup") { //$NON-NLS-1$
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					restoreSnapshot(state);
+					return Status.OK_STATUS;
+				}
+			};
+			fRestoreJob.setSystem(true);
+			fRestoreJob.schedule();
+		}
 		workspace.addResourceChangeListener(this, IResourceChangeEvent.POST_CHANGE);
+		CorrosionPlugin.getDefault().getPreferenceStore().addPropertyChangeListener(fPreferenceListener);
 	}
 
 	public void shutdown() {
-		ResourcesPlugin.getWorkspace().removeResourceChangeListener(this);
+		CorrosionPlugin.getDefault().getPreferenceStore().removePropertyChangeListener(fPreferenceListener);
+		final IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		workspace.removeResourceChangeListener(this);
+		workspace.removeSaveParticipant(CorrosionPlugin.PLUGIN_ID);
+		fRestoring = false;
+		if (fRestoreJob != null) {
+			fRestoreJob.cancel();
+		}
+		fUnrefJob.cancel();
+		fApplyJob.cancel();
+		synchronized (fPendingChanges) {
+			fPendingChanges.clear();
+			fHasPendingChanges = false;
+		}
 		synchronized (fLock) {
 			fNodeMap = null;
 			fNodeMapRef = null;
+			fPublishedNodeMap = null;
+			fSuffixIndexCache = null;
 			fFileExtensions.clear();
+			fScopes.clear();
+			fProjectAccess.clear();
+			fEvictedProjects.clear();
+			fStatistics.setNodeMap(null);
 		}
+		fStatistics.shutdown();
 	}
 
+	private final IPropertyChangeListener fPreferenceListener = event -> {
+		if (CorrosionPreferenceInitializer.RESOURCE_LOOKUP_MEMBERS_ONLY_PREFERENCE.equals(event.getProperty())) {
+			scopeChanged();
+		}
+	};
+
 	/**
-	 * Handle resource change notifications.
+	 * Drops the scopes and the indexed projects after the scope preference
+	 * changed, the projects are indexed again with the new scope when they are
+	 * queried.
 	 */
-	@Override
-	public void resourceChanged(IResourceChangeEvent event) {
-		IResourceDelta delta = event.getDelta();
-		synchronized (fLock) {
-			if (fNodeMapRef == null)
+	private void scopeChanged() {
+		fScopes.clear();
+		final boolean schedule;
+		synchronized (fPendingChanges) {
+			final IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+			for (String name : fFileExtensions.keySet()) {
+				queueChange(root.getProject(name), CHANGE_REMOVE);
+			}
+			fHasPendingChanges = !fPendingChanges.isEmpty();
+			schedule = fHasPendingChanges;
+		}
+		if (schedule) {
+			fApplyJob.schedule();
+		}
+	}
+
+	private final ISaveParticipant fSaveParticipant = new ISaveParticipant() {
+		@Override
+		public void prepareToSave(ISaveContext context) throws CoreException {
+			// nothing to do
+		}
+
+		@Override
+		public void saving(ISaveContext context) throws CoreException {
+			// snapshots of the workspace happen often, the tree is written on full saves,
+			// only. The deltas requested here cover everything that happens after it.
+			if (context.getKind() != ISaveContext.FULL_SAVE)
 				return;
-			boolean unsetMap = false;
-			if (fNodeMap == null) {
-				fNodeMap = fNodeMapRef.get();
-				if (fNodeMap == null)
-					return;
-				unsetMap = true;
+
+			final ResourceLookupSnapshot snapshot;
+			synchronized (fLock) {
+				final long start = System.nanoTime();
+				try {
+					applyPendingChanges();
+					snapshot = createSnapshot();
+				} finally {
+					fStatistics.recordLockHeld(System.nanoTime() - start);
+				}
 			}
+			if (snapshot == null)
+				return;
+
+			final String fileName = getSnapshotFileName(context.getSaveNumber());
 			try {
-				delta.accept(this);
+				snapshot.write(getStateLocation().append(fileName).toFile());
+			} catch (IOException e) {
+				throw new CoreException(Status.error("Cannot save resource lookup tree", e)); //$NON-NLS-1$
+			}
+			context.map(new Path(SNAPSHOT_KEY), new Path(fileName));
+			context.needSaveNumber();
+			context.needDelta();
+		}
+
+		@Override
+		public void doneSaving(ISaveContext context) {
+			// only a save that wrote a snapshot replaces the older ones, the ones
+			// that could not be deleted before are retried as well
+			final String current = getSnapshotFileName(context.getSaveNumber());
+			if (!getStateLocation().append(current).toFile().isFile())
+				return;
+			final File[] files = getStateLocation().toFile().listFiles(
+					(dir, name) -> name.startsWith(SNAPSHOT_KEY + '-') && name.endsWith(SNAPSHOT_SUFFIX)
+							&& !name.equals(current));
+			if (files != null) {
+				for (File file : files) {
+					file.delete();
+				}
+			}
+		}
+
+		@Override
+		public void rollback(ISaveContext context) {
+			getStateLocation().append(getSnapshotFileName(context.getSaveNumber())).toFile().delete();
+		}
+	};
+
+	private static IPath getStateLocation() {
+		return CorrosionPlugin.getDefault().getStateLocation();
+	}
+
+	private static String getSnapshotFileName(int saveNumber) {
+		return SNAPSHOT_KEY + '-' + saveNumber + SNAPSHOT_SUFFIX;
+	}
+
+	/**
+	 * Creates a snapshot of the current node map, or returns <code>null</code> when
+	 * there is nothing to save.
+	 */
+	private ResourceLookupSnapshot createSnapshot() {
+		assert Thread.holdsLock(fLock);
+
+		NodeArena nodeMap = fNodeMap;
+		if (nodeMap == null && fNodeMapRef != null)
+			nodeMap = fNodeMapRef.get();
+		if (nodeMap == null || fFileExtensions.isEmpty() || fCorrosionProjectExtensions == null)
+			return null;
+
+		final IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		final Map<String, Long> projectStamps = new LinkedHashMap<>();
+		for (String name : fFileExtensions.keySet()) {
+			projectStamps.put(name, Long.valueOf(root.getProject(name).getModificationStamp()));
+		}
+
+		return nodeMap.createSnapshot(getSettingsHash(), projectStamps);
+	}
+
+	/**
+	 * Returns the hash of the settings that determine the indexed resources. A
+	 * snapshot is restored only if it was saved with the same settings.
+	 */
+	private int getSettingsHash() {
+		assert Thread.holdsLock(fLock);
+
+		final boolean membersOnly = CorrosionPlugin.getDefault().getPreferenceStore()
+				.getBoolean(CorrosionPreferenceInitializer.RESOURCE_LOOKUP_MEMBERS_ONLY_PREFERENCE);
+		return fCorrosionProjectExtensions.hashCode() * 31 + (membersOnly ? 1 : 0);
+	}
+
+	/**
+	 * Restores the node map from the snapshot written by the last save and applies
+	 * the resource deltas since. Unless the tree was initialized in the meantime,
+	 * the snapshot is read without holding the lock.
+	 */
+	private void restoreSnapshot(ISavedState savedState) {
+		try {
+			final int settingsHash;
+			synchronized (fLock) {
+				final long start = System.nanoTime();
+				try {
+					if (!fRestoring || fNodeMapRef != null)
+						return;
+					initFileExtensions();
+					settingsHash = getSettingsHash();
+				} finally {
+					fStatistics.recordLockHeld(System.nanoTime() - start);
+				}
+			}
+			if (loadSnapshot(savedState, settingsHash)) {
+				// patch the tree with the changes since it was saved
+				savedState.processResourceChangeEvents(this);
+			}
+		} finally {
+			fRestoring = false;
+			final boolean schedule;
+			synchronized (fPendingChanges) {
+				normalizePendingChanges();
+				schedule = !fPendingChanges.isEmpty();
+			}
+			if (schedule) {
+				fApplyJob.schedule();
+			}
+		}
+	}
+
+	/**
+	 * Reads the snapshot and installs it as the node map. Projects that are no
+	 * longer open or that have been modified are not restored, they are indexed
+	 * again when needed.
+	 *
+	 * @return whether a snapshot was restored.
+	 */
+	private boolean loadSnapshot(ISavedState savedState, int settingsHash) {
+		final IPath fileName = savedState.lookup(new Path(SNAPSHOT_KEY));
+		if (fileName == null)
+			return false;
+
+		final long time = System.currentTimeMillis();
+		final ResourceLookupSnapshot snapshot;
+		try {
+			snapshot = ResourceLookupSnapshot.read(getStateLocation().append(fileName).toFile());
+		} catch (IOException e) {
+			CorrosionPlugin.logError(e);
+			return false;
+		}
+		if (snapshot.fSettingsHash != settingsHash)
+			return false;
+
+		final IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		final Set<String> validProjects = new HashSet<>();
+		for (Map.Entry<String, Long> entry : snapshot.fProjectStamps.entrySet()) {
+			final IProject project = root.getProject(entry.getKey());
+			if (project.isOpen() && project.getModificationStamp() == entry.getValue().longValue()) {
+				validProjects.add(entry.getKey());
+			}
+		}
+		if (validProjects.isEmpty())
+			return false;
+
+		final NodeArena nodeMap = NodeArena.restore(snapshot, validProjects::contains);
+
+		synchronized (fLock) {
+			final long start = System.nanoTime();
+			try {
+				// a lookup may have indexed the projects or the scope may have
+				// changed in the meantime
+				if (!fRestoring || fNodeMapRef != null || getSettingsHash() != settingsHash)
+					return false;
+				fNodeMap = nodeMap;
+				fNodeMapIsPrivate = true;
+				fFileExtensions.clear();
+				for (String name : validProjects) {
+					fFileExtensions.put(name, fCorrosionProjectExtensions);
+				}
+				publishNodeMap(true);
+				final Long now = Long.valueOf(System.currentTimeMillis());
+				for (String name : validProjects) {
+					fProjectAccess.put(name, now);
+				}
+				fUnrefJob.schedule(EVICTION_INTERVAL);
+			} finally {
+				fStatistics.recordLockHeld(System.nanoTime() - start);
+			}
+		}
+		if (fStatistics.isTracing()) {
+			fStatistics.trace("Restored file lookup tree for " + validProjects.size() + " projects, took " //$NON-NLS-1$ //$NON-NLS-2$
+					+ (System.currentTimeMillis() - time) + "ms to add " + nodeMap.size() + " nodes."); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return true;
+	}
+
+	/**
+	 * Makes the pending changes independent of their order. The deltas of the
+	 * last session are queued after the ones that happened while the snapshot was
+	 * read, so a change of a resource is applied as its current state: a
+	 * resource that exists is replaced, one that does not is removed.
+	 */
+	private void normalizePendingChanges() {
+		assert Thread.holdsLock(fPendingChanges);
+
+		for (Map.Entry<IPath, PendingChange> entry : fPendingChanges.entrySet()) {
+			final IResource res = entry.getValue().fResource;
+			if (!(res instanceof IProject)) {
+				entry.setValue(new PendingChange(res, res.exists() ? CHANGE_REPLACE : CHANGE_REMOVE));
+			}
+		}
+		fHasPendingChanges = !fPendingChanges.isEmpty();
+	}
+
+	/**
+	 * Handle resource change notifications by queuing the changes, they are
+	 * applied by a background job.
+	 */
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		if (fNodeMapRef == null && !fRestoring)
+			return;
+
+		final boolean schedule;
+		synchronized (fPendingChanges) {
+			final boolean wasEmpty = fPendingChanges.isEmpty();
+			try {
+				event.getDelta().accept(this);
 			} catch (CoreException e) {
 				CorrosionPlugin.logError(e);
-			} finally {
-				if (fNeedCleanup)
-					cleanup();
-				fCurrentExtensions = null;
-				fNeedCleanup = false;
-				if (unsetMap)
-					fNodeMap = null;
 			}
+			fHasPendingChanges = !fPendingChanges.isEmpty();
+			// the job is scheduled once per batch, such that a stream of deltas
+			// does not postpone it
+			schedule = wasEmpty && fHasPendingChanges;
+		}
+		if (schedule) {
+			fApplyJob.schedule(APPLY_DELAY);
+		}
+	}
+
+	/**
+	 * Queues a change of the given kind for the resource. The change is merged
+	 * with a pending change of the same resource. Pending changes below the
+	 * resource are dropped, the new change covers them. A change below a pending
+	 * addition is dropped, since the addition reads the current state of the
+	 * subtree when it is applied.
+	 */
+	private void queueChange(IResource res, int kind) {
+		assert Thread.holdsLock(fPendingChanges);
+
+		final IPath path = res.getFullPath();
+		for (IPath parent = path.removeLastSegments(1); parent.segmentCount() > 0; parent = parent
+				.removeLastSegments(1)) {
+			final PendingChange change = fPendingChanges.get(parent);
+			if (change != null && (change.fKind & CHANGE_ADD) != 0)
+				return;
+		}
+		if (res.getType() != IResource.FILE && !fPendingChanges.isEmpty()) {
+			final int segmentCount = path.segmentCount();
+			fPendingChanges.keySet().removeIf(p -> p.segmentCount() > segmentCount && path.isPrefixOf(p));
+		}
+		// re-insert at the end to keep the order of the changes
+		final PendingChange pending = fPendingChanges.remove(path);
+		if (pending != null && kind != CHANGE_REMOVE) {
+			kind = CHANGE_REPLACE;
+		}
+		fPendingChanges.put(path, new PendingChange(res, kind));
+	}
+
+	/**
+	 * Applies the queued resource changes to the node map.
+	 */
+	private void applyPendingChanges() {
+		assert Thread.holdsLock(fLock);
+
+		final List<PendingChange> changes;
+		synchronized (fPendingChanges) {
+			if (fPendingChanges.isEmpty())
+				return;
+			// the changes while the snapshot is read apply to it
+			if (fNodeMapRef == null && fRestoring)
+				return;
+			changes = new ArrayList<>(fPendingChanges.values());
+			fPendingChanges.clear();
+			fHasPendingChanges = false;
+		}
+		if (fNodeMapRef == null)
+			return;
+		boolean unsetMap = false;
+		if (fNodeMap == null) {
+			fNodeMap = fNodeMapRef.get();
+			if (fNodeMap == null)
+				return;
+			unsetMap = true;
+		}
+		final long time = fStatistics.isTracing() ? System.currentTimeMillis() : 0;
+		try {
+			for (PendingChange change : changes) {
+				applyChange(change.fResource, change.fKind);
+			}
+		} finally {
+			if (fNeedCleanup || fNodeMap.hasExcessGarbage())
+				cleanup();
+			fNeedCleanup = false;
+			publishNodeMap(!unsetMap);
+			if (unsetMap)
+				fNodeMap = null;
+		}
+		if (fStatistics.isTracing()) {
+			fStatistics.trace("Applied " + changes.size() + " resource changes to file lookup tree, took " //$NON-NLS-1$ //$NON-NLS-2$
+					+ (System.currentTimeMillis() - time) + "ms."); //$NON-NLS-1$
+		}
+	}
+
+	private void applyChange(IResource res, int kind) {
+		// project not yet handled
+		final String projectName = res.getProject().getName();
+		if (res instanceof IProject) {
+			fScopes.remove(projectName);
 		}
+		final Extensions exts = fFileExtensions.get(projectName);
+		if (exts == null)
+			return;
+
+		if (res instanceof IProject) {
+			fFileExtensions.remove(projectName);
+			fProjectAccess.remove(projectName);
+			remove(res);
+			return;
+		}
+		if ((kind & CHANGE_REMOVE) != 0) {
+			remove(res);
+		}
+		if ((kind & CHANGE_ADD) != 0) {
+			new Indexer(null, exts).add(res);
+		}
+	}
+
+	/**
+	 * Returns the node map for modification. The first modification after a
+	 * publication works on a copy, such that readers of the published map are not
+	 * affected.
+	 */
+	private NodeArena modifiableNodeMap() {
+		assert Thread.holdsLock(fLock);
+
+		if (!fNodeMapIsPrivate) {
+			fNodeMap = fNodeMap.copy();
+			fNodeMapIsPrivate = true;
+		}
+		return fNodeMap;
+	}
+
+	/**
+	 * Makes the modifications to the node map visible.
+	 *
+	 * @param strong whether readers shall see the map, otherwise it is referenced
+	 *               softly, only.
+	 */
+	private void publishNodeMap(boolean strong) {
+		assert Thread.holdsLock(fLock);
+
+		if (fNodeMapIsPrivate) {
+			fNodeMapRef = new SoftReference<>(fNodeMap);
+			fNodeMapIsPrivate = false;
+			fSuffixIndexCache = null;
+			fStatistics.setNodeMap(fNodeMap);
+		}
+		fPublishedNodeMap = strong ? fNodeMap : null;
 	}
 
 	/**
@@ -194,145 +725,111 @@ class ResourceLookupTree implements IResourceChangeListener, IResourceDeltaVisit
 	 */
 	@Override
 	public boolean visit(IResourceDelta delta) throws CoreException {
-		assert Thread.holdsLock(fLock);
+		assert Thread.holdsLock(fPendingChanges);
 
 		final IResource res = delta.getResource();
 		if (res instanceof IWorkspaceRoot)
 			return VISIT_CHILDREN;
 
 		if (res instanceof IProject) {
-			// project not yet handled
-			final String name = res.getName();
-			final Extensions exts = fFileExtensions.get(name);
-			if (exts == null)
-				return SKIP_CHILDREN;
-
 			switch (delta.getKind()) {
 			case IResourceDelta.ADDED, IResourceDelta.REMOVED: // new projects should not yet be part of the tree
-				fFileExtensions.remove(name);
-				remove(res);
+				queueChange(res, CHANGE_REMOVE);
 				return SKIP_CHILDREN;
 
 			case IResourceDelta.CHANGED:
 				if ((delta.getFlags() & (TRIGGER_RECALC | IResourceDelta.DESCRIPTION)) != 0) {
-					fFileExtensions.remove(name);
-					remove(res);
+					queueChange(res, CHANGE_REMOVE);
 					return SKIP_CHILDREN;
 				}
 				break;
 			}
-			fCurrentExtensions = exts;
 			return VISIT_CHILDREN;
 		}
 
 		// file or folder
+		if (IndexScope.isScopeFile(res)) {
+			// the project is indexed again when it is queried
+			queueChange(res.getProject(), CHANGE_REMOVE);
+			return SKIP_CHILDREN;
+		}
+		if (res.getType() == IResource.FOLDER) {
+			// nothing was indexed below an excluded folder, e.g. the build output
+			final IndexScope scope = fScopes.get(res.getProject().getName());
+			if (scope != null && scope.isExcluded(res.getProjectRelativePath(), true))
+				return SKIP_CHILDREN;
+		}
 		switch (delta.getKind()) {
 		case IResourceDelta.ADDED:
-			add(res);
+			queueChange(res, CHANGE_ADD);
 			return SKIP_CHILDREN;
 
 		case IResourceDelta.CHANGED:
 			if ((delta.getFlags() & TRIGGER_RECALC) != 0) {
-				remove(res);
-				add(res);
+				queueChange(res, CHANGE_REPLACE);
 				return SKIP_CHILDREN;
 			}
 			return VISIT_CHILDREN;
 
 		case IResourceDelta.REMOVED:
-
-			remove(res);
+			queueChange(res, CHANGE_REMOVE);
 			return SKIP_CHILDREN;
 		}
 		return VISIT_CHILDREN;
 	}
 
 	/**
-	 * Add a resource to the tree.
+	 * Returns the heap used by the node map including the names of the nodes.
 	 */
-	private void add(IResource res) {
-		assert Thread.holdsLock(fLock);
+	private long footprint() {
+		return fNodeMap.footprint();
+	}
 
-		if (res instanceof IFile) {
-			final String resName = res.getName();
-			String linkedName = null;
-			if (res.isLinked()) {
-				URI uri = res.getLocationURI();
-				if (uri != null) {
-					linkedName = LocationAdapter.URI.extractName(uri);
-					if (!linkedName.isEmpty() && fCurrentExtensions.isRelevant(linkedName)) {
-						if (linkedName.equals(resName)) {
-							createFileNode(res.getFullPath(), null);
-						} else {
-							createFileNode(res.getFullPath(), linkedName);
-						}
-					}
-				}
-			} else if (fCurrentExtensions.isRelevant(resName)) {
-				createFileNode(res.getFullPath(), null);
-			}
-		} else {
-			long time = 0, count = 0;
-			final boolean trace = fTrace && res instanceof IProject;
-			if (trace) {
-				time = System.currentTimeMillis();
-				count = countNodes();
-			}
-			try {
-				res.accept(this, 0);
-			} catch (CoreException e) {
-				CorrosionPlugin.logError(e);
-			}
-			if (trace) {
-				System.out.println("Built file lookup tree for " + res.getName() + ", took " + //$NON-NLS-1$//$NON-NLS-2$
-						(System.currentTimeMillis() - time) + "ms to add " + (countNodes() - count) + " nodes."); //$NON-NLS-1$ //$NON-NLS-2$
-			}
+	public void unrefNodeMap() {
+		synchronized (fLock) {
+			fNodeMap = null;
+			fPublishedNodeMap = null;
+			fSuffixIndexCache = null;
 		}
 	}
 
-	private long countNodes() {
-		long result = 0;
-		for (Object node : fNodeMap.values()) {
-			if (node instanceof Node[] nodes) {
-				result += nodes.length;
-			} else {
-				result++;
-			}
+	public void simulateNodeMapCollection() {
+		synchronized (fLock) {
+			fNodeMap = null;
+			fPublishedNodeMap = null;
+			fSuffixIndexCache = null;
+			fNodeMapRef = new SoftReference<>(null);
 		}
-		return result;
 	}
 
 	/**
-	 * Add a resource tree by using a resource proxy visitor.
+	 * Returns the published node map, which contains nodes for all of the given
+	 * projects. Blocks only if the map needs to be (re-)created, projects need to
+	 * be indexed or resource changes are pending.
 	 */
-	@Override
-	public boolean visit(IResourceProxy proxy) throws CoreException {
-		if (proxy.getType() == IResource.FILE) {
-			if (fCurrentExtensions.isRelevant(proxy.getName())) {
-				if (proxy.isLinked()) {
-					IResource res = proxy.requestResource();
-					if (res instanceof IFile) {
-						add(res);
-					}
-					return true;
-				}
-				createFileNode(proxy.requestFullPath(), null);
-			}
-		}
-		return true;
-	}
+	private NodeArena getNodeMap(IProject[] projects) {
+		NodeArena nodeMap = fPublishedNodeMap;
+		if (nodeMap != null && !fHasPendingChanges && isInitialized(projects))
+			return nodeMap;
 
-	public void unrefNodeMap() {
 		synchronized (fLock) {
-			fNodeMap = null;
+			final long start = System.nanoTime();
+			try {
+				applyPendingChanges();
+				initializeProjects(projects);
+				return fPublishedNodeMap;
+			} finally {
+				fStatistics.recordLockHeld(System.nanoTime() - start);
+			}
 		}
 	}
 
-	public void simulateNodeMapCollection() {
-		synchronized (fLock) {
-			fNodeMap = null;
-			fNodeMapRef = new SoftReference<>(null);
+	private boolean isInitialized(IProject[] projects) {
+		for (IProject project : projects) {
+			if (!fFileExtensions.containsKey(project.getName()) && project.isOpen())
+				return false;
 		}
+		return true;
 	}
 
 	/**
@@ -342,31 +839,243 @@ class ResourceLookupTree implements IResourceChangeListener, IResourceDeltaVisit
 	private void initializeProjects(IProject[] projects) {
 		assert Thread.holdsLock(fLock);
 
+		initFileExtensions();
 		if (fNodeMap == null) {
 			if (fNodeMapRef != null) {
 				fNodeMap = fNodeMapRef.get();
 			}
 
 			if (fNodeMap == null) {
+				// the map was collected, its projects need to be rebuilt
+				fEvictedProjects.addAll(fFileExtensions.keySet());
 				fFileExtensions.clear();
-				fNodeMap = new HashMap<>();
-				fNodeMapRef = new SoftReference<>(fNodeMap);
+				fNodeMap = new NodeArena();
+				fNodeMapIsPrivate = true;
 			}
 		}
-		fUnrefJob.cancel();
-		fUnrefJob.schedule(UNREF_DELAY);
+		if (fUnrefJob.getState() == Job.NONE) {
+			fUnrefJob.schedule(EVICTION_INTERVAL);
+		}
 
+		final List<IProject> added = new ArrayList<>();
 		for (IProject project : projects) {
-			if (project.isOpen() && !fFileExtensions.containsKey(project.getName())) {
-				Extensions ext = fCorrosionProjectExtensions;
-				fCurrentExtensions = ext;
-				add(project);
-				fFileExtensions.put(project.getName(), ext);
-				fCurrentExtensions = null;
+			if (project.isOpen() && !fFileExtensions.containsKey(project.getName()) && !added.contains(project)) {
+				added.add(project);
+			}
+		}
+		if (!added.isEmpty()) {
+			final long start = System.nanoTime();
+			indexProjects(added, fCorrosionProjectExtensions);
+			final Long now = Long.valueOf(System.currentTimeMillis());
+			int rebuilds = 0;
+			for (IProject project : added) {
+				fProjectAccess.put(project.getName(), now);
+				if (fEvictedProjects.remove(project.getName())) {
+					rebuilds++;
+				}
+			}
+			fStatistics.recordIndexing(added.size(), rebuilds, System.nanoTime() - start);
+		}
+		publishNodeMap(true);
+		// publish the extensions after the map, readers use them to skip the lock
+		for (IProject project : added) {
+			fFileExtensions.put(project.getName(), fCorrosionProjectExtensions);
+		}
+	}
+
+	/**
+	 * Evicts the projects that have not been queried for a while, as well as the
+	 * least recently queried projects while the node map exceeds its memory
+	 * budget.
+	 */
+	private void evictProjects() {
+		assert Thread.holdsLock(fLock);
+
+		applyPendingChanges();
+		if (fNodeMap == null || fFileExtensions.isEmpty())
+			return;
+
+		final long now = System.currentTimeMillis();
+		final long budget = CorrosionPlugin.getDefault().getPreferenceStore()
+				.getInt(CorrosionPreferenceInitializer.RESOURCE_LOOKUP_BUDGET_PREFERENCE) * 1024L * 1024L;
+		final long footprintBefore = fStatistics.isTracing() ? footprint() : 0;
+		long footprint = footprint();
+		final long bytesPerNode = footprint / Math.max(1, fNodeMap.size());
+		int[] subtreeSizes = null;
+
+		final List<String> projects = new ArrayList<>(fFileExtensions.keySet());
+		projects.sort(Comparator.comparingLong(this::getLastAccess));
+		final List<String> evicted = new ArrayList<>();
+		for (String name : projects) {
+			final long idle = now - getLastAccess(name);
+			if (idle < UNREF_DELAY) {
+				// least recently queried first, the remaining projects are more recent
+				if (footprint <= budget || idle < MIN_EVICTION_IDLE)
+					break;
+			}
+			final IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(name);
+			final int node = findProjectNode(fNodeMap, name);
+			if (node >= 0) {
+				if (subtreeSizes == null) {
+					subtreeSizes = fNodeMap.getSubtreeSizes();
+				}
+				footprint -= subtreeSizes[node] * bytesPerNode;
 			}
+			fFileExtensions.remove(name);
+			fScopes.remove(name);
+			fProjectAccess.remove(name);
+			remove(project);
+			fEvictedProjects.add(name);
+			evicted.add(name);
+		}
+		if (evicted.isEmpty())
+			return;
+
+		fStatistics.recordEvictions(evicted.size());
+		cleanup();
+		fNeedCleanup = false;
+		if (fFileExtensions.isEmpty()) {
+			// nothing left, drop the map
+			fNodeMap = null;
+			fNodeMapRef = null;
+			fPublishedNodeMap = null;
+			fSuffixIndexCache = null;
+			fStatistics.setNodeMap(null);
+		} else {
+			publishNodeMap(true);
+		}
+		if (fStatistics.isTracing()) {
+			fStatistics.trace("Evicted " + evicted + " from file lookup tree, heap footprint " + footprintBefore //$NON-NLS-1$ //$NON-NLS-2$
+					+ " -> " + (fNodeMap == null ? 0 : footprint()) + " bytes."); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	private long getLastAccess(String projectName) {
+		return fProjectAccess.getOrDefault(projectName, Long.valueOf(0)).longValue();
+	}
+
+	/**
+	 * Records that the given projects have been queried.
+	 */
+	private void touchProjects(IProject[] projects) {
+		final Long now = Long.valueOf(System.currentTimeMillis());
+		for (IProject project : projects) {
+			fProjectAccess.replace(project.getName(), now);
 		}
 	}
 
+	/**
+	 * Records that the projects of the given files have been queried.
+	 */
+	private void touchProjects(IFile[] files) {
+		final Long now = Long.valueOf(System.currentTimeMillis());
+		for (IFile file : files) {
+			fProjectAccess.replace(file.getProject().getName(), now);
+		}
+	}
+
+	private static int findProjectNode(NodeArena nodeMap, String name) {
+		final char[] chars = name.toCharArray();
+		final int hash = NodeArena.hashCode(chars);
+		for (int entry = nodeMap.first(hash); entry >= 0; entry = nodeMap.next(entry)) {
+			final int node = nodeMap.node(entry);
+			if (nodeMap.parent(node) == NodeArena.ROOT && nodeMap.nameEquals(node, chars))
+				return node;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the counters of the tree.
+	 */
+	public ResourceLookupStatistics getStatistics() {
+		return fStatistics;
+	}
+
+	/**
+	 * Returns the number of projects that have been evicted from the tree.
+	 */
+	public int getEvictionCount() {
+		return (int) fStatistics.getEvictionCount();
+	}
+
+	/**
+	 * Returns the number of projects that have been indexed again after they were
+	 * evicted or the tree was collected.
+	 */
+	public int getRebuildCount() {
+		return (int) fStatistics.getRebuildCount();
+	}
+
+	/**
+	 * Returns the projects a location lookup needs to be indexed. An evicted
+	 * project is included only if the location lies within the project.
+	 */
+	private <T> IProject[] getProjectsForLocation(T location, LocationAdapter<T> adapter) {
+		final IProject[] projects = ResourcesPlugin.getWorkspace().getRoot().getProjects();
+		if (fEvictedProjects.isEmpty())
+			return projects;
+
+		final IPath path = adapter.toPath(location);
+		final List<IProject> result = new ArrayList<>(projects.length);
+		for (IProject project : projects) {
+			if (!fEvictedProjects.contains(project.getName())) {
+				result.add(project);
+			} else if (path != null) {
+				final IPath projectLocation = project.getLocation();
+				if (projectLocation != null && projectLocation.isPrefixOf(path)) {
+					result.add(project);
+				}
+			}
+		}
+		return result.toArray(new IProject[result.size()]);
+	}
+
+	/**
+	 * Adds the nodes for the given projects. Multiple projects are walked in
+	 * parallel, each into a separate node map. The maps are merged in the order of
+	 * the projects.
+	 */
+	private void indexProjects(List<IProject> projects, Extensions exts) {
+		assert Thread.holdsLock(fLock);
+
+		long time = 0, count = 0, footprint = 0;
+		if (fStatistics.isTracing()) {
+			time = System.currentTimeMillis();
+			count = fNodeMap.size();
+			footprint = footprint();
+		}
+		if (projects.size() == 1) {
+			new Indexer(null, exts).add(projects.get(0));
+		} else {
+			final List<NodeArena> nodeMaps = projects.parallelStream().map(project -> {
+				final Indexer indexer = new Indexer(new NodeArena(), exts);
+				indexer.add(project);
+				return indexer.fTarget;
+			}).toList();
+			final NodeArena nodeMap = modifiableNodeMap();
+			for (NodeArena projectNodeMap : nodeMaps) {
+				nodeMap.addAll(projectNodeMap);
+			}
+		}
+		if (fStatistics.isTracing()) {
+			fStatistics.trace("Built file lookup tree for " //$NON-NLS-1$
+					+ projects.stream().map(IProject::getName).collect(Collectors.joining(", ")) + ", took " //$NON-NLS-1$ //$NON-NLS-2$
+					+ (System.currentTimeMillis() - time) + "ms to add " + (fNodeMap.size() - count) + " nodes, " //$NON-NLS-1$ //$NON-NLS-2$
+					+ "heap footprint " + footprint + " -> " + footprint() + " bytes."); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
+	/**
+	 * Returns the scope of the given project, which is created when it is first
+	 * needed.
+	 */
+	private IndexScope getScope(IProject project) {
+		return fScopes.computeIfAbsent(project.getName(),
+				name -> IndexScope.create(project, CorrosionPlugin.getDefault().getPreferenceStore()
+						.getBoolean(CorrosionPreferenceInitializer.RESOURCE_LOOKUP_MEMBERS_ONLY_PREFERENCE)));
+	}
+
 	/**
 	 * Initializes file-extensions and node map
 	 */
@@ -417,111 +1126,161 @@ class ResourceLookupTree implements IResourceChangeListener, IResourceDeltaVisit
 	}
 
 	/**
-	 * Inserts a node for the given path.
+	 * Adds resources to a node map. A separate map is used when indexing projects
+	 * in parallel, otherwise the nodes are added to the node map of the tree.
 	 */
-	private void createFileNode(IPath fullPath, String fileLink) {
-		final String[] segments = fullPath.segments();
-		final boolean isFileLinkTarget = fileLink != null;
-		final char[][] charArraySegments = toCharArrayArray(segments, fileLink);
-		createNode(charArraySegments, charArraySegments.length, true, isFileLinkTarget);
-	}
-
-	private static char[][] toCharArrayArray(String[] segments, String fileLink) {
-		final int segmentLen = segments.length;
-		char[][] chsegs;
-		if (fileLink != null) {
-			chsegs = new char[segmentLen + 1][];
-			chsegs[segmentLen] = fileLink.toCharArray();
-		} else {
-			chsegs = new char[segmentLen][];
+	private class Indexer implements IResourceProxyVisitor {
+		final NodeArena fTarget;
+		private final Extensions fExtensions;
+		private IndexScope fScope;
+		private int fLastFolderNode = -1;
+
+		/**
+		 * @param target the map to add the nodes to, or <code>null</code> for the node
+		 *               map of the tree.
+		 */
+		Indexer(NodeArena target, Extensions exts) {
+			fTarget = target;
+			fExtensions = exts;
 		}
-		for (int i = 0; i < segmentLen; i++) {
-			chsegs[i] = segments[i].toCharArray();
-		}
-		return chsegs;
-	}
 
-	/**
-	 * Inserts a node for the given path.
-	 */
-	private Node createNode(char[][] segments, int segmentCount, boolean hasFileLocationName,
-			boolean isFileLinkTarget) {
-		assert Thread.holdsLock(fLock);
+		/**
+		 * Add a resource to the tree.
+		 */
+		void add(IResource res) {
+			fScope = getScope(res.getProject());
+			if (!fScope.contains(res.getProjectRelativePath(), res.getType() != IResource.FILE))
+				return;
 
-		if (segmentCount == 0)
-			return fRootNode;
+			if (res instanceof IFile) {
+				final String resName = res.getName();
+				String linkedName = null;
+				if (res.isLinked()) {
+					URI uri = res.getLocationURI();
+					if (uri != null) {
+						linkedName = LocationAdapter.URI.extractName(uri);
+						if (!linkedName.isEmpty() && fExtensions.isRelevant(linkedName)) {
+							if (linkedName.equals(resName)) {
+								createFileNode(res.getFullPath(), null, true);
+							} else {
+								createFileNode(res.getFullPath(), linkedName, true);
+							}
+						}
+					}
+				} else if (fExtensions.isRelevant(resName)) {
+					createFileNode(res.getFullPath(), null, false);
+				}
+			} else {
+				try {
+					res.accept(this, 0);
+				} catch (CoreException e) {
+					CorrosionPlugin.logError(e);
+				}
+			}
+		}
 
-		if (!hasFileLocationName && fLastFolderNode != null) {
-			if (isNodeForSegments(fLastFolderNode, segments, segmentCount, isFileLinkTarget))
-				return fLastFolderNode;
+		/**
+		 * Add a resource tree by using a resource proxy visitor. Excluded folders are
+		 * skipped together with their children.
+		 */
+		@Override
+		public boolean visit(IResourceProxy proxy) throws CoreException {
+			if (proxy.getType() == IResource.FOLDER)
+				return !fScope.isExcluded(proxy.requestFullPath().removeFirstSegments(1), true);
+
+			if (proxy.getType() == IResource.FILE) {
+				if (fExtensions.isRelevant(proxy.getName()) && (!fScope.hasFileRules()
+						|| !fScope.isExcluded(proxy.requestFullPath().removeFirstSegments(1), false))) {
+					if (proxy.isLinked()) {
+						IResource res = proxy.requestResource();
+						if (res instanceof IFile) {
+							add(res);
+						}
+						return true;
+					}
+					createFileNode(proxy.requestFullPath(), null, false);
+				}
+			}
+			return true;
 		}
 
-		final char[] name = segments[segmentCount - 1];
-		final int hash = hashCode(name);
+		/**
+		 * Inserts a node for the given path.
+		 */
+		private void createFileNode(IPath fullPath, String fileLink, boolean isLinked) {
+			final String[] segments = fullPath.segments();
+			final boolean isFileLinkTarget = fileLink != null;
+			final char[][] charArraySegments = toCharArrayArray(segments, fileLink);
+			createNode(charArraySegments, charArraySegments.length, true, isFileLinkTarget, isLinked);
+		}
 
-		// search for existing node
-		Object obj = fNodeMap.get(hash);
+		/**
+		 * Inserts a node for the given path.
+		 */
+		private int createNode(char[][] segments, int segmentCount, boolean hasFileLocationName,
+				boolean isFileLinkTarget, boolean isLinked) {
+			if (segmentCount == 0)
+				return NodeArena.ROOT;
+
+			final NodeArena nodeMap = fTarget != null ? fTarget : fNodeMap;
+			if (!hasFileLocationName && fLastFolderNode >= 0) {
+				if (isNodeForSegments(nodeMap, fLastFolderNode, segments, segmentCount, isFileLinkTarget))
+					return fLastFolderNode;
+			}
 
-		Node[] nodes = null;
-		int len = 0;
-		if (obj != null) {
-			if (obj instanceof Node node) {
-				if (isNodeForSegments(node, segments, segmentCount, isFileLinkTarget)) {
+			final char[] name = segments[segmentCount - 1];
+			final int hash = NodeArena.hashCode(name);
+
+			// search for existing node
+			for (int entry = nodeMap.first(hash); entry >= 0; entry = nodeMap.next(entry)) {
+				final int node = nodeMap.node(entry);
+				if (isNodeForSegments(nodeMap, node, segments, segmentCount, isFileLinkTarget)) {
 					if (!hasFileLocationName)
 						fLastFolderNode = node;
 					return node;
 				}
-				nodes = new Node[] { node, null };
-				fNodeMap.put(hash, nodes);
-				len = 1;
-			} else {
-				nodes = (Node[]) obj;
-				for (len = 0; len < nodes.length; len++) {
-					Node node = nodes[len];
-					if (node == null)
-						break;
-					if (isNodeForSegments(node, segments, segmentCount, isFileLinkTarget)) {
-						if (!hasFileLocationName)
-							fLastFolderNode = node;
-						return node;
-					}
-				}
 			}
+			final int parent = createNode(segments, segmentCount - 1, false, false, false);
+			final byte flags = (byte) ((hasFileLocationName ? NodeArena.FILE_LOCATION_NAME : 0)
+					| (isFileLinkTarget ? NodeArena.FILE_LINK_TARGET : 0) | (isLinked ? NodeArena.LINKED : 0));
+			final int node = (fTarget != null ? fTarget : modifiableNodeMap()).add(parent, name, hash, flags);
+
+			if (!hasFileLocationName)
+				fLastFolderNode = node;
+			return node;
 		}
-		final Node parent = createNode(segments, segmentCount - 1, false, false);
-		Node node = new Node(parent, name, hasFileLocationName, isFileLinkTarget);
-		if (nodes == null) {
-			fNodeMap.put(hash, node);
+	}
+
+	private static char[][] toCharArrayArray(String[] segments, String fileLink) {
+		final int segmentLen = segments.length;
+		char[][] chsegs;
+		if (fileLink != null) {
+			chsegs = new char[segmentLen + 1][];
+			chsegs[segmentLen] = fileLink.toCharArray();
 		} else {
-			if (len == nodes.length) {
-				Node[] newNodes = new Node[len + 2];
-				System.arraycopy(nodes, 0, newNodes, 0, len);
-				nodes = newNodes;
-				fNodeMap.put(hash, nodes);
-			}
-			nodes[len] = node;
+			chsegs = new char[segmentLen][];
 		}
-
-		if (!hasFileLocationName)
-			fLastFolderNode = node;
-		return node;
+		for (int i = 0; i < segmentLen; i++) {
+			chsegs[i] = segments[i].toCharArray();
+		}
+		return chsegs;
 	}
 
 	/**
 	 * Checks whether the given node matches the given segments.
 	 */
-	private boolean isNodeForSegments(Node node, char[][] segments, int segmentLength, boolean isFileLinkTarget) {
-		assert Thread.holdsLock(fLock);
-
-		if (node.fIsFileLinkTarget != isFileLinkTarget)
+	private static boolean isNodeForSegments(NodeArena nodeMap, int node, char[][] segments, int segmentLength,
+			boolean isFileLinkTarget) {
+		if (nodeMap.isFileLinkTarget(node) != isFileLinkTarget)
 			return false;
 
-		while (segmentLength > 0 && node != null) {
-			if (!Arrays.equals(segments[--segmentLength], node.fResourceName))
+		while (segmentLength > 0 && node >= 0) {
+			// nodes below a removed folder remain until the next cleanup
+			if (nodeMap.isDeleted(node) || !nodeMap.nameEquals(node, segments[--segmentLength]))
 				return false;
-			node = node.fParent;
+			node = nodeMap.parent(node);
 		}
-		return node == fRootNode;
+		return node == NodeArena.ROOT;
 	}
 
 	/**
@@ -531,10 +1290,10 @@ class ResourceLookupTree implements IResourceChangeListener, IResourceDeltaVisit
 		assert Thread.holdsLock(fLock);
 
 		final char[] name = res.getName().toCharArray();
-		final int hash = hashCode(name);
+		final int hash = NodeArena.hashCode(name);
 
-		Object obj = fNodeMap.get(hash);
-		if (obj == null)
+		int entry = fNodeMap.first(hash);
+		if (entry < 0)
 			return;
 
 		final IPath fullPath = res.getFullPath();
@@ -543,109 +1302,21 @@ class ResourceLookupTree implements IResourceChangeListener, IResourceDeltaVisit
 			return;
 
 		final char[][] segments = toCharArrayArray(fullPath.segments(), null);
-		if (obj instanceof Node node) {
-			if (!node.fDeleted && isNodeForSegments(node, segments, segmentCount, false)) {
-				node.fDeleted = true;
-				if (node.fHasChildren)
+		for (; entry >= 0; entry = fNodeMap.next(entry)) {
+			final int node = fNodeMap.node(entry);
+			if (isNodeForSegments(fNodeMap, node, segments, segmentCount, false)) {
+				final NodeArena nodeMap = modifiableNodeMap();
+				nodeMap.remove(hash, entry);
+				if (nodeMap.hasChildren(node))
 					fNeedCleanup = true;
-				fNodeMap.remove(hash);
-			}
-		} else {
-			final Node[] nodes = (Node[]) obj;
-			for (int i = 0; i < nodes.length; i++) {
-				Node node = nodes[i];
-				if (node == null)
-					return;
-				if (!node.fDeleted && isNodeForSegments(node, segments, segmentCount, false)) {
-					remove(nodes, i);
-
-					if (nodes[0] == null)
-						fNodeMap.remove(hash);
-
-					node.fDeleted = true;
-					if (node.fHasChildren)
-						fNeedCleanup = true;
-
-					return;
-				}
+				return;
 			}
 		}
 	}
 
-	private static void remove(Node[] nodes, int i) {
-		int idx = lastValid(nodes, i);
-		if (idx > 0) {
-			nodes[i] = nodes[idx];
-			nodes[idx] = null;
-		}
-	}
-
-	private static int lastValid(Node[] nodes, int left) {
-		int right = nodes.length - 1;
-		while (left < right) {
-			int mid = (left + right + 1) / 2; // ==> mid > left
-			if (nodes[mid] == null)
-				right = mid - 1;
-			else
-				left = mid;
-		}
-		return right;
-	}
-
 	private void cleanup() {
 		assert Thread.holdsLock(fLock);
-		fLastFolderNode = null;
-
-		for (Iterator<Object> iterator = fNodeMap.values().iterator(); iterator.hasNext();) {
-			Object obj = iterator.next();
-			if (obj instanceof Node node) {
-				if (isDeleted(node)) {
-					iterator.remove();
-				}
-			} else {
-				Node[] nodes = (Node[]) obj;
-				int j = 0;
-				for (int i = 0; i < nodes.length; i++) {
-					final Node node = nodes[i];
-					if (node == null) {
-						if (j == 0) {
-							iterator.remove();
-						}
-						break;
-					}
-					if (!isDeleted(node)) {
-						if (i != j) {
-							nodes[j] = node;
-							nodes[i] = null;
-						}
-						j++;
-					} else {
-						nodes[i] = null;
-					}
-				}
-			}
-		}
-	}
-
-	private static boolean isDeleted(Node node) {
-		while (node != null) {
-			if (node.fDeleted)
-				return true;
-			node = node.fParent;
-		}
-		return false;
-	}
-
-	/**
-	 * Computes a case insensitive hash-code for file names.
-	 */
-	private static int hashCode(char[] name) {
-		int h = 0;
-		final int len = name.length;
-		for (int i = 0; i < len; i++) {
-			h = 31 * h + Character.toUpperCase(name[i]);
-		}
-		return h;
+		modifiableNodeMap().compact();
 	}
 
 	/**
@@ -672,32 +1343,70 @@ class ResourceLookupTree implements IResourceChangeListener, IResourceDeltaVisit
 	 * as a fallback the platform's method is called.
 	 */
 	public <T> IFile[] findFilesForLocation(T location, LocationAdapter<T> adapter) {
-		initFileExtensions();
+		final long start = System.nanoTime();
+		final ResourceLookupStatistics.Lookup lookup = adapter == LocationAdapter.URI
+				? ResourceLookupStatistics.Lookup.LOCATION_URI
+				: ResourceLookupStatistics.Lookup.LOCATION;
 		String name = adapter.extractName(location);
-		Node[] candidates = null;
-		synchronized (fLock) {
-			initializeProjects(ResourcesPlugin.getWorkspace().getRoot().getProjects());
-			Object obj = fNodeMap.get(hashCode(name.toCharArray()));
-			if (obj != null) {
-				candidates = convert(obj);
-				IFile[] result = extractMatchesForLocation(candidates, location, adapter);
-				if (result.length > 0)
-					return result;
+		NodeArena nodeMap = getNodeMap(getProjectsForLocation(location, adapter));
+		int[] candidates = nodeMap.get(NodeArena.hashCode(name.toCharArray()));
+		if (candidates.length > 0) {
+			IFile[] result = extractMatchesForLocation(nodeMap, candidates, location, adapter, null);
+			if (result.length > 0) {
+				touchProjects(result);
+				fStatistics.recordLookup(lookup, System.nanoTime() - start, candidates.length, result.length, false);
+				return result;
 			}
 		}
 
 		// fall back to platform functionality
-		return adapter.platformsFindFilesForLocation(location);
+		final IFile[] result = adapter.platformsFindFilesForLocation(location);
+		fStatistics.recordLookup(lookup, System.nanoTime() - start, candidates.length, 0, true);
+		return result;
 	}
 
-	private static Node[] convert(Object obj) {
-		if (obj instanceof Node node)
-			return new Node[] { node };
-
-		final Node[] nodes = (Node[]) obj;
-		final int len = lastValid(nodes, -1) + 1;
-		final Node[] result = new Node[len];
-		System.arraycopy(nodes, 0, result, 0, len);
+	/**
+	 * Searches for the files of each of the given locations, see
+	 * {@link #findFilesForLocation(IPath)}. The projects of all locations are
+	 * initialized together, such that the lock is taken at most once. Candidates
+	 * shared by locations with the same name are looked up and decoded once.
+	 *
+	 * @return a map from each location to its files, in the order of the
+	 *         locations.
+	 */
+	public Map<IPath, IFile[]> findFilesForLocations(Collection<IPath> locations) {
+		final Map<IPath, IFile[]> result = new LinkedHashMap<>();
+		if (locations.isEmpty())
+			return result;
+
+		final Set<IProject> projects = new LinkedHashSet<>();
+		for (IPath location : locations) {
+			projects.addAll(Arrays.asList(getProjectsForLocation(location, LocationAdapter.PATH)));
+		}
+		final NodeArena nodeMap = getNodeMap(projects.toArray(new IProject[projects.size()]));
+		final Map<String, int[]> candidatesByName = new HashMap<>();
+		final Map<Integer, IFile> decoded = new HashMap<>();
+		for (IPath location : locations) {
+			if (result.containsKey(location))
+				continue;
+
+			final long start = System.nanoTime();
+			final int[] candidates = candidatesByName.computeIfAbsent(LocationAdapter.PATH.extractName(location),
+					name -> nodeMap.get(NodeArena.hashCode(name.toCharArray())));
+			IFile[] files = NO_FILES;
+			if (candidates.length > 0) {
+				files = extractMatchesForLocation(nodeMap, candidates, location, LocationAdapter.PATH, decoded);
+			}
+			final boolean fallback = files.length == 0;
+			if (fallback) {
+				files = LocationAdapter.PATH.platformsFindFilesForLocation(location);
+			} else {
+				touchProjects(files);
+			}
+			fStatistics.recordLookup(ResourceLookupStatistics.Lookup.LOCATION, System.nanoTime() - start,
+					candidates.length, fallback ? 0 : files.length, fallback);
+			result.put(location, files);
+		}
 		return result;
 	}
 
@@ -710,17 +1419,15 @@ class ResourceLookupTree implements IResourceChangeListener, IResourceDeltaVisit
 		if (segCount < 1)
 			return NO_FILES;
 
+		final long start = System.nanoTime();
 		final String name = relativeLocation.lastSegment();
-		Node[] candidates;
-
-		initFileExtensions();
-		synchronized (fLock) {
-			initializeProjects(projects);
-			Object obj = fNodeMap.get(hashCode(name.toCharArray()));
-			if (obj == null) {
-				return NO_FILES;
-			}
-			candidates = convert(obj);
+		final NodeArena nodeMap = getNodeMap(projects);
+		touchProjects(projects);
+		final int hash = NodeArena.hashCode(name.toCharArray());
+		final int[] candidates = nodeMap.get(hash);
+		if (candidates.length == 0) {
+			fStatistics.recordLookup(ResourceLookupStatistics.Lookup.NAME, System.nanoTime() - start, 0, 0, false);
+			return NO_FILES;
 		}
 		String suffix = relativeLocation.toString();
 		while (suffix.startsWith("../")) { //$NON-NLS-1$
@@ -730,14 +1437,19 @@ class ResourceLookupTree implements IResourceChangeListener, IResourceDeltaVisit
 		for (IProject prj : projects) {
 			prjset.add(prj.getName());
 		}
-		return extractMatchesForName(candidates, name, suffix, ignoreCase, prjset);
+		final IFile[] result = extractMatchesForName(nodeMap, hash, candidates, name, suffix, ignoreCase, prjset);
+		fStatistics.recordLookup(ResourceLookupStatistics.Lookup.NAME, System.nanoTime() - start, candidates.length,
+				result.length, false);
+		return result;
 	}
 
 	/**
-	 * Selects the actual matches for the list of candidate nodes.
+	 * Selects the actual matches for the list of candidate nodes. For a large
+	 * number of candidates a {@link SuffixIndex} of their locations is used to
+	 * select the candidates that can match.
 	 */
-	private IFile[] extractMatchesForName(Node[] candidates, String name, String suffix, boolean ignoreCase,
-			Set<String> prjSet) {
+	private IFile[] extractMatchesForName(NodeArena nodeMap, int hash, int[] candidates, String name, String suffix,
+			boolean ignoreCase, Set<String> prjSet) {
 		final char[] n1 = name.toCharArray();
 		final int namelen = n1.length;
 		int resultIdx = 0;
@@ -749,26 +1461,35 @@ class ResourceLookupTree implements IResourceChangeListener, IResourceDeltaVisit
 		}
 		final int suffixLen = suffix.length();
 		final IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		final SuffixIndex index = candidates.length < SUFFIX_INDEX_THRESHOLD ? null
+				: getSuffixIndex(nodeMap, hash, candidates);
+		final int[] entries = index == null ? null : index.lookup(suffix);
+		final int count = entries == null ? candidates.length : entries.length;
 		IFile[] result = null;
-		outer: for (int i = 0; i < candidates.length; i++) {
-			final Node node = candidates[i];
-			if (node.fHasFileLocationName && checkProject(node, prjSet)) {
-				final char[] n2 = node.fResourceName;
-				if (namelen == n2.length) {
-					for (int j = 0; j < n2.length; j++) {
-						final char c = ignoreCase ? Character.toUpperCase(n2[j]) : n2[j];
+		outer: for (int k = 0; k < count; k++) {
+			final int i = entries == null ? k : entries[k];
+			final int node = candidates[i];
+			if (nodeMap.hasFileLocationName(node) && checkProject(nodeMap, node, prjSet)) {
+				if (namelen == nodeMap.getNameLength(node)) {
+					for (int j = 0; j < namelen; j++) {
+						final char c2 = nodeMap.getNameChar(node, j);
+						final char c = ignoreCase ? Character.toUpperCase(c2) : c2;
 						if (c != n1[j])
 							continue outer;
 					}
-					final IFile file = root.getFile(createPath(node));
-					final URI loc = file.getLocationURI();
-					if (loc != null) {
-						String path = loc.getPath();
+					final String path;
+					if (index != null) {
+						path = index.getLocation(i);
+					} else {
+						final URI loc = root.getFile(createPath(nodeMap, node)).getLocationURI();
+						path = loc == null ? null : loc.getPath();
+					}
+					if (path != null) {
 						final int len = path.length();
 						if (len >= suffixLen && suffix.regionMatches(ignoreCase, 0, path, len - suffixLen, suffixLen)) {
 							if (result == null)
-								result = new IFile[candidates.length - i];
-							result[resultIdx++] = root.getFile(createPath(node));
+								result = new IFile[count - k];
+							result[resultIdx++] = root.getFile(createPath(nodeMap, node));
 						}
 					}
 				}
@@ -785,60 +1506,156 @@ class ResourceLookupTree implements IResourceChangeListener, IResourceDeltaVisit
 		return result;
 	}
 
-	private boolean checkProject(Node node, Set<String> prjSet) {
+	/**
+	 * Returns the suffix index for the candidates of the given name hash. Indexes
+	 * are cached for the published node map.
+	 */
+	private SuffixIndex getSuffixIndex(NodeArena nodeMap, int hash, int[] candidates) {
+		SuffixIndexCache cache = fSuffixIndexCache;
+		if (cache == null || cache.fNodeMap != nodeMap) {
+			cache = new SuffixIndexCache(nodeMap);
+			fSuffixIndexCache = cache;
+		}
+		final Integer key = Integer.valueOf(hash);
+		synchronized (cache) {
+			final SuffixIndex index = cache.get(key);
+			if (index != null)
+				return index;
+		}
+		final IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+		final String[] locations = new String[candidates.length];
+		for (int i = 0; i < candidates.length; i++) {
+			final int node = candidates[i];
+			if (nodeMap.hasFileLocationName(node)) {
+				final URI loc = root.getFile(createPath(nodeMap, node)).getLocationURI();
+				locations[i] = loc == null ? null : loc.getPath();
+			}
+		}
+		final SuffixIndex index = new SuffixIndex(locations);
+		synchronized (cache) {
+			cache.put(key, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the attributes that determine the relevance of the given files, see
+	 * {@link FileRelevance#getFlags(IFile)}. For files in the index the
+	 * attributes are taken from the index: indexed files are accessible, whether
+	 * they are linked is recorded when they are indexed and whether they are
+	 * symbolic links when that is first asked for. Hence the file system is
+	 * accessed at most once per file.
+	 */
+	int[] getRelevanceFlags(IFile[] files) {
+		final int[] result = new int[files.length];
+		final NodeArena nodeMap = fPublishedNodeMap;
+		for (int i = 0; i < files.length; i++) {
+			final IFile file = files[i];
+			final int node = nodeMap == null ? -1 : findFileNode(nodeMap, file);
+			if (node < 0) {
+				result[i] = FileRelevance.getFlags(file);
+			} else if (nodeMap.isLinked(node)) {
+				result[i] = FileRelevance.ACCESSIBLE | FileRelevance.LINKED;
+			} else {
+				Boolean symbolicLink = nodeMap.isSymbolicLink(node);
+				if (symbolicLink == null) {
+					final ResourceAttributes ra = file.getResourceAttributes();
+					symbolicLink = Boolean.valueOf(ra != null && ra.isSymbolicLink());
+					nodeMap.setSymbolicLink(node, symbolicLink.booleanValue());
+				}
+				result[i] = FileRelevance.ACCESSIBLE
+						| (symbolicLink.booleanValue() ? FileRelevance.SYMBOLIC_LINK : 0);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the node of the given file, or -1 if the file is not indexed.
+	 */
+	private static int findFileNode(NodeArena nodeMap, IFile file) {
+		final String[] segments = file.getFullPath().segments();
+		int node = findFileNode(nodeMap, toCharArrayArray(segments, null), false);
+		if (node < 0 && file.isLinked()) {
+			final URI uri = file.getLocationURI();
+			if (uri != null) {
+				node = findFileNode(nodeMap, toCharArrayArray(segments, LocationAdapter.URI.extractName(uri)), true);
+			}
+		}
+		return node;
+	}
+
+	private static int findFileNode(NodeArena nodeMap, char[][] segments, boolean isFileLinkTarget) {
+		if (segments.length == 0)
+			return -1;
+
+		final int hash = NodeArena.hashCode(segments[segments.length - 1]);
+		for (int entry = nodeMap.first(hash); entry >= 0; entry = nodeMap.next(entry)) {
+			final int node = nodeMap.node(entry);
+			if (nodeMap.hasFileLocationName(node)
+					&& isNodeForSegments(nodeMap, node, segments, segments.length, isFileLinkTarget))
+				return node;
+		}
+		return -1;
+	}
+
+	private static boolean checkProject(NodeArena nodeMap, int node, Set<String> prjSet) {
 		while (true) {
-			final Node n = node.fParent;
-			if (n == fRootNode)
+			final int n = nodeMap.parent(node);
+			if (n == NodeArena.ROOT)
 				break;
-			if (n == null)
+			if (n < 0)
 				return false;
 			node = n;
 		}
-		return prjSet.contains(new String(node.fResourceName));
+		return prjSet.contains(nodeMap.getNameString(node));
 	}
 
-	private IPath createPath(Node node) {
-		if (node == fRootNode)
+	private static IPath createPath(NodeArena nodeMap, int node) {
+		if (node == NodeArena.ROOT)
 			return Path.ROOT;
 
-		if (node.fIsFileLinkTarget)
-			return createPath(node.fParent);
+		if (nodeMap.isFileLinkTarget(node))
+			return createPath(nodeMap, nodeMap.parent(node));
 
-		return createPath(node.fParent).append(new String(node.fResourceName));
+		return createPath(nodeMap, nodeMap.parent(node)).append(nodeMap.getNameString(node));
 	}
 
 	/**
 	 * Selects the actual matches from the list of candidates
 	 */
-	private <T> IFile[] extractMatchesForLocation(Node[] candidates, T location, LocationAdapter<T> adapter) {
+	private static <T> IFile[] extractMatchesForLocation(NodeArena nodeMap, int[] candidates, T location,
+			LocationAdapter<T> adapter, Map<Integer, IFile> decoded) {
 		final IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
 		final String searchPath = adapter.getCanonicalPath(location);
 		IFile[] result = null;
 		int resultIdx = 0;
 		for (int i = 0; i < candidates.length; i++) {
-			final Node node = candidates[i];
-			if (node.fHasFileLocationName) {
-				final IFile file = root.getFile(createPath(node));
+			final int node = candidates[i];
+			if (nodeMap.hasFileLocationName(node)) {
+				final IFile file = decoded == null ? root.getFile(createPath(nodeMap, node))
+						: decoded.computeIfAbsent(Integer.valueOf(node), n -> root.getFile(createPath(nodeMap, node)));
 				final T loc = adapter.getLocation(file);
 				if (loc != null) {
 					if (!loc.equals(location)) {
 						if (searchPath == null)
 							continue;
 
-						if (node.fCanonicHash != 0 && node.fCanonicHash != searchPath.hashCode())
+						final int canonicHash = nodeMap.getCanonicHash(node);
+						if (canonicHash != 0 && canonicHash != searchPath.hashCode())
 							continue;
 
 						final String candPath = adapter.getCanonicalPath(loc);
 						if (candPath == null)
 							continue;
 
-						node.fCanonicHash = candPath.hashCode();
+						nodeMap.setCanonicHash(node, candPath.hashCode());
 						if (!candPath.equals(searchPath))
 							continue;
 					}
 					if (result == null)
 						result = new IFile[candidates.length - i];
-					result[resultIdx++] = root.getFile(createPath(node));
+					result[resultIdx++] = file;
 				}
 			}
 		}
@@ -855,16 +1672,9 @@ class ResourceLookupTree implements IResourceChangeListener, IResourceDeltaVisit
 
 	public void dump() {
 		List<String> lines = new ArrayList<>();
-		synchronized (fLock) {
-			for (Object object : fNodeMap.values()) {
-				Node[] nodes = convert(object);
-				for (final Node node : nodes) {
-					if (node == null) {
-						break;
-					}
-					lines.add(toString(node));
-				}
-			}
+		NodeArena nodeMap = fPublishedNodeMap;
+		if (nodeMap != null) {
+			nodeMap.forEach(node -> lines.add(toString(nodeMap, node)));
 		}
 		Collections.sort(lines);
 		System.out.println("Dumping files:"); //$NON-NLS-1$
@@ -874,10 +1684,10 @@ class ResourceLookupTree implements IResourceChangeListener, IResourceDeltaVisit
 		System.out.flush();
 	}
 
-	private String toString(Node node) {
-		if (node == fRootNode)
+	private static String toString(NodeArena nodeMap, int node) {
+		if (node == NodeArena.ROOT)
 			return ""; //$NON-NLS-1$
 
-		return toString(node.fParent) + "/" + new String(node.fResourceName); //$NON-NLS-1$
+		return toString(nodeMap, nodeMap.parent(node)) + "/" + nodeMap.getNameString(node); //$NON-NLS-1$
 	}
 }
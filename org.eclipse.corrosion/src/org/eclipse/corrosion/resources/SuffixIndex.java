@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.resources;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index of the locations of files with the same name, keyed on the segments of
+ * the locations in reverse order. Finds the locations ending with a relative
+ * path by following the segments of the path from its end, rather than by
+ * comparing every location.
+ *
+ * Segments are compared ignoring case. The first segment of a relative path is
+ * allowed to match the end of a segment, hence callers need to verify the
+ * locations returned, which also takes care of case sensitive lookups. An index
+ * reflects the locations at the time it was built.
+ */
+final class SuffixIndex {
+	private static final int[] NO_ENTRIES = {};
+
+	private static final class Level {
+		Map<String, Level> fChildren;
+		int[] fEntries = NO_ENTRIES;
+		int fCount;
+
+		Level child(String segment) {
+			if (fChildren == null) {
+				fChildren = new HashMap<>(4);
+			}
+			return fChildren.computeIfAbsent(segment, s -> new Level());
+		}
+
+		void add(int entry) {
+			if (fCount == fEntries.length) {
+				fEntries = Arrays.copyOf(fEntries, Math.max(4, 2 * fCount));
+			}
+			fEntries[fCount++] = entry;
+		}
+
+		void trim() {
+			if (fCount < fEntries.length) {
+				fEntries = Arrays.copyOf(fEntries, fCount);
+			}
+			if (fChildren != null) {
+				for (Level child : fChildren.values()) {
+					child.trim();
+				}
+			}
+		}
+	}
+
+	private final String[] fLocations;
+	private final Level fRoot = new Level();
+
+	/**
+	 * @param locations the locations to index, <code>null</code> for entries
+	 *                  without a location.
+	 */
+	SuffixIndex(String[] locations) {
+		fLocations = locations;
+		for (int i = 0; i < locations.length; i++) {
+			final String location = locations[i];
+			if (location == null)
+				continue;
+
+			fRoot.add(i);
+			// the last segment is the name, which all entries share
+			Level level = fRoot;
+			int end = location.lastIndexOf('/');
+			while (end > 0) {
+				final int start = location.lastIndexOf('/', end - 1);
+				level = level.child(fold(location.substring(start + 1, end)));
+				level.add(i);
+				end = start;
+			}
+		}
+		fRoot.trim();
+	}
+
+	/**
+	 * Returns the location of the given entry, or <code>null</code>.
+	 */
+	String getLocation(int entry) {
+		return fLocations[entry];
+	}
+
+	/**
+	 * Returns the entries, in ascending order, whose locations may end with the
+	 * given relative path.
+	 */
+	int[] lookup(String suffix) {
+		Level level = fRoot;
+		// skip the name and do not require the first segment to match as a whole
+		int end = suffix.lastIndexOf('/');
+		while (end > 0) {
+			final int start = suffix.lastIndexOf('/', end - 1);
+			if (start < 0)
+				break;
+
+			level = level.fChildren == null ? null : level.fChildren.get(fold(suffix.substring(start + 1, end)));
+			if (level == null)
+				return NO_ENTRIES;
+			end = start;
+		}
+		return level.fEntries;
+	}
+
+	/**
+	 * Folds the case of a segment the same way
+	 * {@link String#regionMatches(boolean, int, String, int, int)} ignores it.
+	 */
+	private static String fold(String segment) {
+		final char[] chars = segment.toCharArray();
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+		}
+		return new String(chars);
+	}
+}
@@ -10,6 +10,9 @@
 package org.eclipse.corrosion.sourcelookup;
 
 import java.io.File;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.corrosion.CorrosionPlugin;
@@ -42,6 +45,32 @@ public class CargoAbsolutePathSourceContainer extends AbstractSourceContainer {
 		return new Object[0];
 	}
 
+	/**
+	 * Finds the source elements of several names at once, e.g. of all frames of a
+	 * stack. Names that are no valid absolute file paths map to an empty array.
+	 *
+	 * @see CargoSourceUtils#findSourceElements(java.util.Collection,
+	 *      org.eclipse.debug.core.sourcelookup.ISourceLookupDirector)
+	 */
+	public Map<String, Object[]> findSourceElements(Collection<String> names) {
+		Map<String, Object[]> result = new LinkedHashMap<>();
+		Map<File, String> files = new LinkedHashMap<>();
+		for (String name : names) {
+			result.put(name, new Object[0]);
+			if (name != null) {
+				File file = new File(name);
+				if (isValidAbsoluteFilePath(file)) {
+					files.put(file, name);
+				}
+			}
+		}
+		if (!files.isEmpty()) {
+			CargoSourceUtils.findSourceElements(files.keySet(), getDirector())
+					.forEach((file, elements) -> result.put(files.get(file), elements));
+		}
+		return result;
+	}
+
 	@Override
 	public String getName() {
 		return CargoSourceLookupMessages.AbsolutePathSourceContainer_0;
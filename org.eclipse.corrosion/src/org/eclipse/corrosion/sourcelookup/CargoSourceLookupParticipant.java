@@ -9,12 +9,15 @@
  *******************************************************************************/
 package org.eclipse.corrosion.sourcelookup;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.debug.core.sourcelookup.AbstractSourceLookupParticipant;
+import org.eclipse.debug.core.sourcelookup.ISourceContainer;
 import org.eclipse.debug.core.sourcelookup.ISourceLookupDirector;
 
 /**
@@ -52,6 +55,33 @@ public class CargoSourceLookupParticipant extends AbstractSourceLookupParticipan
 		return foundElements;
 	}
 
+	/**
+	 * Looks up the source elements of several names at once, e.g. of all frames of
+	 * a backtrace, and caches them for {@link #findSourceElements(Object)}. Only
+	 * the absolute paths found by a leading
+	 * {@link CargoAbsolutePathSourceContainer} are cached, which is what a lookup
+	 * of each name would return, the other names are looked up one by one later.
+	 */
+	public void prefetchSourceElements(Collection<String> names) {
+		ISourceLookupDirector director = getDirector();
+		if (director == null || director.isFindDuplicates()) {
+			return;
+		}
+		ISourceContainer[] containers = getSourceContainers();
+		if (containers.length == 0 || !(containers[0] instanceof CargoAbsolutePathSourceContainer container)) {
+			return;
+		}
+		List<String> missing = names.stream().filter(name -> !fCachedResults.containsKey(name)).toList();
+		if (missing.isEmpty()) {
+			return;
+		}
+		container.findSourceElements(missing).forEach((name, elements) -> {
+			if (elements.length > 0) {
+				fCachedResults.putIfAbsent(name, elements);
+			}
+		});
+	}
+
 	@Override
 	public void sourceContainersChanged(ISourceLookupDirector director) {
 		// clear the cache
@@ -17,9 +17,14 @@ import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -36,10 +41,12 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.corrosion.CorrosionPlugin;
 import org.eclipse.corrosion.launch.RustLaunchDelegateTools;
+import org.eclipse.corrosion.resources.PathCanonicalizationStrategy;
 import org.eclipse.corrosion.resources.ResourceLookup;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.sourcelookup.ISourceContainer;
@@ -243,32 +250,85 @@ public class CargoSourceUtils {
 			return wfiles;
 		}
 
-		try {
-			// Check the canonical path as well to support case insensitive file
-			// systems like Windows.
-			wfiles = ResourceLookup.findFilesForLocation(new Path(file.getCanonicalPath()));
+		// Check the canonical path as well to support case insensitive file
+		// systems like Windows, even if paths are not canonicalized otherwise.
+		final String canonicalPath = PathCanonicalizationStrategy.resolveCanonicalPath(file);
+		if (!canonicalPath.equals(file.getAbsolutePath())) {
+			wfiles = ResourceLookup.findFilesForLocation(new Path(canonicalPath));
 			if (wfiles.length > 0) {
 				ResourceLookup.sortFilesByRelevance(wfiles, lcProject);
 //				return updateUnavailableResources(wfiles, lcProject);
 				return wfiles;
 			}
+		}
 
-//			// The file is not already in the workspace so try to create an external
-//			// translation unit for it.
-//			if (lcProject != null) {
-//				ICProject project = CoreModel.getDefault().create(lcProject);
-//				if (project != null) {
-//					ITranslationUnit translationUnit = CoreModel.getDefault().createTranslationUnitFrom(project,
-//							URIUtil.toURI(file.getCanonicalPath(), true));
-//					if (translationUnit != null) // if we failed do not return array with null in it
-//						return new ITranslationUnit[] { translationUnit };
-//				}
+//		// The file is not already in the workspace so try to create an external
+//		// translation unit for it.
+//		if (lcProject != null) {
+//			ICProject project = CoreModel.getDefault().create(lcProject);
+//			if (project != null) {
+//				ITranslationUnit translationUnit = CoreModel.getDefault().createTranslationUnitFrom(project,
+//						URIUtil.toURI(file.getCanonicalPath(), true));
+//				if (translationUnit != null) // if we failed do not return array with null in it
+//					return new ITranslationUnit[] { translationUnit };
 //			}
-		} catch (IOException e) { // ignore if getCanonicalPath throws
-		}
+//		}
 
 		// If we can't create an ETU then fall back on LocalFileStorage.
 		return new LocalFileStorage[] { new LocalFileStorage(file) };
 	}
 
+	/**
+	 * Returns the source elements for each of the given files, see
+	 * {@link #findSourceElements(File, ISourceLookupDirector)}. The files are
+	 * looked up together, which is cheaper for resolving all frames of a stack.
+	 *
+	 * @param files    Source or header files.
+	 * @param director A source lookup director.
+	 * @return A map from each file to its source elements, in the order of the
+	 *         files.
+	 */
+	public static Map<File, Object[]> findSourceElements(Collection<File> files, ISourceLookupDirector director) {
+		IProject lcProject = null;
+		if (director != null) {
+			lcProject = getLaunchConfigurationProject(director);
+		}
+
+		Map<File, IPath> absolutePaths = new LinkedHashMap<>();
+		for (File file : files) {
+			absolutePaths.put(file, new Path(file.getAbsolutePath()));
+		}
+		Map<IPath, IFile[]> wfiles = ResourceLookup.findFilesForLocations(absolutePaths.values());
+
+		// Check the canonical paths of the misses as well to support case
+		// insensitive file systems like Windows, even if paths are not
+		// canonicalized otherwise.
+		Map<File, IPath> canonicalPaths = new HashMap<>();
+		for (Map.Entry<File, IPath> entry : absolutePaths.entrySet()) {
+			if (wfiles.get(entry.getValue()).length == 0) {
+				final String canonicalPath = PathCanonicalizationStrategy.resolveCanonicalPath(entry.getKey());
+				if (!canonicalPath.equals(entry.getKey().getAbsolutePath())) {
+					canonicalPaths.put(entry.getKey(), new Path(canonicalPath));
+				}
+			}
+		}
+		Map<IPath, IFile[]> canonicalWfiles = canonicalPaths.isEmpty() ? Collections.emptyMap()
+				: ResourceLookup.findFilesForLocations(canonicalPaths.values());
+
+		Map<File, Object[]> result = new LinkedHashMap<>();
+		for (Map.Entry<File, IPath> entry : absolutePaths.entrySet()) {
+			IFile[] found = wfiles.get(entry.getValue());
+			if (found.length == 0 && canonicalPaths.containsKey(entry.getKey())) {
+				found = canonicalWfiles.get(canonicalPaths.get(entry.getKey()));
+			}
+			if (found.length > 0) {
+				ResourceLookup.sortFilesByRelevance(found, lcProject);
+				result.put(entry.getKey(), found);
+			} else {
+				result.put(entry.getKey(), new LocalFileStorage[] { new LocalFileStorage(entry.getKey()) });
+			}
+		}
+		return result;
+	}
+
 }
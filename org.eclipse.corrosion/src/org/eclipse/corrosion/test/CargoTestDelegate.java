@@ -19,7 +19,6 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
@@ -56,6 +55,53 @@ import org.eclipse.unittest.ui.ConfigureViewerSupport;
 public class CargoTestDelegate extends LaunchConfigurationDelegate implements ILaunchShortcut {
 	public static final String CARGO_TEST_LAUNCH_CONFIG_TYPE_ID = "org.eclipse.corrosion.test.CargoTestDelegate"; //$NON-NLS-1$
 	public static final String TEST_NAME_ATTRIBUTE = "TEST_NAME"; //$NON-NLS-1$
+	/**
+	 * Whether the tests report their results as libtest's JSON events. The
+	 * format is unstable, it is enabled with <code>RUSTC_BOOTSTRAP=1</code> on
+	 * stable toolchains.
+	 */
+	public static final String JSON_EVENTS_ATTRIBUTE = "JSON_EVENTS"; //$NON-NLS-1$
+	private static final List<String> JSON_EVENTS_ARGUMENTS = List.of("-Z", "unstable-options", "--format", "json", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			"--report-time"); //$NON-NLS-1$
+	private static final String RUSTC_BOOTSTRAP = "RUSTC_BOOTSTRAP"; //$NON-NLS-1$
+	/**
+	 * Whether the tests are run with <code>cargo nextest run</code>, which runs
+	 * each test in a process of its own. Falls back to <code>cargo test</code>
+	 * if cargo-nextest is not installed. The results are always reported as
+	 * libtest JSON events. In debug mode, the debugger attaches to the test
+	 * processes as the children of nextest are polled, not through the runner of
+	 * {@link TestProcessAttacher}: nextest runs the binaries with the runner to
+	 * list their tests and once per test, each of which would wait for the
+	 * debugger.
+	 */
+	public static final String NEXTEST_ATTRIBUTE = "NEXTEST"; //$NON-NLS-1$
+	/**
+	 * The number of tests to run in parallel, 0 for the default of the runner.
+	 */
+	public static final String TEST_THREADS_ATTRIBUTE = "TEST_THREADS"; //$NON-NLS-1$
+	/**
+	 * The number of times a failing test is retried, supported by cargo-nextest
+	 * only.
+	 */
+	public static final String RETRIES_ATTRIBUTE = "RETRIES"; //$NON-NLS-1$
+	/**
+	 * The number of test binaries to run at once, 0 to run them one after the
+	 * other with a single <code>cargo test</code>. The binaries report libtest
+	 * JSON events, the results are merged into one session with a suite per
+	 * binary. Does not apply in debug mode nor with cargo-nextest, which runs the
+	 * binaries in parallel itself. Doc tests are not run, and the binaries run
+	 * without a target runner configured for Cargo.
+	 */
+	public static final String PARALLEL_BINARIES_ATTRIBUTE = "PARALLEL_BINARIES"; //$NON-NLS-1$
+	/**
+	 * Whether the tests that failed when they last ran are run first, then the
+	 * tests of the packages with changes since the last run, then the others.
+	 * Applies to <code>cargo test</code> runs only, not in debug mode.
+	 *
+	 * @see TestRunOrder
+	 */
+	public static final String FAILED_FIRST_ATTRIBUTE = "FAILED_FIRST"; //$NON-NLS-1$
+	private static final String NEXTEST_EXPERIMENTAL_LIBTEST_JSON = "NEXTEST_EXPERIMENTAL_LIBTEST_JSON"; //$NON-NLS-1$
 	public static final String CARGO_UNITTEST_VIEW_SUPPORT_ID = "org.eclipse.corrosion.unitTestSupport"; //$NON-NLS-1$
 
 	@Override
@@ -94,6 +140,13 @@ public class CargoTestDelegate extends LaunchConfigurationDelegate implements IL
 		String projectName = configuration.getAttribute(RustLaunchDelegateTools.PROJECT_ATTRIBUTE, ""); //$NON-NLS-1$
 		String options = configuration.getAttribute(RustLaunchDelegateTools.OPTIONS_ATTRIBUTE, "").trim(); //$NON-NLS-1$
 		String testName = configuration.getAttribute(TEST_NAME_ATTRIBUTE, ""); //$NON-NLS-1$
+		// nextest and sharded runs report JSON events, so does cargo test instead
+		boolean jsonEvents = reportsJsonEvents(configuration);
+		boolean nextest = configuration.getAttribute(NEXTEST_ATTRIBUTE, false);
+		int testThreads = configuration.getAttribute(TEST_THREADS_ATTRIBUTE, 0);
+		int retries = configuration.getAttribute(RETRIES_ATTRIBUTE, 0);
+		int parallelBinaries = configuration.getAttribute(PARALLEL_BINARIES_ATTRIBUTE, 0);
+		boolean failedFirst = configuration.getAttribute(FAILED_FIRST_ATTRIBUTE, false);
 		String arguments = configuration.getAttribute(RustLaunchDelegateTools.ARGUMENTS_ATTRIBUTE, "").trim(); //$NON-NLS-1$
 		String workingDirectoryString = RustLaunchDelegateTools
 				.performVariableSubstitution(configuration.getAttribute(DebugPlugin.ATTR_WORKING_DIRECTORY, "").trim()); //$NON-NLS-1$
@@ -121,27 +174,74 @@ public class CargoTestDelegate extends LaunchConfigurationDelegate implements IL
 			return;
 		}
 
+		if (nextest && !CargoTools.isNextestInstalled()) {
+			CorrosionPlugin.logError(Messages.CargoTestDelegate_nextestNotInstalled);
+			nextest = false;
+		}
+		final boolean sharded = parallelBinaries > 0 && !nextest && !ILaunchManager.DEBUG_MODE.equals(mode);
+		final boolean ordered = failedFirst && !nextest && !sharded && !ILaunchManager.DEBUG_MODE.equals(mode);
+
 		List<String> cargoTestCommand = new ArrayList<>();
+		boolean selectsPackages = false;
+		boolean selectsWorkspace = false;
+		List<String> optionList = Collections.emptyList();
 		cargoTestCommand.add(CargoTools.getCargoCommand());
-		cargoTestCommand.add("test"); //$NON-NLS-1$
+		if (nextest) {
+			cargoTestCommand.add("nextest"); //$NON-NLS-1$
+			cargoTestCommand.add("run"); //$NON-NLS-1$
+		} else {
+			cargoTestCommand.add("test"); //$NON-NLS-1$
+		}
 		if (!options.isEmpty()) {
-			cargoTestCommand
-					.addAll(Arrays.asList(RustLaunchDelegateTools.performVariableSubstitution(options).split("\\s+"))); //$NON-NLS-1$
+			optionList = Arrays.asList(RustLaunchDelegateTools.performVariableSubstitution(options).split("\\s+")); //$NON-NLS-1$
+			cargoTestCommand.addAll(optionList);
+			selectsPackages = TestRunOrder.selectsPackages(optionList);
+			selectsWorkspace = TestRunOrder.selectsWorkspace(optionList);
 		}
 
 		final String cargoPathString = cargoManifest.getLocation().toPortableString();
 		cargoTestCommand.add("--manifest-path"); //$NON-NLS-1$
 		cargoTestCommand.add(cargoPathString);
+		if (nextest) {
+			cargoTestCommand.add("--message-format"); //$NON-NLS-1$
+			cargoTestCommand.add("libtest-json"); //$NON-NLS-1$
+			if (testThreads > 0) {
+				cargoTestCommand.add("--test-threads"); //$NON-NLS-1$
+				cargoTestCommand.add(Integer.toString(testThreads));
+			}
+			if (retries > 0) {
+				cargoTestCommand.add("--retries"); //$NON-NLS-1$
+				cargoTestCommand.add(Integer.toString(retries));
+			}
+		}
 
+		// the command so far: the sharded run builds the binaries with it and runs
+		// them with the arguments below, the ordered run adds the test name, the
+		// packages and the filters of each phase to it
+		final List<String> buildCommand = new ArrayList<>(cargoTestCommand);
+		final List<String> binaryArguments = new ArrayList<>();
 		if (testName != null && !testName.isEmpty()) {
 			cargoTestCommand.add(testName);
+			binaryArguments.add(testName);
 		}
 
+		// arguments of the test binaries, nextest passes the arguments it knows on
+		List<String> testArguments = new ArrayList<>();
 		if (!arguments.isEmpty()) {
-			cargoTestCommand.add("--"); //$NON-NLS-1$
-			cargoTestCommand.addAll(
+			testArguments.addAll(
 					Arrays.asList(RustLaunchDelegateTools.performVariableSubstitution(arguments).split("\\s+"))); //$NON-NLS-1$
 		}
+		if (!nextest && jsonEvents) {
+			testArguments.addAll(JSON_EVENTS_ARGUMENTS);
+		}
+		if (!nextest && testThreads > 0) {
+			testArguments.add("--test-threads=" + testThreads); //$NON-NLS-1$
+		}
+		if (!testArguments.isEmpty()) {
+			cargoTestCommand.add("--"); //$NON-NLS-1$
+			cargoTestCommand.addAll(testArguments);
+		}
+		binaryArguments.addAll(testArguments);
 
 		final List<String> finalTestCommand = cargoTestCommand;
 		final File finalWorkingDirectory = workingDirectory;
@@ -149,13 +249,53 @@ public class CargoTestDelegate extends LaunchConfigurationDelegate implements IL
 		if (envArgs == null) {
 			envArgs = new String[0];
 		}
+		if (nextest) {
+			envArgs = withVariable(envArgs, NEXTEST_EXPERIMENTAL_LIBTEST_JSON, "1"); //$NON-NLS-1$
+		} else if (jsonEvents) {
+			envArgs = withVariable(envArgs, RUSTC_BOOTSTRAP, "1"); //$NON-NLS-1$
+		}
+		// in debug mode, the test binaries of cargo test wait for the debugger to
+		// attach
+		TestProcessAttacher attacher = null;
+		if (ILaunchManager.DEBUG_MODE.equals(mode) && !nextest) {
+			attacher = TestProcessAttacher.start(TestProcessAttacher.getTarget(optionList),
+					(executable, pid) -> attachDebugger(pid, new File(executable).getName(), configuration));
+		}
+		if (attacher != null && hasVariable(envArgs, attacher.getRunnerVariable())) {
+			// a runner of the user's, the binaries are polled for instead
+			attacher.close();
+			attacher = null;
+		}
+		if (attacher != null) {
+			for (Map.Entry<String, String> variable : attacher.getEnvironment().entrySet()) {
+				envArgs = withVariable(envArgs, variable.getKey(), variable.getValue());
+			}
+		}
+		final TestProcessAttacher finalAttacher = attacher;
 		final String[] env = envArgs;
+		final boolean splitPackages = !selectsPackages;
+		final boolean workspace = selectsWorkspace;
+		final File manifestFile = cargoManifest.getLocation().toFile();
+		final String processLabel = nextest ? "cargo nextest" : "cargo test"; //$NON-NLS-1$ //$NON-NLS-2$
 		CompletableFuture.runAsync(() -> {
 			try {
 				String[] cmdLine = finalTestCommand.toArray(new String[finalTestCommand.size()]);
-				Process p = DebugPlugin.exec(cmdLine, finalWorkingDirectory, env);
-				IProcess process = DebugPlugin.newProcess(launch, p, "cargo test"); //$NON-NLS-1$
-				if (ILaunchManager.DEBUG_MODE.equals(mode)) {
+				Process p;
+				if (sharded) {
+					p = ShardedTestProcess.start(buildCommand, binaryArguments, finalWorkingDirectory, env,
+							parallelBinaries);
+				} else if (ordered) {
+					List<List<String>> phases = TestRunOrder.plan(projectName, manifestFile, buildCommand,
+							splitPackages, workspace, testName, testArguments);
+					p = SequentialTestProcess.start(phases, finalWorkingDirectory, env);
+				} else {
+					p = DebugPlugin.exec(cmdLine, finalWorkingDirectory, env);
+				}
+				// unlike DebugPlugin.newProcess, pipes the output before anyone else sees it
+				IProcess process = new CargoTestProcess(launch, p, processLabel, null);
+				if (finalAttacher != null) {
+					p.onExit().thenRun(finalAttacher::close);
+				} else if (ILaunchManager.DEBUG_MODE.equals(mode)) {
 					ProcessHandle cargoHandle = p.toHandle();
 					Set<ProcessHandle> captured = new HashSet<>();
 					Job pollChildren = Job.createSystem("Capture children processes", //$NON-NLS-1$
@@ -171,16 +311,12 @@ public class CargoTestDelegate extends LaunchConfigurationDelegate implements IL
 											.filter(Predicate.not(captured::contains)) //
 											.filter(handle -> handle.info().commandLine()
 													.map(line -> line.contains("target/debug")).orElse(Boolean.FALSE)) //$NON-NLS-1$
-											.map(handle -> {
+											.forEach(handle -> {
 												captured.add(handle);
-												return debug(handle, configuration);
-											}).filter(Objects::nonNull) //
-											.forEach(config -> {
-												try {
-													config.launch(ILaunchManager.DEBUG_MODE, new NullProgressMonitor());
-												} catch (CoreException e) {
-													CorrosionPlugin.logError(e);
-												}
+												attachDebugger(handle.pid(), handle.info().commandLine()
+														.map(line -> line.split(File.separator))
+														.map(segments -> segments[segments.length - 1])
+														.orElse("unset"), configuration); //$NON-NLS-1$
 											});
 								}
 							});
@@ -189,6 +325,9 @@ public class CargoTestDelegate extends LaunchConfigurationDelegate implements IL
 				}
 				process.setAttribute(IProcess.ATTR_CMDLINE, String.join(" ", cmdLine)); //$NON-NLS-1$
 			} catch (CoreException e) {
+				if (finalAttacher != null) {
+					finalAttacher.close();
+				}
 				e.printStackTrace();
 				RustLaunchDelegateTools.openError(Messages.CargoRunDelegate_unableToLaunch, e.getLocalizedMessage());
 			}
@@ -212,25 +351,85 @@ public class CargoTestDelegate extends LaunchConfigurationDelegate implements IL
 		if (configWC.getAttribute(ILaunchManager.ATTR_ENVIRONMENT_VARIABLES, (Map<String, String>) null) == null) {
 			configWC.setAttribute(ILaunchManager.ATTR_ENVIRONMENT_VARIABLES, Collections.emptyMap());
 		}
-		// consider setting CARGO_TARGET_X86_64_UNKNOWN_LINUX_GNU_RUNNER and so on in
-		// debug mode with a good launch command to make the process
-		// wait at startup, since tests can often complete before debugger has time to
-		// attach. Eg trying `/bin/bash -e "( kill -SIGSTOP $BASHPID; exec my_command )
-		// &"` to start the process and restart it with `kill -SIGCONTINUE` once
-		// debugger
-		// is attached.
 		configWC.doSave();
 	}
 
-	private static ILaunchConfiguration debug(ProcessHandle process, ILaunchConfiguration initialLaunchConfiguration) {
+	/**
+	 * Returns whether the given launch configuration runs all the tests of its
+	 * project, i.e. selects no packages and filters no tests. Runs with
+	 * cargo-nextest or parallel binaries do not run the doc tests.
+	 */
+	static boolean runsAllTests(ILaunchConfiguration configuration) throws CoreException {
+		String options = configuration.getAttribute(RustLaunchDelegateTools.OPTIONS_ATTRIBUTE, "").trim(); //$NON-NLS-1$
+		String arguments = configuration.getAttribute(RustLaunchDelegateTools.ARGUMENTS_ATTRIBUTE, "").trim(); //$NON-NLS-1$
+		return configuration.getAttribute(TEST_NAME_ATTRIBUTE, "").isEmpty() //$NON-NLS-1$
+				&& !configuration.getAttribute(NEXTEST_ATTRIBUTE, false)
+				&& configuration.getAttribute(PARALLEL_BINARIES_ATTRIBUTE, 0) == 0
+				&& (options.isEmpty() || !TestRunOrder.selectsPackages(Arrays
+						.asList(RustLaunchDelegateTools.performVariableSubstitution(options).split("\\s+")))) //$NON-NLS-1$
+				&& (arguments.isEmpty() || !TestRunOrder.filtersTests(Arrays
+						.asList(RustLaunchDelegateTools.performVariableSubstitution(arguments).split("\\s+")))); //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns whether the tests of the given launch configuration report their
+	 * results as libtest JSON events rather than as human readable text.
+	 */
+	static boolean reportsJsonEvents(ILaunchConfiguration configuration) throws CoreException {
+		return configuration.getAttribute(JSON_EVENTS_ATTRIBUTE, false)
+				|| configuration.getAttribute(NEXTEST_ATTRIBUTE, false)
+				|| configuration.getAttribute(PARALLEL_BINARIES_ATTRIBUTE, 0) > 0;
+	}
+
+	private static boolean hasVariable(String[] env, String name) {
+		for (String variable : env) {
+			if (variable.startsWith(name + '=')) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the environment with the given variable, unless the variable is set
+	 * already. E.g. <code>RUSTC_BOOTSTRAP=1</code> allows unstable options on
+	 * stable toolchains.
+	 */
+	private static String[] withVariable(String[] env, String name, String value) {
+		if (env.length == 0) {
+			// an empty environment would replace the inherited one
+			env = DebugPlugin.getDefault().getLaunchManager().getNativeEnvironmentCasePreserved().entrySet().stream()
+					.map(e -> e.getKey() + '=' + e.getValue()).toArray(String[]::new);
+		}
+		if (hasVariable(env, name)) {
+			return env;
+		}
+		String[] result = Arrays.copyOf(env, env.length + 1);
+		result[env.length] = name + '=' + value;
+		return result;
+	}
+
+	/**
+	 * Attaches the debugger to the given test binary and returns once it is
+	 * attached.
+	 */
+	private static void attachDebugger(long pid, String name, ILaunchConfiguration initialLaunchConfiguration) {
+		ILaunchConfiguration config = debug(pid, name, initialLaunchConfiguration);
+		if (config != null) {
+			try {
+				config.launch(ILaunchManager.DEBUG_MODE, new NullProgressMonitor());
+			} catch (CoreException e) {
+				CorrosionPlugin.logError(e);
+			}
+		}
+	}
+
+	private static ILaunchConfiguration debug(long pid, String name, ILaunchConfiguration initialLaunchConfiguration) {
 		ILaunchConfigurationWorkingCopy configWC;
 		try {
 			ILaunchManager launchManager = DebugPlugin.getDefault().getLaunchManager();
 			configWC = launchManager.getLaunchConfigurationType(ICDTLaunchConfigurationConstants.ID_LAUNCH_C_ATTACH)
-					.newInstance(null,
-							process.info().commandLine().map(line -> line.split(File.separator))
-									.map(segments -> segments[segments.length - 1])
-									.map(launchManager::generateLaunchConfigurationName).orElse("unset")); //$NON-NLS-1$
+					.newInstance(null, launchManager.generateLaunchConfigurationName(name));
 			configWC.setAttribute(ICDTLaunchConfigurationConstants.ATTR_PROJECT_NAME, initialLaunchConfiguration
 					.getAttribute(ICDTLaunchConfigurationConstants.ATTR_PROJECT_NAME, (String) null));
 		} catch (CoreException e) {
@@ -240,7 +439,7 @@ public class CargoTestDelegate extends LaunchConfigurationDelegate implements IL
 		configWC.setAttribute(ICDTLaunchConfigurationConstants.ATTR_DEBUGGER_START_MODE,
 				ICDTLaunchConfigurationConstants.DEBUGGER_MODE_ATTACH);
 		configWC.setAttribute(IGdbDebugPreferenceConstants.PREF_DEFAULT_NON_STOP, true);
-		configWC.setAttribute(ICDTLaunchConfigurationConstants.ATTR_ATTACH_PROCESS_ID, (int) process.pid());
+		configWC.setAttribute(ICDTLaunchConfigurationConstants.ATTR_ATTACH_PROCESS_ID, (int) pid);
 		configWC.setAttribute(ICDTLaunchConfigurationConstants.ATTR_DEBUGGER_STOP_AT_MAIN, false);
 		configWC.setAttribute(IGDBLaunchConfigurationConstants.ATTR_DEBUG_NAME, RustManager.getDefaultDebugger());
 		configWC.setAttribute(DebugPlugin.ATTR_ENVIRONMENT, Collections.emptyMap());
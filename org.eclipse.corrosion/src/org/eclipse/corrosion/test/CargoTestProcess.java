@@ -0,0 +1,56 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import java.io.Reader;
+import java.util.Map;
+
+import org.eclipse.debug.core.ILaunch;
+import org.eclipse.debug.core.model.IStreamsProxy;
+import org.eclipse.debug.core.model.RuntimeProcess;
+
+/**
+ * The process of a Cargo test launch. Its output is piped to the test runner
+ * client from the first byte: the pipe is connected while the process is
+ * created, before it is added to the launch and the console flushes the
+ * contents of the stream monitor.
+ */
+class CargoTestProcess extends RuntimeProcess {
+	// assigned while the super constructor runs, must not have an initializer
+	private StreamMonitorPipe fOutputPipe;
+	private boolean fOutputClaimed;
+
+	CargoTestProcess(ILaunch launch, Process process, String name, Map<String, String> attributes) {
+		super(launch, process, name, attributes);
+	}
+
+	@Override
+	protected IStreamsProxy createStreamsProxy() {
+		final IStreamsProxy proxy = super.createStreamsProxy();
+		if (proxy != null && proxy.getOutputStreamMonitor() != null) {
+			// the process reports its termination once it is added to the launch,
+			// even if it has exited already
+			fOutputPipe = StreamMonitorPipe.connect(this, proxy.getOutputStreamMonitor(), false);
+		}
+		return proxy;
+	}
+
+	/**
+	 * Returns the pipe of the standard output, once. Returns <code>null</code> if
+	 * the output is not captured or was claimed already.
+	 */
+	synchronized Reader claimOutput() {
+		if (fOutputClaimed) {
+			return null;
+		}
+		fOutputClaimed = true;
+		return fOutputPipe;
+	}
+}
@@ -11,21 +11,29 @@ package org.eclipse.corrosion.test;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.PushbackReader;
-import java.nio.charset.StandardCharsets;
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
+import java.io.Reader;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 
 import org.eclipse.core.runtime.ICoreRunnable;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.corrosion.CorrosionPlugin;
+import org.eclipse.corrosion.sourcelookup.CargoSourceLookupParticipant;
+import org.eclipse.debug.core.DebugPlugin;
 import org.eclipse.debug.core.ILaunch;
+import org.eclipse.debug.core.ILaunchListener;
 import org.eclipse.debug.core.model.IProcess;
 import org.eclipse.debug.core.model.IStreamMonitor;
+import org.eclipse.debug.core.sourcelookup.AbstractSourceLookupDirector;
+import org.eclipse.debug.core.sourcelookup.ISourceLookupParticipant;
+import org.eclipse.debug.ui.DebugUITools;
+import org.eclipse.ui.console.IOConsole;
+import org.eclipse.ui.console.IOConsoleOutputStream;
 import org.eclipse.unittest.launcher.ITestRunnerClient;
 import org.eclipse.unittest.model.ITestElement;
 import org.eclipse.unittest.model.ITestElement.FailureTrace;
@@ -46,12 +54,21 @@ public class CargoTestRunnerClient implements ITestRunnerClient {
 	// test result: FAILED. 1 passed; 1 failed; 0 ignored; 0 measured; 0 filtered
 	// out
 	private static final String STATUS_FAILED = "FAILED"; //$NON-NLS-1$
+	// test tests::it_is_ignored ... ignored, not yet
+	private static final String STATUS_IGNORED = "ignored"; //$NON-NLS-1$
 
 	// test tests::it_works ... ok
 	// test tests::it_fails ... FAILED
 	private static final String TEST_PERFORMED_LINE_BEGIN = "test "; //$NON-NLS-1$
 	private static final String TEST_PERFORMED_LINE_END = "..."; //$NON-NLS-1$
 
+	// test tests::it_works ... ok <0.002s>, with --report-time
+	private static final String REPORT_TIME_BEGIN = " <"; //$NON-NLS-1$
+	private static final String REPORT_TIME_END = ">"; //$NON-NLS-1$
+
+	// the number of tests in the report of the execution times
+	private static final int SLOWEST_TESTS = 10;
+
 	// failures:
 	private static final String TEST_FAILURES_LINE = "failures:"; //$NON-NLS-1$
 
@@ -64,30 +81,49 @@ public class CargoTestRunnerClient implements ITestRunnerClient {
 
 	private static final String TEST_NAME_SEPARATOR = "::"; //$NON-NLS-1$
 
+	private static final String FAILURE_THREAD = "thread"; //$NON-NLS-1$
+	private static final String FAILURE_PANICKED_AT_BEGIN = "panicked at"; //$NON-NLS-1$
+	private static final String FAILURE_PANICKED_AT_END = "',"; //$NON-NLS-1$
+
+	private static final String FAILURE_ASSERTION_BEGIN = "'assertion failed:"; //$NON-NLS-1$
+	private static final String FAILURE_ASSERTION_LEFT = "left: "; //$NON-NLS-1$
+	private static final String FAILURE_ASSERTION_RIGHT = "right:"; //$NON-NLS-1$
+	private static final String FAILURE_ASSERTION_SEPARATOR = ","; //$NON-NLS-1$
+
 	private String fFailedTestCaseName = null;
-	private StringBuilder fFailedTestStdout = new StringBuilder();
+	// bounded, a test may write any amount of output
+	private final FailureOutputBuffer fFailedTestStdout = new FailureOutputBuffer();
 
 	class DefaultProcessingState implements ProcessingState {
 		@Override
 		public ProcessingState apply(String message) {
 //			test tests::it_works ... ok
 //			test tests::it_fails ... FAILED
+//			test tests::it_works ... ok <0.002s>
 			if (message.startsWith(TEST_PERFORMED_LINE_BEGIN) && message.contains(TEST_PERFORMED_LINE_END)) {
 				String testName = message
 						.substring(TEST_PERFORMED_LINE_BEGIN.length(), message.indexOf(TEST_PERFORMED_LINE_END)).trim();
-				String testDisplayName = testName.contains(TEST_NAME_SEPARATOR)
-						? testName.substring(testName.lastIndexOf(TEST_NAME_SEPARATOR) + TEST_NAME_SEPARATOR.length())
-								.trim()
-						: testName;
-				String testSuiteName = testName.contains(TEST_NAME_SEPARATOR)
-						? testName.substring(0, testName.lastIndexOf(TEST_NAME_SEPARATOR)).trim()
-						: null;
-				ITestSuiteElement suite = getOrCreateTestSuite(testSuiteName);
+				int separator = testName.lastIndexOf(TEST_NAME_SEPARATOR);
+				String testDisplayName = separator < 0 ? testName
+						: testName.substring(separator + TEST_NAME_SEPARATOR.length()).trim();
+				String testSuiteName = separator < 0 ? null : testName.substring(0, separator).trim();
+				ITestSuiteElement suite = fSuites.getOrCreate(testSuiteName);
 				ITestElement testElement = session.newTestCase(testName, testName, suite, testDisplayName, message);
 				session.notifyTestStarted(testElement);
-				if (message.endsWith(STATUS_FAILED)) {
+				String status = message
+						.substring(message.indexOf(TEST_PERFORMED_LINE_END) + TEST_PERFORMED_LINE_END.length()).strip();
+				Duration execTime = parseReportTime(status);
+				if (execTime != null) {
+					status = status.substring(0, status.lastIndexOf(REPORT_TIME_BEGIN)).strip();
+					fExecutionTimes.put(testName, execTime);
+				}
+				boolean failed = status.startsWith(STATUS_FAILED);
+				if (failed) {
 					session.notifyTestFailed(testElement, Result.FAILURE, false, null);
 				}
+				if (fHistory != null && !status.startsWith(STATUS_IGNORED)) {
+					fHistory.record(testName, failed, execTime);
+				}
 				session.notifyTestEnded(testElement, false);
 				return this;
 			}
@@ -99,93 +135,29 @@ public class CargoTestRunnerClient implements ITestRunnerClient {
 
 			return this;
 		}
-
-		private ITestSuiteElement getOrCreateTestSuite(String testSuiteName) {
-			if (testSuiteName == null) {
-				return session;
-			}
-			ITestSuiteElement parent = session;
-			String[] segments = testSuiteName.split(TEST_NAME_SEPARATOR);
-
-			for (String segment : segments) {
-				String currentSuiteName = parent instanceof ITestRunSession ? segment
-						: parent.getTestName() + TEST_NAME_SEPARATOR + segment;
-				ITestSuiteElement currentSuite = (ITestSuiteElement) session.getTestElement(currentSuiteName);
-				if (currentSuite == null) {
-					currentSuite = session.newTestSuite(currentSuiteName, currentSuiteName, null, parent, segment,
-							null);
-				}
-				parent = currentSuite;
-			}
-			return parent;
-		}
 	}
 
 	class TraceProcessingState implements ProcessingState {
-		private static final String FAILURE_THREAD = "thread"; //$NON-NLS-1$
-		private static final String FAILURE_PANICKED_AT_BEGIN = "panicked at"; //$NON-NLS-1$
-		private static final String FAILURE_PANICKED_AT_END = "',"; //$NON-NLS-1$
-
-		private static final String FAILURE_ASSERTION_BEGIN = "'assertion failed:"; //$NON-NLS-1$
-		private static final String FAILURE_ASSERTION_LEFT = "left: "; //$NON-NLS-1$
-		private static final String FAILURE_ASSERTION_RIGHT = "right:"; //$NON-NLS-1$
-		private static final String FAILURE_ASSERTION_SEPARATOR = ","; //$NON-NLS-1$
-
 		boolean isCollectingAFailureTrace = false;
 
 		private void reset() {
 			// Clear the buffers and test name
 			fFailedTestCaseName = null;
-			fFailedTestStdout.setLength(0);
+			fFailedTestStdout.reset();
 			isCollectingAFailureTrace = false;
 		}
 
 		private void submit() {
 			// Submit the existing buffer to a test case element, if any
-			if (fFailedTestCaseName != null && fFailedTestStdout.length() > 0) {
+			if (fFailedTestCaseName != null && !fFailedTestStdout.isEmpty()) {
 				ITestElement testElement = session.getTestElement(fFailedTestCaseName);
 				if (testElement != null) {
-					FailureTrace failureTrace = fillFailureTrace(fFailedTestStdout.toString());
+					FailureTrace failureTrace = fillFailureTrace(fFailedTestStdout.getTrace());
 					session.notifyTestFailed(testElement, Result.FAILURE, false, failureTrace);
 				}
 			}
 		}
 
-		private FailureTrace fillFailureTrace(String trace) {
-			// thread 'tests1::it_fails_on_panic' panicked at 'Make this test fail',
-			// tests/testfoo.rs:24:9
-			if (trace.contains(FAILURE_THREAD) && trace.contains(FAILURE_PANICKED_AT_BEGIN)
-					&& trace.contains(FAILURE_PANICKED_AT_END)) {
-				// a common case to get a source reference from
-				int panickedAtEmd = trace.lastIndexOf(FAILURE_PANICKED_AT_END);
-				String panickedAtText = trace.substring(0, panickedAtEmd);
-				String source = trace.substring(panickedAtEmd + FAILURE_PANICKED_AT_END.length()).strip();
-				StringBuilder failureTrace = new StringBuilder();
-				failureTrace.append(panickedAtText);
-				failureTrace.append('\n').append(CargoTestViewSupport.FRAME_PREFIX).append(source); // $NON-NLS-1$
-
-				// Some private cases
-
-				// thread 'tests::it_fails' panicked at 'assertion failed: `(left == right)`
-				// left: `4`,
-				// right: `5`', tests/testfoo.rs:12:9
-				if (panickedAtText.contains(FAILURE_ASSERTION_BEGIN)) {
-					int leftIndex = trace.indexOf(FAILURE_ASSERTION_LEFT);
-					int rightIndex = trace.indexOf(FAILURE_ASSERTION_RIGHT, leftIndex);
-					if (leftIndex != -1 && rightIndex != -1) {
-						String leftValue = panickedAtText.substring(leftIndex + FAILURE_ASSERTION_LEFT.length(),
-								panickedAtText.lastIndexOf(FAILURE_ASSERTION_SEPARATOR, rightIndex)).strip();
-						String rightValue = panickedAtText.substring(rightIndex + FAILURE_ASSERTION_RIGHT.length())
-								.strip();
-						return new FailureTrace(failureTrace.toString(), leftValue, rightValue);
-					}
-				}
-				return new FailureTrace(failureTrace.toString(), null, null);
-			}
-
-			return new FailureTrace(trace, null, null);
-		}
-
 		@Override
 		public ProcessingState apply(String message) {
 //			---- tests::it_fails stdout ----
@@ -223,109 +195,253 @@ public class CargoTestRunnerClient implements ITestRunnerClient {
 		}
 	}
 
+	/**
+	 * Returns the execution time at the end of the status of a test, as reported
+	 * by libtest's <code>--report-time</code>, <code>null</code> if there is none.
+	 */
+	static Duration parseReportTime(String status) {
+		final int begin = status.lastIndexOf(REPORT_TIME_BEGIN);
+		if (begin < 0 || !status.endsWith(REPORT_TIME_END)) {
+			return null;
+		}
+		try {
+			return LibtestEventProcessor
+					.parseExecTime(status.substring(begin + REPORT_TIME_BEGIN.length(), status.length() - 1));
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Creates the failure trace of a test from its output, a source reference in
+	 * the panic message becomes a frame of the trace.
+	 */
+	static FailureTrace fillFailureTrace(String trace) {
+		// thread 'tests1::it_fails_on_panic' panicked at 'Make this test fail',
+		// tests/testfoo.rs:24:9
+		if (trace.contains(FAILURE_THREAD) && trace.contains(FAILURE_PANICKED_AT_BEGIN)
+				&& trace.contains(FAILURE_PANICKED_AT_END)) {
+			// a common case to get a source reference from
+			int panickedAtEmd = trace.lastIndexOf(FAILURE_PANICKED_AT_END);
+			String panickedAtText = trace.substring(0, panickedAtEmd);
+			String source = trace.substring(panickedAtEmd + FAILURE_PANICKED_AT_END.length()).strip();
+			StringBuilder failureTrace = new StringBuilder();
+			failureTrace.append(panickedAtText);
+			failureTrace.append('\n').append(CargoTestViewSupport.FRAME_PREFIX).append(source); // $NON-NLS-1$
+
+			// Some private cases
+
+			// thread 'tests::it_fails' panicked at 'assertion failed: `(left == right)`
+			// left: `4`,
+			// right: `5`', tests/testfoo.rs:12:9
+			if (panickedAtText.contains(FAILURE_ASSERTION_BEGIN)) {
+				int leftIndex = trace.indexOf(FAILURE_ASSERTION_LEFT);
+				int rightIndex = trace.indexOf(FAILURE_ASSERTION_RIGHT, leftIndex);
+				if (leftIndex != -1 && rightIndex != -1) {
+					String leftValue = panickedAtText.substring(leftIndex + FAILURE_ASSERTION_LEFT.length(),
+							panickedAtText.lastIndexOf(FAILURE_ASSERTION_SEPARATOR, rightIndex)).strip();
+					String rightValue = panickedAtText.substring(rightIndex + FAILURE_ASSERTION_RIGHT.length())
+							.strip();
+					return new FailureTrace(failureTrace.toString(), leftValue, rightValue);
+				}
+			}
+			return new FailureTrace(failureTrace.toString(), null, null);
+		}
+
+		return new FailureTrace(trace, null, null);
+	}
+
 	private IProcess process;
 	private ITestRunSession session;
-	private InputStream inputStream;
+	private Reader outputReader;
 
 	ProcessingState fDefaultState = new DefaultProcessingState();
 	ProcessingState fTraceState = new TraceProcessingState();
 	ProcessingState fCurrentState = fDefaultState;
 
+	private final TestSuiteIndex fSuites;
+	private final LibtestEventProcessor fEventProcessor;
+	private final TestHistory fHistory;
+	// the execution times of the text output, the event processor keeps its own
+	private final Map<String, Duration> fExecutionTimes = new LinkedHashMap<>();
+
 	public CargoTestRunnerClient(ITestRunSession session) {
+		this(session, false);
+	}
+
+	/**
+	 * @param jsonEvents whether the tests report libtest's JSON events rather
+	 *                   than the human readable output, see
+	 *                   {@link CargoTestDelegate#JSON_EVENTS_ATTRIBUTE}
+	 */
+	public CargoTestRunnerClient(ITestRunSession session, boolean jsonEvents) {
+		this(session, jsonEvents, null);
+	}
+
+	/**
+	 * @param jsonEvents whether the tests report libtest's JSON events rather
+	 *                   than the human readable output, see
+	 *                   {@link CargoTestDelegate#JSON_EVENTS_ATTRIBUTE}
+	 * @param history    the history to record the outcomes of the tests in, saved
+	 *                   when the run ends, may be <code>null</code>
+	 */
+	CargoTestRunnerClient(ITestRunSession session, boolean jsonEvents, TestHistory history) {
 		this.session = session;
+		this.fSuites = new TestSuiteIndex(session);
+		this.fHistory = history;
+		this.fEventProcessor = jsonEvents ? new LibtestEventProcessor(session, fSuites, history) : null;
 	}
 
-	private IProcess connectProcess(ILaunch launch) {
+	// the delegate creates the process asynchronously, possibly after the
+	// monitoring started
+	private final ILaunchListener fLaunchListener = new ILaunchListener() {
+		@Override
+		public void launchChanged(ILaunch launch) {
+			if (launch == session.getLaunch()) {
+				connectProcess(launch);
+			}
+		}
+
+		@Override
+		public void launchAdded(ILaunch launch) {
+			// nothing to do
+		}
+
+		@Override
+		public void launchRemoved(ILaunch launch) {
+			if (launch == session.getLaunch()) {
+				DebugPlugin.getDefault().getLaunchManager().removeLaunchListener(this);
+			}
+		}
+	};
+
+	/**
+	 * Starts reading the output of the launch's process, returns whether the
+	 * launch has a process.
+	 */
+	private synchronized boolean connectProcess(ILaunch launch) {
 		if (this.process != null) {
-			return this.process;
+			return true;
 		}
-		this.process = launch.getProcesses()[0];
-		if (this.process != null && this.inputStream == null) {
-			inputStream = toInputStream(process, false);
-			Job.createSystem("Monitor test process", (ICoreRunnable) monitor -> run(inputStream)) //$NON-NLS-1$
-					.schedule(100);
-			// TODO schedule(100) is a workaround because we need to wait for listeners to
-			// be plugged in, but
-			// it's actually a design issue: listeners should be part of the session and
-			// plugged in earlier so
-			// no delay would be necessary
+		IProcess[] processes = launch.getProcesses();
+		if (processes.length == 0) {
+			return false;
 		}
-		return this.process;
+		DebugPlugin.getDefault().getLaunchManager().removeLaunchListener(fLaunchListener);
+		this.process = processes[0];
+		// the process of a Cargo test launch captures its output from the start,
+		// other processes from what their stream monitor still holds
+		Reader reader = process instanceof CargoTestProcess testProcess ? testProcess.claimOutput() : null;
+		if (reader == null) {
+			reader = toReader(process, false);
+		}
+		outputReader = reader;
+		if (outputReader != null) {
+			final Reader pipe = outputReader;
+			Job.createSystem("Monitor test process", (ICoreRunnable) monitor -> run(pipe)).schedule(); //$NON-NLS-1$
+		}
+		return true;
 	}
 
-	private static InputStream toInputStream(IProcess process, boolean errorStream) {
+	private static Reader toReader(IProcess process, boolean errorStream) {
 		IStreamMonitor monitor = errorStream ? process.getStreamsProxy().getErrorStreamMonitor()
 				: process.getStreamsProxy().getOutputStreamMonitor();
 		if (monitor == null) {
 			return null;
 		}
-
-		List<Integer> content = Collections.synchronizedList(new LinkedList<>());
-		monitor.addListener((text, progresMonitor) -> text.chars().forEach(content::add));
-		byte[] initialContent = monitor.getContents().getBytes();
-		for (int i = initialContent.length - 1; i >= 0; i--) {
-			content.add(0, Integer.valueOf(initialContent[i]));
-		}
-
-		return new InputStream() {
-			@Override
-			public int read() throws IOException {
-				while (!process.isTerminated() || !content.isEmpty()) {
-					if (!content.isEmpty()) {
-						return content.remove(0).intValue();
-					}
-					try {
-						Thread.sleep(20, 0);
-					} catch (InterruptedException e) {
-						Thread.currentThread().interrupt();
-					}
-				}
-				return -1;
-			}
-
-			@Override
-			public int read(byte[] b, int off, int len) throws IOException {
-				if (process.isTerminated() && available() == 0) {
-					return -1;
-				}
-				if (len == 0) {
-					return 0;
-				}
-				int i = 0;
-				do {
-					b[off + i] = (byte) read();
-					i++;
-				} while (available() > 0 && i < len && off + i < b.length);
-				return i;
-			}
-
-			@Override
-			public int available() throws IOException {
-				return content.size();
-			}
-		};
+		return StreamMonitorPipe.connect(process, monitor);
 	}
 
-	private void run(InputStream iStream) {
-		if (iStream == null) {
+	/**
+	 * Reports the output read from the given pipe to the session until the pipe
+	 * ends. Called by the monitoring job, and directly by the benchmark of the
+	 * parser.
+	 */
+	void run(Reader pipe) {
+		if (pipe == null) {
 			return;
 		}
 		session.notifyTestSessionStarted(null);
-		try (InputStreamReader isReader = new InputStreamReader(iStream, StandardCharsets.UTF_8);
-				BufferedReader reader = new BufferedReader(isReader);
+		boolean completed = false;
+		try (BufferedReader reader = new BufferedReader(pipe);
 				PushbackReader inputReader = new PushbackReader(reader)) {
 
 			String message;
 			do {
 				message = readMessage(inputReader);
-				if (message != null) {
+				if (message != null && fEventProcessor != null) {
+					fEventProcessor.process(message);
+				} else if (message != null) {
 					fCurrentState = fCurrentState.apply(message);
 				}
 			} while (message != null);
+			reportExecutionTimes();
 			session.notifyTestSessionCompleted(session.getDuration());
+			completed = true;
+			prefetchSources();
 		} catch (IOException e) {
 			CorrosionPlugin.logError(e);
 			session.notifyTestSessionAborted(null, e);
+		} finally {
+			if (fHistory != null) {
+				fHistory.save(completed);
+			}
+		}
+	}
+
+	/**
+	 * Writes the percentiles of the execution times and the slowest tests to the
+	 * console of the process, if the tests reported their times.
+	 */
+	private void reportExecutionTimes() {
+		TestTimingReport report = new TestTimingReport(
+				fEventProcessor != null ? fEventProcessor.getExecutionTimes() : fExecutionTimes);
+		if (report.isEmpty() || process == null || !(DebugUITools.getConsole(process) instanceof IOConsole console)) {
+			return;
+		}
+		try (IOConsoleOutputStream out = console.newOutputStream()) {
+			out.write(report.format(SLOWEST_TESTS));
+		} catch (IOException e) {
+			CorrosionPlugin.logError(e);
+		}
+	}
+
+	/**
+	 * Looks up the files of the frames of all failure traces at once, so that
+	 * opening a frame from the test view finds its source in the cache of the
+	 * source lookup.
+	 */
+	private void prefetchSources() {
+		ILaunch launch = session.getLaunch();
+		if (launch == null || !(launch.getSourceLocator() instanceof AbstractSourceLookupDirector director)) {
+			return;
+		}
+		Set<String> files = new LinkedHashSet<>();
+		collectFrameFiles(session, files);
+		if (files.isEmpty()) {
+			return;
+		}
+		for (ISourceLookupParticipant participant : director.getParticipants()) {
+			if (participant instanceof CargoSourceLookupParticipant cargoParticipant) {
+				cargoParticipant.prefetchSourceElements(files);
+			}
+		}
+	}
+
+	/**
+	 * Adds the files of the frames of the failure traces of the given element and
+	 * its children.
+	 */
+	static void collectFrameFiles(ITestElement element, Set<String> files) {
+		FailureTrace failureTrace = element.getFailureTrace();
+		if (failureTrace != null && failureTrace.getTrace() != null) {
+			failureTrace.getTrace().lines().map(CargoTestViewSupport::getFrameFile).filter(file -> file != null)
+					.forEach(files::add);
+		}
+		if (element instanceof ITestSuiteElement suite) {
+			for (ITestElement child : suite.getChildren()) {
+				collectFrameFiles(child, files);
+			}
 		}
 	}
 
@@ -371,15 +487,21 @@ public class CargoTestRunnerClient implements ITestRunnerClient {
 
 	@Override
 	public void startMonitoring() {
-		this.process = connectProcess(session.getLaunch());
+		ILaunch launch = session.getLaunch();
+		if (!connectProcess(launch)) {
+			DebugPlugin.getDefault().getLaunchManager().addLaunchListener(fLaunchListener);
+			// the process may have been added in the meantime
+			connectProcess(launch);
+		}
 	}
 
 	@Override
-	public void stopMonitoring() {
+	public synchronized void stopMonitoring() {
+		DebugPlugin.getDefault().getLaunchManager().removeLaunchListener(fLaunchListener);
 		try {
-			if (inputStream != null) {
-				inputStream.close();
-				inputStream = null;
+			if (outputReader != null) {
+				outputReader.close();
+				outputReader = null;
 			}
 		} catch (IOException e) {
 			CorrosionPlugin.logError(e);
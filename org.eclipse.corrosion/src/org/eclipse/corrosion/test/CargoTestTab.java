@@ -12,6 +12,8 @@
  *******************************************************************************/
 package org.eclipse.corrosion.test;
 
+import static org.eclipse.swt.events.SelectionListener.widgetSelectedAdapter;
+
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.corrosion.CorrosionPlugin;
 import org.eclipse.corrosion.Messages;
@@ -21,17 +23,32 @@ import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Spinner;
 import org.eclipse.swt.widgets.Text;
 
 public class CargoTestTab extends AbstractCargoLaunchConfigurationTab {
 	private Text testnameText;
+	private Button jsonEventsCheckbox;
+	private Button nextestCheckbox;
+	private Spinner testThreadsSpinner;
+	private Spinner retriesSpinner;
+	private Spinner parallelBinariesSpinner;
+	private Button failedFirstCheckbox;
 
 	@Override
 	public void performApply(ILaunchConfigurationWorkingCopy configuration) {
 		configuration.setAttribute(CargoTestDelegate.TEST_NAME_ATTRIBUTE, testnameText.getText());
+		configuration.setAttribute(CargoTestDelegate.JSON_EVENTS_ATTRIBUTE, jsonEventsCheckbox.getSelection());
+		configuration.setAttribute(CargoTestDelegate.NEXTEST_ATTRIBUTE, nextestCheckbox.getSelection());
+		configuration.setAttribute(CargoTestDelegate.TEST_THREADS_ATTRIBUTE, testThreadsSpinner.getSelection());
+		configuration.setAttribute(CargoTestDelegate.RETRIES_ATTRIBUTE, retriesSpinner.getSelection());
+		configuration.setAttribute(CargoTestDelegate.PARALLEL_BINARIES_ATTRIBUTE,
+				parallelBinariesSpinner.getSelection());
+		configuration.setAttribute(CargoTestDelegate.FAILED_FIRST_ATTRIBUTE, failedFirstCheckbox.getSelection());
 		super.performApply(configuration);
 	}
 
@@ -65,13 +82,84 @@ public class CargoTestTab extends AbstractCargoLaunchConfigurationTab {
 		testnameExplanation.setText(Messages.CargoTestTab_testNameDescription);
 		testnameExplanation.setEnabled(false);
 		testnameExplanation.setLayoutData(new GridData(SWT.LEFT, SWT.CENTER, false, false, 3, 1));
+
+		new Label(commandGroup, SWT.NONE);
+		jsonEventsCheckbox = new Button(commandGroup, SWT.CHECK);
+		jsonEventsCheckbox.setText(Messages.CargoTestTab_jsonEvents);
+		jsonEventsCheckbox.setToolTipText(Messages.CargoTestTab_jsonEventsDescription);
+		jsonEventsCheckbox.setLayoutData(new GridData(SWT.LEFT, SWT.CENTER, false, false, 3, 1));
+		jsonEventsCheckbox.addSelectionListener(widgetSelectedAdapter(e -> {
+			setDirty(true);
+			updateLaunchConfigurationDialog();
+		}));
+
+		new Label(commandGroup, SWT.NONE);
+		nextestCheckbox = new Button(commandGroup, SWT.CHECK);
+		nextestCheckbox.setText(Messages.CargoTestTab_nextest);
+		nextestCheckbox.setToolTipText(Messages.CargoTestTab_nextestDescription);
+		nextestCheckbox.setLayoutData(new GridData(SWT.LEFT, SWT.CENTER, false, false, 3, 1));
+		nextestCheckbox.addSelectionListener(widgetSelectedAdapter(e -> {
+			updateNextestControls();
+			setDirty(true);
+			updateLaunchConfigurationDialog();
+		}));
+
+		testThreadsSpinner = createSpinner(commandGroup, Messages.CargoTestTab_testThreads,
+				Messages.CargoTestTab_testThreadsDescription);
+		retriesSpinner = createSpinner(commandGroup, Messages.CargoTestTab_retries,
+				Messages.CargoTestTab_retriesDescription);
+		parallelBinariesSpinner = createSpinner(commandGroup, Messages.CargoTestTab_parallelBinaries,
+				Messages.CargoTestTab_parallelBinariesDescription);
+		parallelBinariesSpinner.addModifyListener(e -> updateNextestControls());
+
+		new Label(commandGroup, SWT.NONE);
+		failedFirstCheckbox = new Button(commandGroup, SWT.CHECK);
+		failedFirstCheckbox.setText(Messages.CargoTestTab_failedFirst);
+		failedFirstCheckbox.setToolTipText(Messages.CargoTestTab_failedFirstDescription);
+		failedFirstCheckbox.setLayoutData(new GridData(SWT.LEFT, SWT.CENTER, false, false, 3, 1));
+		failedFirstCheckbox.addSelectionListener(widgetSelectedAdapter(e -> {
+			setDirty(true);
+			updateLaunchConfigurationDialog();
+		}));
 		return commandGroup;
 	}
 
+	private Spinner createSpinner(Composite container, String label, String description) {
+		Label spinnerLabel = new Label(container, SWT.NONE);
+		spinnerLabel.setText(label);
+		spinnerLabel.setLayoutData(new GridData(SWT.RIGHT, SWT.CENTER, false, false));
+
+		Spinner spinner = new Spinner(container, SWT.BORDER);
+		spinner.setMinimum(0);
+		spinner.setMaximum(1024);
+		spinner.setToolTipText(description);
+		spinner.setLayoutData(new GridData(SWT.LEFT, SWT.CENTER, false, false, 3, 1));
+		spinner.addModifyListener(e -> {
+			setDirty(true);
+			updateLaunchConfigurationDialog();
+		});
+		return spinner;
+	}
+
+	private void updateNextestControls() {
+		retriesSpinner.setEnabled(nextestCheckbox.getSelection());
+		// nextest runs the binaries in parallel itself
+		parallelBinariesSpinner.setEnabled(!nextestCheckbox.getSelection());
+		// the order applies to plain cargo test runs
+		failedFirstCheckbox
+				.setEnabled(!nextestCheckbox.getSelection() && parallelBinariesSpinner.getSelection() == 0);
+	}
+
 	@Override
 	public void setDefaults(ILaunchConfigurationWorkingCopy configuration) {
 		super.setDefaults(configuration);
 		configuration.setAttribute(CargoTestDelegate.TEST_NAME_ATTRIBUTE, ""); //$NON-NLS-1$
+		configuration.setAttribute(CargoTestDelegate.JSON_EVENTS_ATTRIBUTE, false);
+		configuration.setAttribute(CargoTestDelegate.NEXTEST_ATTRIBUTE, false);
+		configuration.setAttribute(CargoTestDelegate.TEST_THREADS_ATTRIBUTE, 0);
+		configuration.setAttribute(CargoTestDelegate.RETRIES_ATTRIBUTE, 0);
+		configuration.setAttribute(CargoTestDelegate.PARALLEL_BINARIES_ATTRIBUTE, 0);
+		configuration.setAttribute(CargoTestDelegate.FAILED_FIRST_ATTRIBUTE, false);
 	}
 
 	@Override
@@ -82,6 +170,29 @@ public class CargoTestTab extends AbstractCargoLaunchConfigurationTab {
 		} catch (CoreException ce) {
 			testnameText.setText(""); //$NON-NLS-1$
 		}
+		try {
+			jsonEventsCheckbox.setSelection(configuration.getAttribute(CargoTestDelegate.JSON_EVENTS_ATTRIBUTE, false));
+		} catch (CoreException ce) {
+			jsonEventsCheckbox.setSelection(false);
+		}
+		try {
+			nextestCheckbox.setSelection(configuration.getAttribute(CargoTestDelegate.NEXTEST_ATTRIBUTE, false));
+			testThreadsSpinner.setSelection(configuration.getAttribute(CargoTestDelegate.TEST_THREADS_ATTRIBUTE, 0));
+			retriesSpinner.setSelection(configuration.getAttribute(CargoTestDelegate.RETRIES_ATTRIBUTE, 0));
+			parallelBinariesSpinner
+					.setSelection(configuration.getAttribute(CargoTestDelegate.PARALLEL_BINARIES_ATTRIBUTE, 0));
+		} catch (CoreException ce) {
+			nextestCheckbox.setSelection(false);
+			testThreadsSpinner.setSelection(0);
+			retriesSpinner.setSelection(0);
+			parallelBinariesSpinner.setSelection(0);
+		}
+		try {
+			failedFirstCheckbox.setSelection(configuration.getAttribute(CargoTestDelegate.FAILED_FIRST_ATTRIBUTE, false));
+		} catch (CoreException ce) {
+			failedFirstCheckbox.setSelection(false);
+		}
+		updateNextestControls();
 	}
 
 	@Override
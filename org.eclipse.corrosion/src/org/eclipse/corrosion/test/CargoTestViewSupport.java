@@ -9,6 +9,7 @@
  ********************************************************************/
 package org.eclipse.corrosion.test;
 
+import java.net.URI;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -18,6 +19,7 @@ import org.eclipse.core.text.StringMatcher;
 import org.eclipse.corrosion.CorrosionPlugin;
 import org.eclipse.corrosion.launch.RustLaunchDelegateTools;
 import org.eclipse.corrosion.test.actions.OpenEditorAtLineAction;
+import org.eclipse.corrosion.test.actions.OpenFullOutputAction;
 import org.eclipse.corrosion.test.actions.OpenTestAction;
 import org.eclipse.debug.core.ILaunchConfiguration;
 import org.eclipse.debug.core.ILaunchConfigurationWorkingCopy;
@@ -36,7 +38,22 @@ public class CargoTestViewSupport implements ITestViewSupport {
 
 	@Override
 	public ITestRunnerClient newTestRunnerClient(ITestRunSession session) {
-		return new CargoTestRunnerClient(session);
+		boolean jsonEvents = false;
+		TestHistory history = null;
+		ILaunchConfiguration configuration = session.getLaunch() == null ? null
+				: session.getLaunch().getLaunchConfiguration();
+		if (configuration != null) {
+			try {
+				jsonEvents = CargoTestDelegate.reportsJsonEvents(configuration);
+				String projectName = configuration.getAttribute(RustLaunchDelegateTools.PROJECT_ATTRIBUTE, ""); //$NON-NLS-1$
+				if (!projectName.isEmpty()) {
+					history = TestHistory.forProject(projectName, CargoTestDelegate.runsAllTests(configuration));
+				}
+			} catch (CoreException e) {
+				CorrosionPlugin.logError(e);
+			}
+		}
+		return new CargoTestRunnerClient(session, jsonEvents, history);
 	}
 
 	@Override
@@ -51,15 +68,17 @@ public class CargoTestViewSupport implements ITestViewSupport {
 
 	@Override
 	public IAction createOpenEditorAction(Shell shell, ITestElement failure, String traceLine) {
+		URI fullOutput = FailureOutputBuffer.findFullOutput(traceLine);
+		if (fullOutput != null) {
+			return new OpenFullOutputAction(fullOutput);
+		}
 		try {
-			int indexOfFramePrefix = traceLine.indexOf(FRAME_PREFIX);
-			if (indexOfFramePrefix == -1) {
+			String testName = getFrameFile(traceLine);
+			if (testName == null) {
 				return null;
 			}
 			int columNumberIndex = traceLine.lastIndexOf(':');
 			int lineNumberIndex = traceLine.lastIndexOf(':', columNumberIndex - 1);
-			String testName = traceLine
-					.substring(traceLine.indexOf(FRAME_PREFIX) + FRAME_PREFIX.length(), lineNumberIndex).trim();
 
 			String lineNumber = traceLine.substring(lineNumberIndex + 1, columNumberIndex).trim();
 			int line = Integer.parseInt(lineNumber);
@@ -70,6 +89,22 @@ public class CargoTestViewSupport implements ITestViewSupport {
 		return null;
 	}
 
+	/**
+	 * Returns the file of a frame of a failure trace, e.g.
+	 * <code>src/lib.rs</code> of <code> at src/lib.rs:12:5</code>, or
+	 * <code>null</code> if the line is no frame.
+	 */
+	static String getFrameFile(String traceLine) {
+		int indexOfFramePrefix = traceLine.indexOf(FRAME_PREFIX);
+		int columNumberIndex = traceLine.lastIndexOf(':');
+		int lineNumberIndex = columNumberIndex <= 0 ? -1 : traceLine.lastIndexOf(':', columNumberIndex - 1);
+		int start = indexOfFramePrefix + FRAME_PREFIX.length();
+		if (indexOfFramePrefix == -1 || lineNumberIndex < start) {
+			return null;
+		}
+		return traceLine.substring(start, lineNumberIndex).trim();
+	}
+
 	@Override
 	public Runnable createShowStackTraceInConsoleViewActionDelegate(ITestElement failedTest) {
 		return null;
@@ -0,0 +1,176 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.corrosion.CorrosionPlugin;
+import org.eclipse.corrosion.Messages;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * The output of a failing test, bounded in memory. The head and the tail of the
+ * output are kept for the failure trace; once the output outgrows them, all of
+ * it is written to a temporary file as well, which the trace refers to by its
+ * URI, see {@link #findFullOutput(String)}.
+ */
+class FailureOutputBuffer {
+	static final int HEAD_CAPACITY = 16 * 1024;
+	static final int TAIL_CAPACITY = 16 * 1024;
+	private static final String FULL_OUTPUT_PREFIX = "corrosion-test-output"; //$NON-NLS-1$
+	private static final String FULL_OUTPUT_SUFFIX = ".txt"; //$NON-NLS-1$
+	private static final String URI_SCHEME = "file:"; //$NON-NLS-1$
+
+	private final int fHeadCapacity;
+	private final int fTailCapacity;
+	private final StringBuilder fHead = new StringBuilder();
+	// holds up to twice the capacity, so that it is trimmed once in a while only
+	private final StringBuilder fTail = new StringBuilder();
+	private long fLength;
+	private Path fFullOutput;
+	private Writer fFullOutputWriter;
+	private boolean fFullOutputFailed;
+
+	FailureOutputBuffer() {
+		this(HEAD_CAPACITY, TAIL_CAPACITY);
+	}
+
+	FailureOutputBuffer(int headCapacity, int tailCapacity) {
+		fHeadCapacity = headCapacity;
+		fTailCapacity = tailCapacity;
+	}
+
+	void append(CharSequence text) {
+		fLength += text.length();
+		int offset = 0;
+		if (fHead.length() < fHeadCapacity) {
+			offset = Math.min(text.length(), fHeadCapacity - fHead.length());
+			fHead.append(text, 0, offset);
+			if (offset == text.length()) {
+				return;
+			}
+		}
+		// the output fits in the head and the tail as long as nothing is omitted
+		if (fLength > fHeadCapacity + fTailCapacity) {
+			writeFullOutput(text, offset);
+		}
+		fTail.append(text, offset, text.length());
+		if (fTail.length() > 2 * fTailCapacity) {
+			fTail.delete(0, fTail.length() - fTailCapacity);
+		}
+	}
+
+	boolean isEmpty() {
+		return fLength == 0;
+	}
+
+	/**
+	 * Returns the text of the failure trace: the output if it fits, otherwise its
+	 * head and tail around a note on the omitted part. Ends writing the full
+	 * output.
+	 */
+	String getTrace() {
+		closeFullOutput();
+		final int tailStart = Math.max(0, fTail.length() - fTailCapacity);
+		final long omitted = fLength - fHead.length() - (fTail.length() - tailStart);
+		if (omitted == 0) {
+			return fHead.toString() + fTail;
+		}
+		final StringBuilder trace = new StringBuilder(fHead.length() + fTailCapacity + 256);
+		trace.append(fHead);
+		if (trace.length() > 0 && trace.charAt(trace.length() - 1) != '\n') {
+			trace.append('\n');
+		}
+		final String omittedCount = Long.toString(omitted);
+		trace.append(fFullOutput == null ? NLS.bind(Messages.FailureOutputBuffer_omitted, omittedCount)
+				: NLS.bind(Messages.FailureOutputBuffer_omittedFullOutput, omittedCount, fFullOutput.toUri()));
+		trace.append('\n');
+		trace.append(fTail, tailStart, fTail.length());
+		return trace.toString();
+	}
+
+	/**
+	 * Empties the buffer for the output of another test. The file of the full
+	 * output is kept, the trace that refers to it may still be shown.
+	 */
+	void reset() {
+		closeFullOutput();
+		fHead.setLength(0);
+		fTail.setLength(0);
+		fLength = 0;
+		fFullOutput = null;
+		fFullOutputFailed = false;
+	}
+
+	private void writeFullOutput(CharSequence text, int offset) {
+		if (fFullOutputFailed) {
+			return;
+		}
+		try {
+			if (fFullOutputWriter == null) {
+				fFullOutput = Files.createTempFile(FULL_OUTPUT_PREFIX, FULL_OUTPUT_SUFFIX);
+				fFullOutput.toFile().deleteOnExit();
+				fFullOutputWriter = Files.newBufferedWriter(fFullOutput, StandardCharsets.UTF_8);
+				// the tail holds all the output after the head until now
+				fFullOutputWriter.append(fHead);
+				fFullOutputWriter.append(fTail);
+			}
+			fFullOutputWriter.append(text, offset, text.length());
+		} catch (IOException e) {
+			// the trace keeps the head and the tail still
+			CorrosionPlugin.logError(e);
+			fFullOutputFailed = true;
+			closeFullOutput();
+			fFullOutput = null;
+		}
+	}
+
+	private void closeFullOutput() {
+		if (fFullOutputWriter == null) {
+			return;
+		}
+		try {
+			fFullOutputWriter.close();
+		} catch (IOException e) {
+			CorrosionPlugin.logError(e);
+		}
+		fFullOutputWriter = null;
+	}
+
+	/**
+	 * Returns the URI of the full output a line of a failure trace refers to,
+	 * <code>null</code> if there is none.
+	 */
+	static URI findFullOutput(String traceLine) {
+		final int start = traceLine.indexOf(URI_SCHEME);
+		if (start < 0) {
+			return null;
+		}
+		int end = start;
+		while (end < traceLine.length() && !Character.isWhitespace(traceLine.charAt(end))) {
+			end++;
+		}
+		try {
+			final URI uri = new URI(traceLine.substring(start, end));
+			final Path fileName = Path.of(uri).getFileName();
+			return fileName != null && fileName.toString().startsWith(FULL_OUTPUT_PREFIX) ? uri : null;
+		} catch (URISyntaxException | IllegalArgumentException | FileSystemNotFoundException e) {
+			// not a file URI
+			return null;
+		}
+	}
+}
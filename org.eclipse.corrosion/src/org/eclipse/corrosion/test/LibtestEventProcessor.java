@@ -0,0 +1,234 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.unittest.model.ITestElement;
+import org.eclipse.unittest.model.ITestElement.Result;
+import org.eclipse.unittest.model.ITestRunSession;
+import org.eclipse.unittest.model.ITestSuiteElement;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Reports the events of libtest's JSON format to a test run session, see
+ * <code>cargo test -- -Z unstable-options --format json --report-time</code>.
+ * Every event is an object on a line of its own:
+ *
+ * <pre>
+ * { "type": "suite", "event": "started", "test_count": 2 }
+ * { "type": "test", "event": "started", "name": "tests::it_works" }
+ * { "type": "test", "name": "tests::it_works", "event": "ok", "exec_time": 0.000112 }
+ * { "type": "test", "name": "tests::it_fails", "event": "failed", "exec_time": 0.0002, "stdout": "thread ..." }
+ * { "type": "suite", "event": "failed", "passed": 1, "failed": 1, ... }
+ * </pre>
+ *
+ * The fields are read as they are parsed, without building a tree. Other lines,
+ * e.g. output of tests run with <code>--nocapture</code>, are ignored.
+ *
+ * <code>cargo nextest run --message-format libtest-json</code> writes the same
+ * events, the test names are prefixed with the binary, e.g.
+ * <code>my-crate::bin/my-crate$tests::it_works</code>. As nextest runs the
+ * tests of several binaries at once, their events may interleave. So do the
+ * events of a {@link ShardedTestProcess}, which prefixes the names likewise.
+ * The tests of a binary are reported below a suite of the binary.
+ */
+class LibtestEventProcessor {
+	private static final String TYPE = "type"; //$NON-NLS-1$
+	private static final String EVENT = "event"; //$NON-NLS-1$
+	private static final String NAME = "name"; //$NON-NLS-1$
+	private static final String STDOUT = "stdout"; //$NON-NLS-1$
+	private static final String MESSAGE = "message"; //$NON-NLS-1$
+	private static final String EXEC_TIME = "exec_time"; //$NON-NLS-1$
+
+	private static final String TYPE_TEST = "test"; //$NON-NLS-1$
+	private static final String TYPE_BENCH = "bench"; //$NON-NLS-1$
+
+	private static final String EVENT_STARTED = "started"; //$NON-NLS-1$
+	private static final String EVENT_OK = "ok"; //$NON-NLS-1$
+	private static final String EVENT_FAILED = "failed"; //$NON-NLS-1$
+	private static final String EVENT_IGNORED = "ignored"; //$NON-NLS-1$
+
+	private static final String TEST_NAME_SEPARATOR = "::"; //$NON-NLS-1$
+	private static final char BINARY_ID_SEPARATOR = '$';
+
+	private final ITestRunSession fSession;
+	private final TestSuiteIndex fSuites;
+	private final Map<String, ITestSuiteElement> fBinarySuites = new HashMap<>();
+	// the running tests by the reported name, which is unique per binary only
+	private final Map<String, ITestElement> fTests = new HashMap<>();
+	private final Map<String, Duration> fExecutionTimes = new LinkedHashMap<>();
+	private final TestHistory fHistory;
+
+	// the fields of the current event
+	private String fType;
+	private String fEvent;
+	private String fName;
+	private String fStdout;
+	private String fMessage;
+	private Duration fExecTime;
+
+	LibtestEventProcessor(ITestRunSession session) {
+		this(session, new TestSuiteIndex(session));
+	}
+
+	LibtestEventProcessor(ITestRunSession session, TestSuiteIndex suites) {
+		this(session, suites, null);
+	}
+
+	/**
+	 * @param history the history to record the outcomes of the tests in, may be
+	 *                <code>null</code>
+	 */
+	LibtestEventProcessor(ITestRunSession session, TestSuiteIndex suites, TestHistory history) {
+		fSession = session;
+		fSuites = suites;
+		fHistory = history;
+	}
+
+	/**
+	 * Processes a line of the output of the test binaries.
+	 */
+	void process(String line) {
+		if (!line.startsWith("{")) //$NON-NLS-1$
+			return;
+
+		fType = fEvent = fName = fStdout = fMessage = null;
+		fExecTime = null;
+		try (JsonReader reader = new JsonReader(new StringReader(line))) {
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+				case TYPE -> fType = reader.nextString();
+				case EVENT -> fEvent = reader.nextString();
+				case NAME -> fName = reader.nextString();
+				case STDOUT -> fStdout = reader.nextString();
+				case MESSAGE -> fMessage = reader.nextString();
+				case EXEC_TIME -> fExecTime = readExecTime(reader);
+				default -> reader.skipValue();
+				}
+			}
+			reader.endObject();
+		} catch (IOException | IllegalStateException | JsonParseException | NumberFormatException e) {
+			// not an event, e.g. output of a test
+			return;
+		}
+
+		// suite events are not needed, tests are removed once they end
+		if ((TYPE_TEST.equals(fType) || TYPE_BENCH.equals(fType)) && fName != null && fEvent != null) {
+			processTestEvent();
+		}
+	}
+
+	private void processTestEvent() {
+		if (EVENT_STARTED.equals(fEvent)) {
+			startTest();
+			return;
+		}
+		// other events, e.g. timeout warnings, do not end the test
+		final boolean failed = EVENT_FAILED.equals(fEvent);
+		final boolean ignored = EVENT_IGNORED.equals(fEvent);
+		if (!failed && !ignored && !EVENT_OK.equals(fEvent) && !TYPE_BENCH.equals(fType))
+			return;
+
+		ITestElement test = fTests.remove(fName);
+		if (test == null) {
+			test = startTest();
+			fTests.remove(fName);
+		}
+		if (fExecTime != null) {
+			fExecutionTimes.put(fName, fExecTime);
+		}
+		if (fHistory != null && !ignored) {
+			fHistory.record(fName, failed, fExecTime);
+		}
+		if (failed) {
+			// the session keeps the traces, bounded like the ones of the text output
+			final FailureOutputBuffer trace = new FailureOutputBuffer();
+			if (fStdout != null) {
+				trace.append(fStdout);
+			}
+			if (fMessage != null) {
+				trace.append(fMessage);
+			}
+			fSession.notifyTestFailed(test, Result.FAILURE, false,
+					trace.isEmpty() ? null : CargoTestRunnerClient.fillFailureTrace(trace.getTrace()));
+		}
+		fSession.notifyTestEnded(test, ignored);
+	}
+
+	private ITestElement startTest() {
+		final int binarySeparator = fName.indexOf(BINARY_ID_SEPARATOR);
+		final String name = fName.substring(binarySeparator + 1);
+		final int separator = name.lastIndexOf(TEST_NAME_SEPARATOR);
+		final String displayName = separator < 0 ? name
+				: name.substring(separator + TEST_NAME_SEPARATOR.length()).trim();
+		final String suiteName = separator < 0 ? null : name.substring(0, separator).trim();
+		final ITestSuiteElement suite;
+		if (binarySeparator < 0) {
+			suite = fSuites.getOrCreate(suiteName);
+		} else {
+			final String binaryId = fName.substring(0, binarySeparator);
+			suite = fSuites.getOrCreate(getOrCreateBinarySuite(binaryId), fName.substring(0, binarySeparator + 1),
+					suiteName);
+		}
+		final ITestElement test = fSession.newTestCase(fName, name, suite, displayName, null);
+		fTests.put(fName, test);
+		fSession.notifyTestStarted(test);
+		return test;
+	}
+
+	private ITestSuiteElement getOrCreateBinarySuite(String binaryId) {
+		return fBinarySuites.computeIfAbsent(binaryId,
+				id -> fSession.getTestElement(id) instanceof ITestSuiteElement suite ? suite
+						: fSession.newTestSuite(id, id, null, fSession, id, null));
+	}
+
+	/**
+	 * Reads the execution time, which is a number of seconds, older versions of
+	 * libtest write it as a string such as <code>"0.001s"</code>.
+	 */
+	private static Duration readExecTime(JsonReader reader) throws IOException {
+		if (reader.peek() == JsonToken.STRING) {
+			return parseExecTime(reader.nextString());
+		}
+		return Duration.ofNanos(Math.round(reader.nextDouble() * 1e9));
+	}
+
+	/**
+	 * Parses an execution time such as <code>0.001s</code>, as written by
+	 * libtest's <code>--report-time</code>.
+	 *
+	 * @throws NumberFormatException if the time is not a number of seconds
+	 */
+	static Duration parseExecTime(String value) {
+		final double seconds = Double
+				.parseDouble(value.endsWith("s") ? value.substring(0, value.length() - 1) : value); //$NON-NLS-1$
+		return Duration.ofNanos(Math.round(seconds * 1e9));
+	}
+
+	/**
+	 * Returns the execution times reported by libtest, by test name. The times
+	 * only cover the tests themselves, unlike the times measured by the test run
+	 * session.
+	 */
+	Map<String, Duration> getExecutionTimes() {
+		return Collections.unmodifiableMap(fExecutionTimes);
+	}
+}
@@ -0,0 +1,310 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.debug.core.DebugPlugin;
+
+/**
+ * A process made of several child processes, presented to the launch as one.
+ * The output of the children is merged line by line into the output and the
+ * error stream of this process. The exit value is the first one of a child that
+ * is not 0.
+ *
+ * Subclasses start the children from {@link #run()}, which runs in a thread of
+ * its own; the process ends when it returns.
+ */
+abstract class MergedOutputProcess extends Process {
+	private static final int LINE_CAPACITY = 1024;
+
+	private final LineStream fOutput = new LineStream();
+	private final LineStream fError = new LineStream();
+	private final ExecutorService fExecutor = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "Cargo test processes"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final List<Process> fChildren = new CopyOnWriteArrayList<>();
+	private final AtomicInteger fExitValue = new AtomicInteger();
+	private final CompletableFuture<Integer> fExit = new CompletableFuture<>();
+	private volatile boolean fDestroyed;
+
+	/**
+	 * Starts the children, waits for them and returns.
+	 */
+	protected abstract void run() throws InterruptedException;
+
+	/**
+	 * Calls {@link #run()} in a thread of its own.
+	 */
+	final void start() {
+		execute(() -> {
+			try {
+				run();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				recordExit(1);
+			} finally {
+				fExecutor.shutdown();
+				fOutput.end();
+				fError.end();
+				fExit.complete(fExitValue.get());
+			}
+		});
+	}
+
+	final void execute(Runnable runnable) {
+		fExecutor.execute(runnable);
+	}
+
+	final boolean isDestroyed() {
+		return fDestroyed;
+	}
+
+	/**
+	 * Starts a child process, returns <code>null</code> if it cannot be started or
+	 * this process was destroyed.
+	 */
+	final Process exec(List<String> command, File workingDirectory, String[] env) {
+		if (fDestroyed) {
+			return null;
+		}
+		try {
+			final Process process = DebugPlugin.exec(command.toArray(String[]::new), workingDirectory, env);
+			fChildren.add(process);
+			// a concurrent destroy may have missed the process
+			if (fDestroyed) {
+				process.destroy();
+			}
+			return process;
+		} catch (CoreException e) {
+			writeError(e.getMessage());
+			recordExit(1);
+			return null;
+		}
+	}
+
+	/**
+	 * Runs a child process to its end, passing its output lines through the given
+	 * function.
+	 *
+	 * @return the exit value of the child, or -1 if it was not started
+	 */
+	final int runChild(List<String> command, File workingDirectory, String[] env, Consumer<String> output)
+			throws InterruptedException {
+		final Process process = exec(command, workingDirectory, env);
+		if (process == null) {
+			return -1;
+		}
+		final CompletableFuture<Void> errors = pump(process.getErrorStream(), this::writeError);
+		read(process.getInputStream(), output);
+		join(errors);
+		final int exitValue = process.waitFor();
+		recordExit(exitValue);
+		return exitValue;
+	}
+
+	final void recordExit(int exitValue) {
+		if (exitValue != 0) {
+			fExitValue.compareAndSet(0, exitValue);
+		}
+	}
+
+	final void writeOutput(String line) {
+		fOutput.write(line + '\n');
+	}
+
+	final void writeError(String line) {
+		fError.write(line + '\n');
+	}
+
+	/**
+	 * Writes text that brings its own line breaks to the error stream.
+	 */
+	final void writeErrorText(String text) {
+		fError.write(text);
+	}
+
+	private CompletableFuture<Void> pump(InputStream stream, Consumer<String> lines) {
+		return CompletableFuture.runAsync(() -> read(stream, lines), fExecutor);
+	}
+
+	private static void read(InputStream stream, Consumer<String> lines) {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lines.accept(line);
+			}
+		} catch (IOException e) {
+			// the process was destroyed
+		}
+	}
+
+	private static void join(CompletableFuture<Void> future) {
+		try {
+			future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			// reading ends with the process either way
+		}
+	}
+
+	@Override
+	public OutputStream getOutputStream() {
+		return OutputStream.nullOutputStream();
+	}
+
+	@Override
+	public InputStream getInputStream() {
+		return fOutput;
+	}
+
+	@Override
+	public InputStream getErrorStream() {
+		return fError;
+	}
+
+	@Override
+	public int waitFor() throws InterruptedException {
+		try {
+			return fExit.get();
+		} catch (ExecutionException e) {
+			return 1;
+		}
+	}
+
+	@Override
+	public boolean waitFor(long timeout, TimeUnit unit) throws InterruptedException {
+		try {
+			fExit.get(timeout, unit);
+			return true;
+		} catch (TimeoutException e) {
+			return false;
+		} catch (ExecutionException e) {
+			return true;
+		}
+	}
+
+	@Override
+	public int exitValue() {
+		final Integer exitValue = fExit.getNow(null);
+		if (exitValue == null) {
+			throw new IllegalThreadStateException();
+		}
+		return exitValue.intValue();
+	}
+
+	@Override
+	public void destroy() {
+		fDestroyed = true;
+		for (Process child : fChildren) {
+			child.destroy();
+		}
+	}
+
+	@Override
+	public Stream<ProcessHandle> descendants() {
+		return fChildren.stream().filter(Process::isAlive).map(Process::toHandle)
+				.flatMap(handle -> Stream.concat(Stream.of(handle), handle.descendants()));
+	}
+
+	/**
+	 * A stream of text written by several threads. Writers wait while the stream
+	 * holds {@link MergedOutputProcess#LINE_CAPACITY} chunks, the text is dropped
+	 * once the reader closed the stream.
+	 */
+	private static final class LineStream extends InputStream {
+		private static final byte[] END = new byte[0];
+
+		private final BlockingQueue<byte[]> fLines = new ArrayBlockingQueue<>(LINE_CAPACITY);
+		private byte[] fCurrent;
+		private int fPosition;
+		private volatile boolean fClosed;
+
+		void write(String text) {
+			put(text.getBytes(StandardCharsets.UTF_8));
+		}
+
+		void end() {
+			put(END);
+		}
+
+		private void put(byte[] bytes) {
+			try {
+				while (!fClosed && !fLines.offer(bytes, 100, TimeUnit.MILLISECONDS)) {
+					// wait for the reader
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		@Override
+		public int read() throws IOException {
+			final byte[] b = new byte[1];
+			return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+		}
+
+		@Override
+		public synchronized int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0)
+				return 0;
+			while (fCurrent == null || fPosition == fCurrent.length) {
+				if (fCurrent == END || fClosed)
+					return -1;
+				try {
+					fCurrent = fLines.take();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException();
+				}
+				fPosition = 0;
+			}
+			final int read = Math.min(len, fCurrent.length - fPosition);
+			System.arraycopy(fCurrent, fPosition, b, off, read);
+			fPosition += read;
+			return read;
+		}
+
+		@Override
+		public synchronized int available() {
+			return fCurrent == null ? 0 : fCurrent.length - fPosition;
+		}
+
+		@Override
+		public void close() {
+			fClosed = true;
+			fLines.clear();
+		}
+	}
+}
@@ -0,0 +1,47 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Runs several <code>cargo test</code> command lines one after the other,
+ * presented to the launch as a single process, see {@link TestRunOrder}. Later
+ * commands run even if earlier ones fail, as failing tests do not stop a run.
+ */
+class SequentialTestProcess extends MergedOutputProcess {
+	private final List<List<String>> fCommands;
+	private final File fWorkingDirectory;
+	private final String[] fEnv;
+
+	private SequentialTestProcess(List<List<String>> commands, File workingDirectory, String[] env) {
+		fCommands = commands;
+		fWorkingDirectory = workingDirectory;
+		fEnv = env;
+	}
+
+	static SequentialTestProcess start(List<List<String>> commands, File workingDirectory, String[] env) {
+		final SequentialTestProcess process = new SequentialTestProcess(commands, workingDirectory, env);
+		process.start();
+		return process;
+	}
+
+	@Override
+	protected void run() throws InterruptedException {
+		for (List<String> command : fCommands) {
+			if (isDestroyed()) {
+				break;
+			}
+			writeError(String.join(" ", command)); //$NON-NLS-1$
+			runChild(command, fWorkingDirectory, fEnv, this::writeOutput);
+		}
+	}
+}
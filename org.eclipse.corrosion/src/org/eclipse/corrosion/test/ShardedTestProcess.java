@@ -0,0 +1,442 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.corrosion.CorrosionPlugin;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * Runs the test binaries of a Cargo package concurrently, presented to the
+ * launch as a single process. The binaries are built first with
+ * <code>cargo test --no-run --message-format=json</code>, their executables are
+ * taken from the compiler artifacts. At most the given number of binaries run at
+ * once, each reporting libtest's JSON events. Doc tests are not run.
+ *
+ * The binaries are run directly rather than by <code>cargo test</code>, with
+ * the runtime environment that Cargo would set: <code>CARGO</code>, the
+ * <code>CARGO_MANIFEST_*</code> and <code>CARGO_PKG_*</code> variables of
+ * their package, read by <code>cargo metadata</code>, and their directory in
+ * the search path of dynamic libraries. Unlike with <code>cargo test</code>, a
+ * runner configured by <code>CARGO_TARGET_&lt;triple&gt;_RUNNER</code> or in
+ * <code>.cargo/config.toml</code> is not used, and the libraries of the
+ * toolchain's sysroot and of build script outputs are not in the search path.
+ *
+ * The standard output of the binaries is merged line by line, the names of the
+ * tests in the events are prefixed with the binary as nextest does, e.g.
+ * <code>my-crate$tests::it_works</code> or
+ * <code>my-crate::test/integration$it_works</code>, see
+ * {@link LibtestEventProcessor}.
+ * The standard error of the build and of the binaries is merged into the error
+ * stream, together with the compiler messages.
+ */
+class ShardedTestProcess extends MergedOutputProcess {
+	private static final String TEST_ID_SEPARATOR = "$"; //$NON-NLS-1$
+	private static final List<String> NON_LIB_KINDS = List.of("bin", "test", "bench", "example"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	private static final String MANIFEST_PATH_OPTION = "--manifest-path"; //$NON-NLS-1$
+	private static final boolean IS_WINDOWS = Platform.OS_WIN32.equals(Platform.getOS());
+	private static final String DYLIB_PATH_VARIABLE = IS_WINDOWS ? "PATH" //$NON-NLS-1$
+			: Platform.OS_MACOSX.equals(Platform.getOS()) ? "DYLD_FALLBACK_LIBRARY_PATH" : "LD_LIBRARY_PATH"; //$NON-NLS-1$ //$NON-NLS-2$
+
+	/**
+	 * A test executable built by Cargo.
+	 *
+	 * @param id               the id of the binary as nextest tells it: the name
+	 *                         of the package for its lib target, otherwise
+	 *                         followed by the kind and the name of the target,
+	 *                         e.g. <code>my-crate::test/integration</code>, as
+	 *                         the packages of a workspace may have targets of the
+	 *                         same name
+	 * @param executable       the path of the executable
+	 * @param workingDirectory the directory of the package, in which Cargo runs
+	 *                         the binary
+	 */
+	record TestBinary(String id, String executable, File workingDirectory) {
+	}
+
+	private final List<String> fBuildCommand;
+	private final List<String> fTestArguments;
+	private final File fWorkingDirectory;
+	private final String[] fEnv;
+	private final int fParallelism;
+	private final Semaphore fRunning;
+	// the variables Cargo sets for running the tests of a package, by the
+	// directory of the package
+	private Map<File, Map<String, String>> fPackageVariables = Map.of();
+
+	private ShardedTestProcess(List<String> buildCommand, List<String> testArguments, File workingDirectory,
+			String[] env, int parallelism) {
+		fBuildCommand = buildCommand;
+		fTestArguments = testArguments;
+		fWorkingDirectory = workingDirectory;
+		fEnv = env;
+		fParallelism = parallelism;
+		fRunning = new Semaphore(parallelism);
+	}
+
+	/**
+	 * Builds the test binaries and starts running them.
+	 *
+	 * @param buildCommand     the <code>cargo test</code> command line, without
+	 *                         <code>--no-run</code>
+	 * @param testArguments    the arguments of each test binary
+	 * @param workingDirectory the working directory of the build
+	 * @param env              the environment of the build and the binaries
+	 * @param parallelism      the number of binaries to run at once
+	 */
+	static ShardedTestProcess start(List<String> buildCommand, List<String> testArguments, File workingDirectory,
+			String[] env, int parallelism) {
+		final List<String> command = new ArrayList<>(buildCommand);
+		command.add("--no-run"); //$NON-NLS-1$
+		command.add("--message-format=json"); //$NON-NLS-1$
+		final ShardedTestProcess process = new ShardedTestProcess(command, testArguments, workingDirectory, env,
+				Math.max(1, parallelism));
+		process.start();
+		return process;
+	}
+
+	@Override
+	protected void run() throws InterruptedException {
+		final List<TestBinary> binaries = build();
+		if (!binaries.isEmpty()) {
+			fPackageVariables = readPackageVariables();
+		}
+		for (TestBinary binary : binaries) {
+			fRunning.acquire();
+			if (isDestroyed()) {
+				fRunning.release();
+				break;
+			}
+			execute(() -> {
+				try {
+					runBinary(binary);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					recordExit(1);
+				} finally {
+					fRunning.release();
+				}
+			});
+		}
+		// all binaries have ended once every permit is back
+		fRunning.acquire(fParallelism);
+	}
+
+	/**
+	 * Runs the build and returns the test binaries, none if the build fails.
+	 */
+	private List<TestBinary> build() throws InterruptedException {
+		final List<TestBinary> binaries = new ArrayList<>();
+		final int exitValue = runChild(fBuildCommand, fWorkingDirectory, fEnv, line -> {
+			final JsonObject message = parseObject(line);
+			if (message == null) {
+				return;
+			}
+			final TestBinary binary = toTestBinary(message);
+			if (binary != null) {
+				binaries.add(binary);
+			} else if (message.get("message") instanceof JsonObject diagnostic) { //$NON-NLS-1$
+				final String rendered = getString(diagnostic, "rendered"); //$NON-NLS-1$
+				if (rendered != null) {
+					writeErrorText(rendered);
+				}
+			}
+		});
+		return exitValue == 0 ? binaries : List.of();
+	}
+
+	private void runBinary(TestBinary binary) throws InterruptedException {
+		final List<String> command = new ArrayList<>();
+		command.add(binary.executable());
+		command.addAll(fTestArguments);
+		runChild(command, binary.workingDirectory(), getEnvironment(binary),
+				line -> writeOutput(prefixTestName(line, binary.id())));
+	}
+
+	/**
+	 * Returns the environment of the launch with the variables that Cargo sets for
+	 * running the given binary.
+	 */
+	private String[] getEnvironment(TestBinary binary) {
+		final Map<String, String> variables = new LinkedHashMap<>();
+		variables.put("CARGO", fBuildCommand.get(0)); //$NON-NLS-1$
+		variables.putAll(fPackageVariables.getOrDefault(binary.workingDirectory(), Map.of()));
+		final File directory = new File(binary.executable()).getParentFile();
+		return withVariables(fEnv, variables, DYLIB_PATH_VARIABLE, directory);
+	}
+
+	/**
+	 * Returns the environment with the given variables, which replace the ones set
+	 * already, and with the given directory prepended to the path variable.
+	 */
+	static String[] withVariables(String[] env, Map<String, String> variables, String pathVariable,
+			File pathDirectory) {
+		final Map<String, String> result = new LinkedHashMap<>();
+		if (env.length == 0) {
+			result.putAll(System.getenv());
+		}
+		for (String variable : env) {
+			final int separator = variable.indexOf('=');
+			if (separator > 0) {
+				result.put(variable.substring(0, separator), variable.substring(separator + 1));
+			}
+		}
+		variables.forEach((name, value) -> put(result, name, value));
+		if (pathDirectory != null) {
+			final String path = get(result, pathVariable);
+			String value = pathDirectory.getPath();
+			if (path != null && !path.isEmpty()) {
+				value += File.pathSeparator + path;
+			} else if (pathVariable.equals("DYLD_FALLBACK_LIBRARY_PATH")) { //$NON-NLS-1$
+				// the default of macOS, which the variable replaces
+				value += File.pathSeparator + System.getProperty("user.home") + "/lib:/usr/local/lib:/usr/lib"; //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			put(result, pathVariable, value);
+		}
+		return result.entrySet().stream().map(e -> e.getKey() + '=' + e.getValue()).toArray(String[]::new);
+	}
+
+	private static String get(Map<String, String> env, String name) {
+		final String key = findName(env, name);
+		return key == null ? null : env.get(key);
+	}
+
+	private static void put(Map<String, String> env, String name, String value) {
+		final String key = findName(env, name);
+		env.put(key == null ? name : key, value);
+	}
+
+	/**
+	 * Returns the name of the variable in the environment, whose names are case
+	 * insensitive on Windows.
+	 */
+	private static String findName(Map<String, String> env, String name) {
+		if (env.containsKey(name)) {
+			return name;
+		}
+		if (IS_WINDOWS) {
+			for (String key : env.keySet()) {
+				if (key.equalsIgnoreCase(name)) {
+					return key;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Reads the variables of the packages of the workspace, none if the metadata is
+	 * not available.
+	 */
+	private Map<File, Map<String, String>> readPackageVariables() throws InterruptedException {
+		final Process process = exec(getMetadataCommand(fBuildCommand), fWorkingDirectory, fEnv);
+		if (process == null) {
+			return Map.of();
+		}
+		try {
+			process.getErrorStream().close();
+			final String metadata;
+			try (InputStream in = process.getInputStream()) {
+				metadata = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			}
+			return process.waitFor() == 0 ? parsePackageVariables(metadata) : Map.of();
+		} catch (IOException e) {
+			CorrosionPlugin.logError(e);
+			return Map.of();
+		}
+	}
+
+	/**
+	 * Returns the <code>cargo metadata</code> command of the workspace that the
+	 * given build command builds.
+	 */
+	static List<String> getMetadataCommand(List<String> buildCommand) {
+		final List<String> command = new ArrayList<>(List.of(buildCommand.get(0), "metadata", "--no-deps", //$NON-NLS-1$ //$NON-NLS-2$
+				"--format-version", "1")); //$NON-NLS-1$ //$NON-NLS-2$
+		final int manifestPath = buildCommand.indexOf(MANIFEST_PATH_OPTION);
+		if (manifestPath >= 0 && manifestPath + 1 < buildCommand.size()) {
+			command.add(MANIFEST_PATH_OPTION);
+			command.add(buildCommand.get(manifestPath + 1));
+		}
+		return command;
+	}
+
+	/**
+	 * Returns the variables that Cargo sets for running the tests of each package
+	 * of the given <code>cargo metadata</code> output, by the directory of the
+	 * package.
+	 */
+	static Map<File, Map<String, String>> parsePackageVariables(String metadata) {
+		final Map<File, Map<String, String>> packages = new LinkedHashMap<>();
+		final JsonObject root = parseObject(metadata);
+		if (root != null && root.get("packages") instanceof JsonArray array) { //$NON-NLS-1$
+			for (JsonElement element : array) {
+				if (element instanceof JsonObject pkg && getString(pkg, "manifest_path") != null) { //$NON-NLS-1$
+					final File manifest = new File(getString(pkg, "manifest_path")); //$NON-NLS-1$
+					packages.put(manifest.getParentFile(), getPackageVariables(pkg, manifest));
+				}
+			}
+		}
+		return packages;
+	}
+
+	private static Map<String, String> getPackageVariables(JsonObject pkg, File manifest) {
+		final String version = getOrEmpty(pkg, "version"); //$NON-NLS-1$
+		// e.g. 1.2.3-beta.1+build.5
+		final int buildStart = version.indexOf('+');
+		final String release = buildStart < 0 ? version : version.substring(0, buildStart);
+		final int preStart = release.indexOf('-');
+		final String[] numbers = (preStart < 0 ? release : release.substring(0, preStart)).split("\\.", 3); //$NON-NLS-1$
+		final List<String> authors = new ArrayList<>();
+		if (pkg.get("authors") instanceof JsonArray array) { //$NON-NLS-1$
+			array.forEach(author -> authors.add(author.getAsString()));
+		}
+		final Map<String, String> variables = new LinkedHashMap<>();
+		variables.put("CARGO_MANIFEST_DIR", manifest.getParent()); //$NON-NLS-1$
+		variables.put("CARGO_MANIFEST_PATH", manifest.getPath()); //$NON-NLS-1$
+		variables.put("CARGO_PKG_VERSION", version); //$NON-NLS-1$
+		variables.put("CARGO_PKG_VERSION_MAJOR", numbers.length > 0 ? numbers[0] : ""); //$NON-NLS-1$ //$NON-NLS-2$
+		variables.put("CARGO_PKG_VERSION_MINOR", numbers.length > 1 ? numbers[1] : ""); //$NON-NLS-1$ //$NON-NLS-2$
+		variables.put("CARGO_PKG_VERSION_PATCH", numbers.length > 2 ? numbers[2] : ""); //$NON-NLS-1$ //$NON-NLS-2$
+		variables.put("CARGO_PKG_VERSION_PRE", preStart < 0 ? "" : release.substring(preStart + 1)); //$NON-NLS-1$ //$NON-NLS-2$
+		variables.put("CARGO_PKG_AUTHORS", String.join(":", authors)); //$NON-NLS-1$ //$NON-NLS-2$
+		variables.put("CARGO_PKG_NAME", getOrEmpty(pkg, "name")); //$NON-NLS-1$ //$NON-NLS-2$
+		variables.put("CARGO_PKG_DESCRIPTION", getOrEmpty(pkg, "description")); //$NON-NLS-1$ //$NON-NLS-2$
+		variables.put("CARGO_PKG_HOMEPAGE", getOrEmpty(pkg, "homepage")); //$NON-NLS-1$ //$NON-NLS-2$
+		variables.put("CARGO_PKG_REPOSITORY", getOrEmpty(pkg, "repository")); //$NON-NLS-1$ //$NON-NLS-2$
+		variables.put("CARGO_PKG_LICENSE", getOrEmpty(pkg, "license")); //$NON-NLS-1$ //$NON-NLS-2$
+		variables.put("CARGO_PKG_LICENSE_FILE", getOrEmpty(pkg, "license_file")); //$NON-NLS-1$ //$NON-NLS-2$
+		variables.put("CARGO_PKG_RUST_VERSION", getOrEmpty(pkg, "rust_version")); //$NON-NLS-1$ //$NON-NLS-2$
+		variables.put("CARGO_PKG_README", getOrEmpty(pkg, "readme")); //$NON-NLS-1$ //$NON-NLS-2$
+		return variables;
+	}
+
+	private static String getOrEmpty(JsonObject object, String member) {
+		final String value = getString(object, member);
+		return value == null ? "" : value; //$NON-NLS-1$
+	}
+
+	private static JsonObject parseObject(String line) {
+		if (!line.startsWith("{")) //$NON-NLS-1$
+			return null;
+		try {
+			final JsonElement element = JsonParser.parseString(line);
+			return element.isJsonObject() ? element.getAsJsonObject() : null;
+		} catch (JsonParseException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the test binary of a message of <code>cargo --message-format
+	 * json</code>, <code>null</code> if the message is not a compiler artifact with
+	 * a test executable.
+	 */
+	static TestBinary toTestBinary(JsonObject message) {
+		if (!"compiler-artifact".equals(getString(message, "reason")) //$NON-NLS-1$ //$NON-NLS-2$
+				|| !(message.get("profile") instanceof JsonObject profile) //$NON-NLS-1$
+				|| !Boolean.parseBoolean(getString(profile, "test")) //$NON-NLS-1$
+				|| !(message.get("target") instanceof JsonObject target)) { //$NON-NLS-1$
+			return null;
+		}
+		final String executable = getString(message, "executable"); //$NON-NLS-1$
+		final String name = getString(target, "name"); //$NON-NLS-1$
+		if (executable == null || name == null) {
+			return null;
+		}
+		String kind = null;
+		if (target.get("kind") instanceof JsonArray kinds && !kinds.isEmpty()) { //$NON-NLS-1$
+			kind = kinds.get(0).getAsString();
+		}
+		final String manifestPath = getString(message, "manifest_path"); //$NON-NLS-1$
+		final File workingDirectory = manifestPath == null ? null : new File(manifestPath).getParentFile();
+		String packageName = getPackageName(getString(message, "package_id")); //$NON-NLS-1$
+		if (packageName == null) {
+			packageName = workingDirectory != null ? workingDirectory.getName() : name;
+		}
+		// the lib target may be of several kinds, e.g. lib, rlib or proc-macro
+		final boolean lib = !NON_LIB_KINDS.contains(kind);
+		return new TestBinary(lib ? packageName : packageName + "::" + kind + '/' + name, executable, //$NON-NLS-1$
+				workingDirectory);
+	}
+
+	/**
+	 * Returns the name of the package of the given package id, <code>null</code>
+	 * if it is not known. The ids are either of the form
+	 * <code>my-crate 0.1.0 (path+file:///work/my-crate)</code> or, since Cargo
+	 * 1.77, <code>path+file:///work/my-crate#0.1.0</code>, with the name before
+	 * the version if it differs from the last segment of the path:
+	 * <code>path+file:///work/crates/core#my-crate@0.1.0</code>.
+	 */
+	static String getPackageName(String packageId) {
+		if (packageId == null || packageId.isEmpty()) {
+			return null;
+		}
+		final int space = packageId.indexOf(' ');
+		if (space > 0) {
+			return packageId.substring(0, space);
+		}
+		final int fragment = packageId.lastIndexOf('#');
+		if (fragment < 0) {
+			return null;
+		}
+		final int version = packageId.indexOf('@', fragment);
+		if (version > fragment + 1) {
+			return packageId.substring(fragment + 1, version);
+		}
+		String url = packageId.substring(0, fragment);
+		final int query = url.indexOf('?');
+		if (query >= 0) {
+			url = url.substring(0, query);
+		}
+		while (url.endsWith("/")) { //$NON-NLS-1$
+			url = url.substring(0, url.length() - 1);
+		}
+		final String segment = url.substring(url.lastIndexOf('/') + 1);
+		return segment.isEmpty() ? null : segment;
+	}
+
+	/**
+	 * Prefixes the test name of a libtest JSON event with the id of the binary,
+	 * other lines are returned unchanged.
+	 */
+	static String prefixTestName(String line, String binaryId) {
+		final JsonObject event = parseObject(line);
+		if (event == null) {
+			return line;
+		}
+		final String name = getString(event, "name"); //$NON-NLS-1$
+		if (name == null) {
+			return line;
+		}
+		event.addProperty("name", binaryId + TEST_ID_SEPARATOR + name); //$NON-NLS-1$
+		return event.toString();
+	}
+
+	private static String getString(JsonObject object, String member) {
+		final JsonElement element = object.get(member);
+		return element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+	}
+}
@@ -0,0 +1,209 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+
+import org.eclipse.debug.core.DebugEvent;
+import org.eclipse.debug.core.DebugPlugin;
+import org.eclipse.debug.core.IDebugEventSetListener;
+import org.eclipse.debug.core.IStreamListener;
+import org.eclipse.debug.core.model.IProcess;
+import org.eclipse.debug.core.model.IStreamMonitor;
+
+/**
+ * Bounded character pipe from a stream monitor to a reader. The text appended
+ * to the monitor is copied into a ring buffer, writing blocks while the buffer
+ * is full and reading blocks while it is empty. Until the first read the buffer
+ * grows instead, like the contents of the monitor would, so a pipe connected
+ * early does not stall the process. The pipe ends when the process terminates,
+ * once the remaining characters have been read.
+ *
+ * Closing the reader disconnects the pipe from the monitor and ends the stream,
+ * text that is appended afterwards is dropped.
+ */
+class StreamMonitorPipe extends Reader implements IStreamListener, IDebugEventSetListener {
+	static final int DEFAULT_CAPACITY = 1 << 16;
+
+	private char[] fBuffer;
+	private int fHead; // index of the next character to read
+	private int fCount; // number of characters in the buffer
+	private boolean fEndOfStream;
+	private boolean fClosed;
+	private boolean fReading;
+	private IProcess fProcess;
+	private IStreamMonitor fMonitor;
+
+	StreamMonitorPipe(int capacity) {
+		fBuffer = new char[capacity];
+	}
+
+	/**
+	 * Creates a pipe for the given stream monitor of the process. The pipe starts
+	 * with the text the monitor already holds.
+	 */
+	static StreamMonitorPipe connect(IProcess process, IStreamMonitor monitor) {
+		return connect(process, monitor, process.isTerminated());
+	}
+
+	/**
+	 * Creates a pipe for the given stream monitor of the process.
+	 *
+	 * @param terminated whether the process has reported its termination
+	 *                   already, the pipe then ends after the current contents
+	 */
+	static StreamMonitorPipe connect(IProcess process, IStreamMonitor monitor, boolean terminated) {
+		final StreamMonitorPipe pipe;
+		// the monitor does not append while it is locked, no text is lost or
+		// duplicated between the current contents and the listener
+		synchronized (monitor) {
+			final String contents = monitor.getContents();
+			pipe = new StreamMonitorPipe(DEFAULT_CAPACITY);
+			pipe.fProcess = process;
+			pipe.fMonitor = monitor;
+			DebugPlugin.getDefault().addDebugEventListener(pipe);
+			pipe.write(contents);
+			monitor.addListener(pipe);
+		}
+		if (terminated) {
+			pipe.closeWrite();
+		}
+		return pipe;
+	}
+
+	@Override
+	public void streamAppended(String text, IStreamMonitor monitor) {
+		write(text);
+	}
+
+	@Override
+	public void handleDebugEvents(DebugEvent[] events) {
+		for (DebugEvent event : events) {
+			// the streams are read completely before the process reports its
+			// termination
+			if (event.getKind() == DebugEvent.TERMINATE && event.getSource() == fProcess) {
+				closeWrite();
+			}
+		}
+	}
+
+	/**
+	 * Appends the text to the pipe, waits while the buffer is full and being
+	 * read.
+	 */
+	void write(String text) {
+		int offset = 0;
+		synchronized (lock) {
+			while (offset < text.length()) {
+				while (fCount == fBuffer.length && !fClosed) {
+					if (!fReading) {
+						grow();
+						break;
+					}
+					try {
+						lock.wait();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+				}
+				if (fClosed || fEndOfStream)
+					return;
+
+				final int tail = (fHead + fCount) % fBuffer.length;
+				final int chunk = Math.min(text.length() - offset,
+						Math.min(fBuffer.length - fCount, fBuffer.length - tail));
+				text.getChars(offset, offset + chunk, fBuffer, tail);
+				offset += chunk;
+				fCount += chunk;
+				lock.notifyAll();
+			}
+		}
+	}
+
+	private void grow() {
+		final char[] buffer = new char[fBuffer.length * 2];
+		final int chunk = Math.min(fCount, fBuffer.length - fHead);
+		System.arraycopy(fBuffer, fHead, buffer, 0, chunk);
+		System.arraycopy(fBuffer, 0, buffer, chunk, fCount - chunk);
+		fBuffer = buffer;
+		fHead = 0;
+	}
+
+	/**
+	 * Marks the end of the text, readers get the remaining characters and then
+	 * the end of the stream.
+	 */
+	void closeWrite() {
+		synchronized (lock) {
+			fEndOfStream = true;
+			lock.notifyAll();
+		}
+		disconnect();
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException {
+		if (len == 0)
+			return 0;
+
+		synchronized (lock) {
+			fReading = true;
+			while (fCount == 0) {
+				if (fClosed || fEndOfStream)
+					return -1;
+				try {
+					lock.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException();
+				}
+			}
+			int read = 0;
+			while (read < len && fCount > 0) {
+				final int chunk = Math.min(len - read, Math.min(fCount, fBuffer.length - fHead));
+				System.arraycopy(fBuffer, fHead, cbuf, off + read, chunk);
+				fHead = (fHead + chunk) % fBuffer.length;
+				fCount -= chunk;
+				read += chunk;
+			}
+			lock.notifyAll();
+			return read;
+		}
+	}
+
+	@Override
+	public boolean ready() {
+		synchronized (lock) {
+			return fCount > 0;
+		}
+	}
+
+	@Override
+	public void close() {
+		synchronized (lock) {
+			fClosed = true;
+			fCount = 0;
+			lock.notifyAll();
+		}
+		disconnect();
+	}
+
+	private void disconnect() {
+		if (fMonitor != null) {
+			fMonitor.removeListener(this);
+		}
+		if (fProcess != null) {
+			DebugPlugin.getDefault().removeDebugEventListener(this);
+		}
+	}
+}
@@ -0,0 +1,244 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.corrosion.CorrosionPlugin;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * The outcomes and durations of the tests of a project, as of their last runs.
+ * The history is kept in the state location of the plug-in, in a JSON file per
+ * project:
+ *
+ * <pre>
+ * { "lastRun": 1760000000000, "tests": { "tests::it_works": { "failed": false, "nanos": 112000 }, ... } }
+ * </pre>
+ *
+ * A run records the outcomes it reports and merges them into the stored
+ * history when it ends, so tests that were not run keep their outcome. A run of
+ * all the tests that ends normally drops the failures it did not report, of the
+ * tests that were deleted or renamed since.
+ */
+class TestHistory {
+	private static final String HISTORY_FOLDER = "testHistory"; //$NON-NLS-1$
+	private static final String LAST_RUN = "lastRun"; //$NON-NLS-1$
+	private static final String TESTS = "tests"; //$NON-NLS-1$
+	private static final String FAILED = "failed"; //$NON-NLS-1$
+	private static final String NANOS = "nanos"; //$NON-NLS-1$
+	private static final char BINARY_ID_SEPARATOR = '$';
+
+	/**
+	 * The outcome of a test.
+	 *
+	 * @param failed   whether the test failed
+	 * @param duration the execution time, <code>null</code> if unknown
+	 */
+	record Outcome(boolean failed, Duration duration) {
+	}
+
+	private static final Object LOCK = new Object();
+
+	private final File fFile;
+	// whether the run reports all the tests, neither packages nor tests filtered
+	private final boolean fAllTests;
+	private final Map<String, Outcome> fOutcomes = new LinkedHashMap<>();
+	private long fLastRun;
+
+	TestHistory(File file) {
+		this(file, false);
+	}
+
+	TestHistory(File file, boolean allTests) {
+		fFile = file;
+		fAllTests = allTests;
+	}
+
+	/**
+	 * Returns the empty history of a run of the tests of the given project, which
+	 * starts now.
+	 *
+	 * @param allTests whether the run runs all the tests of the project
+	 */
+	static TestHistory forProject(String projectName, boolean allTests) {
+		final TestHistory history = new TestHistory(getFile(projectName), allTests);
+		history.fLastRun = System.currentTimeMillis();
+		return history;
+	}
+
+	/**
+	 * Reads the stored history of the given project.
+	 */
+	static TestHistory load(String projectName) {
+		return load(getFile(projectName));
+	}
+
+	static TestHistory load(File file) {
+		final TestHistory history = new TestHistory(file);
+		synchronized (LOCK) {
+			history.read();
+		}
+		return history;
+	}
+
+	private static File getFile(String projectName) {
+		return CorrosionPlugin.getDefault().getStateLocation().append(HISTORY_FOLDER).append(projectName + ".json") //$NON-NLS-1$
+				.toFile();
+	}
+
+	/**
+	 * Records the outcome of a test.
+	 *
+	 * @param name     the name of the test as reported, possibly prefixed with
+	 *                 the test binary
+	 * @param failed   whether the test failed
+	 * @param duration the execution time, <code>null</code> if unknown
+	 */
+	synchronized void record(String name, boolean failed, Duration duration) {
+		fOutcomes.put(name, new Outcome(failed, duration));
+	}
+
+	/**
+	 * Merges the recorded outcomes into the stored history.
+	 *
+	 * @param completed whether the run ended normally rather than being aborted
+	 */
+	void save(boolean completed) {
+		synchronized (LOCK) {
+			final TestHistory stored = new TestHistory(fFile);
+			stored.read();
+			synchronized (this) {
+				// a run that reports no test did not build
+				if (fAllTests && completed && !fOutcomes.isEmpty()) {
+					stored.fOutcomes.entrySet()
+							.removeIf(entry -> entry.getValue().failed() && !fOutcomes.containsKey(entry.getKey()));
+				}
+				fOutcomes.forEach((name, outcome) -> stored.fOutcomes.merge(name, outcome,
+						// the text output does not tell durations, keep the last known one
+						(old, recorded) -> recorded.duration() == null ? new Outcome(recorded.failed(), old.duration())
+								: recorded));
+				stored.fLastRun = Math.max(stored.fLastRun, fLastRun);
+			}
+			try {
+				stored.write();
+			} catch (IOException e) {
+				CorrosionPlugin.logError(e);
+			}
+		}
+	}
+
+	/**
+	 * Returns the time the last run started, in milliseconds since the epoch, 0 if
+	 * the tests never ran.
+	 */
+	long getLastRun() {
+		return fLastRun;
+	}
+
+	synchronized Map<String, Outcome> getOutcomes() {
+		return Map.copyOf(fOutcomes);
+	}
+
+	/**
+	 * Returns the names of the tests that failed when they last ran, as libtest
+	 * filters, i.e. without the prefix of the test binary.
+	 */
+	synchronized List<String> getFailedTests() {
+		final Set<String> failed = new LinkedHashSet<>();
+		fOutcomes.forEach((name, outcome) -> {
+			if (outcome.failed()) {
+				failed.add(name.substring(name.indexOf(BINARY_ID_SEPARATOR) + 1));
+			}
+		});
+		return new ArrayList<>(failed);
+	}
+
+	private void read() {
+		if (!fFile.isFile()) {
+			return;
+		}
+		try (Reader in = Files.newBufferedReader(fFile.toPath(), StandardCharsets.UTF_8);
+				JsonReader reader = new JsonReader(in)) {
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+				case LAST_RUN -> fLastRun = reader.nextLong();
+				case TESTS -> readTests(reader);
+				default -> reader.skipValue();
+				}
+			}
+			reader.endObject();
+		} catch (IOException | IllegalStateException | JsonParseException | NumberFormatException e) {
+			// a damaged history is started over
+			CorrosionPlugin.logError(e);
+			fOutcomes.clear();
+		}
+	}
+
+	private void readTests(JsonReader reader) throws IOException {
+		reader.beginObject();
+		while (reader.hasNext()) {
+			final String name = reader.nextName();
+			boolean failed = false;
+			Duration duration = null;
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+				case FAILED -> failed = reader.nextBoolean();
+				case NANOS -> duration = Duration.ofNanos(reader.nextLong());
+				default -> reader.skipValue();
+				}
+			}
+			reader.endObject();
+			fOutcomes.put(name, new Outcome(failed, duration));
+		}
+		reader.endObject();
+	}
+
+	private void write() throws IOException {
+		Files.createDirectories(fFile.toPath().getParent());
+		// written aside and moved into place, a reader never sees half a history
+		final File temp = new File(fFile.getPath() + ".tmp"); //$NON-NLS-1$
+		try (Writer out = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8);
+				JsonWriter writer = new JsonWriter(out)) {
+			writer.beginObject();
+			writer.name(LAST_RUN).value(fLastRun);
+			writer.name(TESTS).beginObject();
+			for (Map.Entry<String, Outcome> entry : fOutcomes.entrySet()) {
+				writer.name(entry.getKey()).beginObject();
+				writer.name(FAILED).value(entry.getValue().failed());
+				if (entry.getValue().duration() != null) {
+					writer.name(NANOS).value(entry.getValue().duration().toNanos());
+				}
+				writer.endObject();
+			}
+			writer.endObject();
+			writer.endObject();
+		}
+		Files.move(temp.toPath(), fFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+}
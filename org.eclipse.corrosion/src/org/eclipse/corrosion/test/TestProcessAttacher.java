@@ -0,0 +1,257 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.corrosion.CorrosionPlugin;
+import org.eclipse.corrosion.cargo.core.CargoTools;
+
+/**
+ * Attaches the debugger to the test binaries of a debug launch as they start.
+ * Cargo runs the binaries with a runner script, set by
+ * <code>CARGO_TARGET_&lt;triple&gt;_RUNNER</code>, which reports its process
+ * id to the socket of the attacher and waits until the debugger is attached
+ * before it replaces itself with the binary. So a test cannot run before the
+ * debugger is attached, and no process tree is polled.
+ *
+ * The script needs bash, on Windows the delegate polls the children of cargo
+ * instead. So it does for cargo-nextest, which runs the binaries with the
+ * runner to list their tests as well and runs each test in a process of its
+ * own.
+ */
+final class TestProcessAttacher implements Closeable {
+	static final String ADDRESS_VARIABLE = "CORROSION_DEBUG_ADDRESS"; //$NON-NLS-1$
+	static final String PORT_VARIABLE = "CORROSION_DEBUG_PORT"; //$NON-NLS-1$
+	static final String TOKEN_VARIABLE = "CORROSION_DEBUG_TOKEN"; //$NON-NLS-1$
+	private static final String TARGET_OPTION = "--target"; //$NON-NLS-1$
+	private static final String RUNNER_FOLDER = "testRunner"; //$NON-NLS-1$
+	private static final String RUNNER_SCRIPT = "cargo-test-runner.sh"; //$NON-NLS-1$
+	private static final String SCRIPT = """
+			#!/bin/bash
+			# Runs a Cargo test binary in debug mode: reports the process to Eclipse,
+			# waits until the debugger is attached and runs the binary in its place.
+			if exec 3<>"/dev/tcp/$CORROSION_DEBUG_ADDRESS/$CORROSION_DEBUG_PORT"; then
+				printf '%s\\t%s\\t%s\\n' "$CORROSION_DEBUG_TOKEN" "$$" "$1" >&3
+				read -r <&3
+				exec 3>&-
+			fi
+			exec "$@"
+			"""; //$NON-NLS-1$
+	// a test binary that does not report itself in time is not attached to
+	private static final int REQUEST_TIMEOUT_MILLIS = 10_000;
+
+	private final ServerSocket fServer;
+	private final String fToken;
+	private final File fScript;
+	private final String fRunnerVariable;
+	private final ObjLongConsumer<String> fAttach;
+
+	private TestProcessAttacher(ServerSocket server, File script, String targetTriple,
+			ObjLongConsumer<String> attach) {
+		fServer = server;
+		fScript = script;
+		fRunnerVariable = getRunnerVariable(targetTriple);
+		fAttach = attach;
+		final byte[] token = new byte[16];
+		new SecureRandom().nextBytes(token);
+		fToken = HexFormat.of().formatHex(token);
+	}
+
+	/**
+	 * Starts listening for the test binaries of a launch, returns
+	 * <code>null</code> if the binaries cannot be reported on this platform.
+	 *
+	 * @param targetTriple the target of the binaries, <code>null</code> for the
+	 *                     host
+	 * @param attach       attaches the debugger to a binary, given its path and
+	 *                     process id, and returns once it is attached
+	 */
+	static TestProcessAttacher start(String targetTriple, ObjLongConsumer<String> attach) {
+		if (Platform.getOS().equals(Platform.OS_WIN32)) {
+			return null;
+		}
+		final String triple = targetTriple != null ? targetTriple : getHostTriple();
+		if (triple == null) {
+			return null;
+		}
+		return start(CorrosionPlugin.getDefault().getStateLocation().append(RUNNER_FOLDER).toFile(), triple,
+				attach);
+	}
+
+	static TestProcessAttacher start(File scriptFolder, String targetTriple, ObjLongConsumer<String> attach) {
+		ServerSocket server = null;
+		try {
+			final File script = writeScript(scriptFolder);
+			server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+			final TestProcessAttacher attacher = new TestProcessAttacher(server, script, targetTriple, attach);
+			final Thread thread = new Thread(attacher::acceptAll, "Cargo test debugger attach"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			thread.start();
+			return attacher;
+		} catch (IOException e) {
+			CorrosionPlugin.logError(e);
+			if (server != null) {
+				try {
+					server.close();
+				} catch (IOException closeError) {
+					// not listening either way
+				}
+			}
+			return null;
+		}
+	}
+
+	private static File writeScript(File folder) throws IOException {
+		final File script = new File(folder, RUNNER_SCRIPT);
+		if (!script.isFile() || !Files.readString(script.toPath(), StandardCharsets.UTF_8).equals(SCRIPT)) {
+			Files.createDirectories(folder.toPath());
+			Files.writeString(script.toPath(), SCRIPT, StandardCharsets.UTF_8);
+		}
+		if (!script.canExecute() && !script.setExecutable(true)) {
+			throw new IOException("Cannot make " + script + " executable"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return script;
+	}
+
+	/**
+	 * Returns the variables that make Cargo run the test binaries with the runner
+	 * script.
+	 */
+	Map<String, String> getEnvironment() {
+		return Map.of(fRunnerVariable, fScript.getAbsolutePath(), //
+				ADDRESS_VARIABLE, fServer.getInetAddress().getHostAddress(), //
+				PORT_VARIABLE, Integer.toString(fServer.getLocalPort()), //
+				TOKEN_VARIABLE, fToken);
+	}
+
+	String getRunnerVariable() {
+		return fRunnerVariable;
+	}
+
+	/**
+	 * Returns the target that the given Cargo options build for,
+	 * <code>null</code> for the host.
+	 */
+	static String getTarget(List<String> cargoOptions) {
+		String target = null;
+		for (int i = 0; i < cargoOptions.size(); i++) {
+			final String option = cargoOptions.get(i);
+			if (option.equals("--")) { //$NON-NLS-1$
+				break;
+			} else if (option.equals(TARGET_OPTION) && i + 1 < cargoOptions.size()) {
+				target = cargoOptions.get(++i);
+			} else if (option.startsWith(TARGET_OPTION + '=')) {
+				target = option.substring(TARGET_OPTION.length() + 1);
+			}
+		}
+		return target;
+	}
+
+	/**
+	 * Returns the variable of the runner of the given target, e.g.
+	 * <code>CARGO_TARGET_X86_64_UNKNOWN_LINUX_GNU_RUNNER</code>.
+	 */
+	static String getRunnerVariable(String targetTriple) {
+		return "CARGO_TARGET_" + targetTriple.toUpperCase(Locale.ROOT).replace('-', '_').replace('.', '_') //$NON-NLS-1$
+				+ "_RUNNER"; //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns the target triple of the host, as told by the rustc next to cargo,
+	 * <code>null</code> if it is not known.
+	 */
+	private static String getHostTriple() {
+		final File cargo = new File(CargoTools.getCargoCommand());
+		final File rustc = new File(cargo.getParentFile(), cargo.getName().replace("cargo", "rustc")); //$NON-NLS-1$ //$NON-NLS-2$
+		try {
+			final Process process = CorrosionPlugin.getProcessForCommand(rustc.isFile() ? rustc.getPath() : "rustc", //$NON-NLS-1$
+					"-vV"); //$NON-NLS-1$
+			process.getErrorStream().close();
+			String host = null;
+			try (BufferedReader reader = new BufferedReader(
+					new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (line.startsWith("host:")) { //$NON-NLS-1$
+						host = line.substring("host:".length()).strip(); //$NON-NLS-1$
+					}
+				}
+			}
+			return process.waitFor() == 0 ? host : null;
+		} catch (IOException e) {
+			CorrosionPlugin.logError(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return null;
+	}
+
+	/**
+	 * Handles the binaries one after the other, as Cargo runs them.
+	 */
+	private void acceptAll() {
+		while (!fServer.isClosed()) {
+			try (Socket socket = fServer.accept()) {
+				handle(socket);
+			} catch (IOException e) {
+				if (!fServer.isClosed()) {
+					CorrosionPlugin.logError(e);
+				}
+			}
+		}
+	}
+
+	private void handle(Socket socket) throws IOException {
+		socket.setSoTimeout(REQUEST_TIMEOUT_MILLIS);
+		final BufferedReader reader = new BufferedReader(
+				new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+		// token, process id, binary
+		final String[] request = String.valueOf(reader.readLine()).split("\t", 3); //$NON-NLS-1$
+		if (request.length == 3 && request[0].equals(fToken)) {
+			try {
+				fAttach.accept(request[2], Long.parseLong(request[1]));
+			} catch (RuntimeException e) {
+				// the binary runs without the debugger then
+				CorrosionPlugin.logError(e);
+			}
+		}
+		// lets the binary run
+		final OutputStream out = socket.getOutputStream();
+		out.write('\n');
+		out.flush();
+	}
+
+	@Override
+	public void close() {
+		try {
+			fServer.close();
+		} catch (IOException e) {
+			CorrosionPlugin.logError(e);
+		}
+	}
+}
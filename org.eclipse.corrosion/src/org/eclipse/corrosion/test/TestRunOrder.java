@@ -0,0 +1,320 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.corrosion.CorrosionPlugin;
+import org.eclipse.corrosion.cargo.core.CargoTools;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * Splits a test run into phases that report the likely failures first, see
+ * {@link CargoTestDelegate#FAILED_FIRST_ATTRIBUTE}:
+ * <ol>
+ * <li>the tests that failed when they last ran, see {@link TestHistory},</li>
+ * <li>the tests of the packages of the workspace with files changed since the
+ * last run,</li>
+ * <li>the other tests.</li>
+ * </ol>
+ * The later phases skip the failed tests, unless a test name filters the run:
+ * libtest's <code>--exact</code> would apply to the filter as well, so they run
+ * twice then.
+ */
+final class TestRunOrder {
+	private static final String TARGET_DIR = "target"; //$NON-NLS-1$
+	private static final String PACKAGES = "packages"; //$NON-NLS-1$
+	private static final String NAME = "name"; //$NON-NLS-1$
+	private static final String MANIFEST_PATH = "manifest_path"; //$NON-NLS-1$
+	private static final String ID = "id"; //$NON-NLS-1$
+	private static final String WORKSPACE_MEMBERS = "workspace_members"; //$NON-NLS-1$
+	private static final String WORKSPACE_DEFAULT_MEMBERS = "workspace_default_members"; //$NON-NLS-1$
+	private static final List<String> PACKAGE_OPTIONS = List.of("-p", "--package", "--exclude"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	private static final List<String> FILTER_OPTIONS = List.of("--skip", "--exact", "--ignored"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	private static final List<String> WORKSPACE_OPTIONS = List.of("--workspace", "--all"); //$NON-NLS-1$ //$NON-NLS-2$
+
+	private TestRunOrder() {
+		throw new IllegalStateException("Utility class"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns the command lines of the phases of a run of the tests of the given
+	 * project, as of its {@link TestHistory}.
+	 *
+	 * @param projectName   the project of the tests
+	 * @param manifest      the manifest of the project
+	 * @param command       the <code>cargo test</code> command line up to the test
+	 *                      name
+	 * @param splitPackages whether the run may be split by packages, false if the
+	 *                      command selects packages itself
+	 * @param workspace     whether the command tests all the members of the
+	 *                      workspace, rather than its default members
+	 * @param testName      the test name filter, may be empty
+	 * @param testArguments the arguments of the test binaries
+	 */
+	static List<List<String>> plan(String projectName, File manifest, List<String> command, boolean splitPackages,
+			boolean workspace, String testName, List<String> testArguments) {
+		final TestHistory history = TestHistory.load(projectName);
+		final long lastRun = history.getLastRun();
+		final Map<String, File> packages = splitPackages && lastRun > 0 ? getPackages(manifest, workspace)
+				: Map.of();
+		return plan(command, testName, testArguments, history.getFailedTests(), packages.keySet(),
+				findTouchedPackages(packages, lastRun));
+	}
+
+	/**
+	 * Returns whether the given Cargo options select the packages to test or
+	 * exclude some, in any of the forms <code>-p foo</code>, <code>-pfoo</code>,
+	 * <code>--package foo</code> and <code>--package=foo</code>.
+	 */
+	static boolean selectsPackages(List<String> cargoOptions) {
+		for (String option : cargoOptions) {
+			if (option.equals("--")) { //$NON-NLS-1$
+				break;
+			}
+			for (String packageOption : PACKAGE_OPTIONS) {
+				if (option.equals(packageOption) || option.startsWith(packageOption.startsWith("--") //$NON-NLS-1$
+						? packageOption + '='
+						: packageOption)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns whether the given Cargo options test all the members of the
+	 * workspace.
+	 */
+	static boolean selectsWorkspace(List<String> cargoOptions) {
+		for (String option : cargoOptions) {
+			if (option.equals("--")) { //$NON-NLS-1$
+				break;
+			}
+			if (WORKSPACE_OPTIONS.contains(option)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns whether the given arguments of the test binaries filter the tests,
+	 * by a name or an option of libtest that selects tests. An argument that is
+	 * not an option may be the value of one, it counts as a filter as well.
+	 */
+	static boolean filtersTests(List<String> testArguments) {
+		return testArguments.stream().anyMatch(argument -> !argument.startsWith("-") //$NON-NLS-1$
+				|| FILTER_OPTIONS.contains(argument));
+	}
+
+	/**
+	 * Returns the command lines of the phases.
+	 *
+	 * @param command       the <code>cargo test</code> command line up to the test
+	 *                      name
+	 * @param testName      the test name filter, may be empty
+	 * @param testArguments the arguments of the test binaries
+	 * @param failedTests   the tests that failed when they last ran
+	 * @param packages      the packages that the command tests, empty to not
+	 *                      split the run by packages
+	 * @param touched       the packages with changes since the last run
+	 */
+	static List<List<String>> plan(List<String> command, String testName, List<String> testArguments,
+			List<String> failedTests, Collection<String> packages, Set<String> touched) {
+		final List<String> failed = testName.isEmpty() ? failedTests
+				: failedTests.stream().filter(name -> name.contains(testName)).toList();
+		final List<List<String>> phases = new ArrayList<>();
+		if (!failed.isEmpty()) {
+			final List<String> phase = new ArrayList<>(command);
+			// a failure must not keep the other binaries from running
+			phase.add("--no-fail-fast"); //$NON-NLS-1$
+			phase.add("--"); //$NON-NLS-1$
+			phase.addAll(testArguments);
+			phase.add("--exact"); //$NON-NLS-1$
+			phase.addAll(failed);
+			phases.add(phase);
+		}
+
+		final List<String> arguments = new ArrayList<>(testArguments);
+		if (testName.isEmpty() && !failed.isEmpty()) {
+			arguments.add("--exact"); //$NON-NLS-1$
+			for (String name : failed) {
+				arguments.add("--skip"); //$NON-NLS-1$
+				arguments.add(name);
+			}
+		}
+		final List<String> untouched = packages.stream().filter(name -> !touched.contains(name)).toList();
+		if (untouched.isEmpty() || untouched.size() == packages.size()) {
+			phases.add(phase(command, List.of(), testName, arguments));
+		} else {
+			phases.add(phase(command, packages.stream().filter(touched::contains).toList(), testName, arguments));
+			phases.add(phase(command, untouched, testName, arguments));
+		}
+		return phases;
+	}
+
+	private static List<String> phase(List<String> command, List<String> packages, String testName,
+			List<String> arguments) {
+		final List<String> phase = new ArrayList<>(command);
+		for (String name : packages) {
+			phase.add("-p"); //$NON-NLS-1$
+			phase.add(name);
+		}
+		if (!testName.isEmpty()) {
+			phase.add(testName);
+		}
+		if (!arguments.isEmpty()) {
+			phase.add("--"); //$NON-NLS-1$
+			phase.addAll(arguments);
+		}
+		return phase;
+	}
+
+	/**
+	 * Returns the packages that <code>cargo test</code> tests for the given
+	 * manifest with their directories, by <code>cargo metadata</code>. Returns an
+	 * empty map if they are not known.
+	 *
+	 * @param workspace whether all the members of the workspace are tested
+	 */
+	static Map<String, File> getPackages(File manifest, boolean workspace) {
+		try {
+			final Process process = CorrosionPlugin.getProcessForCommand(CargoTools.getCargoCommand(), "metadata", //$NON-NLS-1$
+					"--no-deps", "--format-version", "1", "--manifest-path", manifest.getAbsolutePath()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			process.getErrorStream().close();
+			final String metadata;
+			try (InputStream in = process.getInputStream()) {
+				metadata = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			}
+			return process.waitFor() == 0 ? parsePackages(metadata, manifest, workspace) : Map.of();
+		} catch (IOException e) {
+			CorrosionPlugin.logError(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return Map.of();
+	}
+
+	/**
+	 * Returns the packages of the given <code>cargo metadata</code> output that
+	 * <code>cargo test</code> tests for the given manifest: the members of the
+	 * workspace if <code>workspace</code>, otherwise its default members, which
+	 * are the package of the manifest unless it is the root of a workspace with
+	 * <code>default-members</code> or a virtual manifest.
+	 */
+	static Map<String, File> parsePackages(String metadata, File manifest, boolean workspace) {
+		final Map<String, File> packages = new LinkedHashMap<>();
+		try {
+			final JsonElement root = JsonParser.parseString(metadata);
+			if (!root.isJsonObject() || !(root.getAsJsonObject().get(PACKAGES) instanceof JsonArray array)) {
+				return packages;
+			}
+			// Cargo before 1.71 does not tell the default members, all members are
+			// tested then only for a virtual manifest
+			final Set<String> tested = getIds(root.getAsJsonObject(),
+					workspace ? WORKSPACE_MEMBERS : WORKSPACE_DEFAULT_MEMBERS);
+			final Path manifestPath = manifest.getAbsoluteFile().toPath().normalize();
+			for (JsonElement element : array) {
+				if (element instanceof JsonObject pkg && pkg.has(NAME) && pkg.has(MANIFEST_PATH)) {
+					final File packageManifest = new File(pkg.get(MANIFEST_PATH).getAsString());
+					if (tested == null && packageManifest.toPath().normalize().equals(manifestPath)) {
+						return Map.of();
+					}
+					if (tested == null || (pkg.has(ID) && tested.contains(pkg.get(ID).getAsString()))) {
+						packages.put(pkg.get(NAME).getAsString(), packageManifest.getParentFile());
+					}
+				}
+			}
+		} catch (JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+			CorrosionPlugin.logError(e);
+			return Map.of();
+		}
+		return packages;
+	}
+
+	private static Set<String> getIds(JsonObject metadata, String member) {
+		if (!(metadata.get(member) instanceof JsonArray array)) {
+			return null;
+		}
+		final Set<String> ids = new LinkedHashSet<>();
+		array.forEach(id -> ids.add(id.getAsString()));
+		return ids;
+	}
+
+	/**
+	 * Returns the packages with a file modified after the given time. The
+	 * <code>target</code> directory, hidden directories and the directories of
+	 * nested packages do not count.
+	 */
+	static Set<String> findTouchedPackages(Map<String, File> packages, long since) {
+		final Set<Path> roots = new LinkedHashSet<>();
+		packages.values().forEach(directory -> roots.add(directory.toPath()));
+		final Set<String> touched = new LinkedHashSet<>();
+		for (Map.Entry<String, File> entry : packages.entrySet()) {
+			final Path root = entry.getValue().toPath();
+			final boolean[] modified = { false };
+			try {
+				Files.walkFileTree(root, new SimpleFileVisitor<>() {
+					@Override
+					public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+						if (dir.equals(root))
+							return FileVisitResult.CONTINUE;
+						final String name = dir.getFileName().toString();
+						if (name.equals(TARGET_DIR) || name.startsWith(".") || roots.contains(dir)) //$NON-NLS-1$
+							return FileVisitResult.SKIP_SUBTREE;
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+						if (attrs.lastModifiedTime().toMillis() > since) {
+							modified[0] = true;
+							return FileVisitResult.TERMINATE;
+						}
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFileFailed(Path file, IOException exc) {
+						return FileVisitResult.CONTINUE;
+					}
+				});
+			} catch (IOException e) {
+				CorrosionPlugin.logError(e);
+			}
+			if (modified[0]) {
+				touched.add(entry.getKey());
+			}
+		}
+		return touched;
+	}
+}
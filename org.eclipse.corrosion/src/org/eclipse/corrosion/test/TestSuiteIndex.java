@@ -0,0 +1,85 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.eclipse.unittest.model.ITestRunSession;
+import org.eclipse.unittest.model.ITestSuiteElement;
+
+/**
+ * The suites of a test run session by module path, e.g.
+ * <code>tests::nested</code>. A suite that was created before is found with a
+ * single hash lookup of its path; a new suite is created together with its
+ * missing parents, which are found by the separators of the path.
+ */
+class TestSuiteIndex {
+	private static final String TEST_NAME_SEPARATOR = "::"; //$NON-NLS-1$
+
+	private final ITestRunSession fSession;
+	// the suites below each root by path
+	private final Map<ITestSuiteElement, Map<String, ITestSuiteElement>> fSuites = new IdentityHashMap<>();
+
+	TestSuiteIndex(ITestRunSession session) {
+		fSession = session;
+	}
+
+	/**
+	 * Returns the suite for the given module path, and creates it together with
+	 * its parents if necessary.
+	 *
+	 * @param path the path of the suite, <code>null</code> for the session
+	 */
+	ITestSuiteElement getOrCreate(String path) {
+		return getOrCreate(fSession, "", path); //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns the suite for the given module path below the given root, e.g. the
+	 * suite of a test binary, and creates it together with its parents if
+	 * necessary.
+	 *
+	 * @param root     the suite the path is relative to
+	 * @param idPrefix the prefix of the ids of the suites, which keeps the suites
+	 *                 of different roots apart
+	 * @param path     the path of the suite, <code>null</code> for the root
+	 */
+	ITestSuiteElement getOrCreate(ITestSuiteElement root, String idPrefix, String path) {
+		if (path == null) {
+			return root;
+		}
+		final Map<String, ITestSuiteElement> suites = fSuites.computeIfAbsent(root, r -> new HashMap<>());
+		final ITestSuiteElement suite = suites.get(path);
+		return suite != null ? suite : create(suites, root, idPrefix, path);
+	}
+
+	private ITestSuiteElement create(Map<String, ITestSuiteElement> suites, ITestSuiteElement root, String idPrefix,
+			String path) {
+		final int separator = path.lastIndexOf(TEST_NAME_SEPARATOR);
+		ITestSuiteElement parent = root;
+		String segment = path;
+		if (separator >= 0) {
+			final String parentPath = path.substring(0, separator);
+			parent = suites.get(parentPath);
+			if (parent == null) {
+				parent = create(suites, root, idPrefix, parentPath);
+			}
+			segment = path.substring(separator + TEST_NAME_SEPARATOR.length());
+		}
+		final String id = idPrefix + path;
+		// the session may hold the suite already
+		final ITestSuiteElement suite = fSession.getTestElement(id) instanceof ITestSuiteElement existing ? existing
+				: fSession.newTestSuite(id, path, null, parent, segment, null);
+		suites.put(path, suite);
+		return suite;
+	}
+}
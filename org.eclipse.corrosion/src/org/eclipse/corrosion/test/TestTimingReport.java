@@ -0,0 +1,95 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.eclipse.corrosion.Messages;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * The execution times of the tests of a run: the percentiles and the slowest
+ * tests, e.g.
+ *
+ * <pre>
+ * Slowest of 42 timed tests, 3.214s in total:
+ *   p50 0.002s  p90 0.120s  p95 0.340s  p99 1.200s  max 1.500s
+ *   1.500s  tests::parses_large_input
+ *   ...
+ * </pre>
+ */
+class TestTimingReport {
+	private static final int[] PERCENTILES = { 50, 90, 95, 99 };
+
+	// the tests by descending execution time
+	private final List<Entry<String, Duration>> fTimes;
+	private final Duration fTotal;
+
+	TestTimingReport(Map<String, Duration> times) {
+		fTimes = new ArrayList<>(times.entrySet());
+		fTimes.sort(Entry.<String, Duration>comparingByValue().reversed());
+		fTotal = fTimes.stream().map(Entry::getValue).reduce(Duration.ZERO, Duration::plus);
+	}
+
+	boolean isEmpty() {
+		return fTimes.isEmpty();
+	}
+
+	Duration getTotal() {
+		return fTotal;
+	}
+
+	/**
+	 * Returns the given percentile of the execution times by the nearest-rank
+	 * method, i.e. the shortest time that at least the given percentage of the
+	 * tests do not exceed. Returns {@link Duration#ZERO} if there are no times.
+	 */
+	Duration getPercentile(int percentile) {
+		if (fTimes.isEmpty()) {
+			return Duration.ZERO;
+		}
+		final int rank = (int) Math.ceil(percentile / 100.0 * fTimes.size());
+		return fTimes.get(fTimes.size() - Math.max(rank, 1)).getValue();
+	}
+
+	/**
+	 * Returns at most the given number of the slowest tests, the slowest first.
+	 */
+	List<Entry<String, Duration>> getSlowest(int count) {
+		return List.copyOf(fTimes.subList(0, Math.min(count, fTimes.size())));
+	}
+
+	/**
+	 * Returns the report with the given number of the slowest tests.
+	 */
+	String format(int slowestCount) {
+		final StringBuilder report = new StringBuilder();
+		report.append(NLS.bind(Messages.TestTimingReport_slowestTests, Integer.valueOf(fTimes.size()),
+				format(fTotal))).append('\n');
+		report.append(' ');
+		for (int percentile : PERCENTILES) {
+			report.append(" p").append(percentile).append(' ').append(format(getPercentile(percentile))).append(' '); //$NON-NLS-1$
+		}
+		report.append(" max ").append(format(getPercentile(100))).append('\n'); //$NON-NLS-1$
+		for (Entry<String, Duration> entry : getSlowest(slowestCount)) {
+			report.append("  ").append(format(entry.getValue())).append("  ").append(entry.getKey()).append('\n'); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return report.toString();
+	}
+
+	private static String format(Duration duration) {
+		return String.format(Locale.ROOT, "%.3fs", Double.valueOf(duration.toNanos() / 1e9)); //$NON-NLS-1$
+	}
+}
@@ -23,6 +23,8 @@ public class ActionsMessages extends NLS {
 
 	public static String OpenInEditorAction_text;
 	public static String OpenInEditorAction_tooltip;
+	public static String OpenFullOutputAction_text;
+	public static String OpenFullOutputAction_tooltip;
 
 	// TODO cleanup the following:
 	public static String CopySelectedMessagesAction_text;
@@ -0,0 +1,44 @@
+/*********************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.corrosion.test.actions;
+
+import java.net.URI;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.corrosion.CorrosionPlugin;
+import org.eclipse.jface.action.Action;
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.PartInitException;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.ide.IDE;
+
+/**
+ * Opens the full output of a failing test, which the failure trace only shows
+ * the head and the tail of, in an editor.
+ */
+public class OpenFullOutputAction extends Action {
+	private final URI fOutput;
+
+	public OpenFullOutputAction(URI output) {
+		super(ActionsMessages.OpenFullOutputAction_text);
+		this.fOutput = output;
+		setToolTipText(ActionsMessages.OpenFullOutputAction_tooltip);
+	}
+
+	@Override
+	public void run() {
+		IWorkbenchPage activePage = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
+		try {
+			IDE.openEditorOnFileStore(activePage, EFS.getLocalFileSystem().getStore(fOutput));
+		} catch (PartInitException e) {
+			CorrosionPlugin.logError(e);
+		}
+	}
+}